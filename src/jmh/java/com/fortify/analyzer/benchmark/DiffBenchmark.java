@@ -0,0 +1,56 @@
+package com.fortify.analyzer.benchmark;
+
+import com.fortify.analyzer.service.MetadataDiffEngine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 두 externalmetadata.xml 비교({@link MetadataDiffEngine}) 지연 시간입니다.
+ * 업로드한 두 파일 비교(ComparisonJobService)와 저장된 룰팩 비교(AnalyzerService.computeRulePackComparison)가 같은 엔진을 사용합니다.
+ * 새 버전은 규칙의 10% 의 표준을 바꾸고 5% 씩 삭제/추가한 문서입니다.
+ * sortBufferRecords 가 전체 매핑 수보다 작으면 정렬 run 을 디스크로 내려쓰는 경로가 측정됩니다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class DiffBenchmark {
+
+    @Param({"20000"})
+    int rules;
+
+    @Param({"5"})
+    int mappingsPerRule;
+
+    // 100000: 기본값 (메모리에서 정렬), 10000: 디스크 run 병합
+    @Param({"100000", "10000"})
+    int sortBufferRecords;
+
+    private byte[] original;
+    private byte[] revised;
+    private MetadataDiffEngine engine;
+
+    @Setup(Level.Trial)
+    public void generate() {
+        SyntheticMetadataGenerator generator = new SyntheticMetadataGenerator(rules, mappingsPerRule, 2_000, 42);
+        original = generator.toBytes();
+        revised = generator.revision(0.1).toBytes();
+        engine = new MetadataDiffEngine(sortBufferRecords, System.getProperty("java.io.tmpdir"));
+    }
+
+    @Benchmark
+    public MetadataDiffEngine.DiffCounts compare(Blackhole blackhole) throws Exception {
+        return engine.compare(new ByteArrayInputStream(original), new ByteArrayInputStream(revised),
+                (bucket, entry) -> blackhole.consume(entry));
+    }
+}
@@ -0,0 +1,58 @@
+package com.fortify.analyzer.benchmark;
+
+import com.fortify.analyzer.service.RulePackParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 룰팩 업로드 시 externalmetadata.xml 파싱 처리량입니다.
+ * UploadService 가 사용하는 {@link RulePackParser} 로 <PackInfo> 와 모든 <Mapping> 을 읽습니다. (DB 저장 제외)
+ * parser 는 upload.xml.parser 설정값과 같습니다. 결과의 ops/s 에 매핑 수를 곱하면 초당 처리한 매핑 수입니다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ParseBenchmark {
+
+    @Param({"1000", "20000"})
+    int rules;
+
+    @Param({"5"})
+    int mappingsPerRule;
+
+    @Param({"stax", "dom"})
+    String parser;
+
+    private byte[] document;
+
+    private RulePackParser rulePackParser;
+
+    @Setup(Level.Trial)
+    public void generate() {
+        document = new SyntheticMetadataGenerator(rules, mappingsPerRule, 2_000, 42).toBytes();
+        rulePackParser = new RulePackParser(parser);
+    }
+
+    @Benchmark
+    public void parseRulePack(Blackhole blackhole) throws Exception {
+        try (RulePackParser.RulePackReader reader =
+                     rulePackParser.open(new ByteArrayInputStream(document), "externalmetadata.xml")) {
+            blackhole.consume(reader.packInfo());
+            rulePackParser.readMappings(reader, (ruleName, standardInfo) -> {
+                blackhole.consume(ruleName);
+                blackhole.consume(standardInfo);
+            });
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.fortify.analyzer.benchmark;
+
+import com.fortify.analyzer.repository.ExternalMappingRepository;
+import com.fortify.analyzer.service.RulePackChangedEvent;
+import com.fortify.analyzer.service.StandardCountIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * 검색 결과의 외부 표준별 개수 집계(SearchService.searchRulesAndAnalyze) 비용입니다.
+ * <ul>
+ *     <li>indexed: {@link StandardCountIndex} 로 일치한 규칙의 표준 ID 배열을 더하는 기본 경로</li>
+ *     <li>mappingRows: 색인이 준비되지 않았을 때처럼 일치한 규칙의 매핑 행을 하나씩 세는 경로 (DB 조회 제외)</li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class StandardCountAggregationBenchmark {
+
+    private static final long RULE_PACK_ID = 1L;
+
+    @Param({"20000"})
+    int rules;
+
+    @Param({"5"})
+    int mappingsPerRule;
+
+    // 검색어에 일치한 규칙 수 (좁은 검색어 / 넓은 검색어)
+    @Param({"100", "10000"})
+    int matchedRules;
+
+    private StandardCountIndex index;
+    private List<Long> matchedRuleIds;
+    // 일치한 규칙들의 (규칙 ID, 외부 표준) 매핑 행
+    private List<Map.Entry<Long, String>> matchedMappingRows;
+
+    @Setup(Level.Trial)
+    public void build() {
+        SyntheticMetadataGenerator generator = new SyntheticMetadataGenerator(rules, mappingsPerRule, 2_000, 42);
+        Map<Long, String> ruleNames = new LinkedHashMap<>();
+        Map<Long, Set<String>> standardsByRule = new LinkedHashMap<>();
+        List<ExternalMappingRepository.RuleStandardView> rows = new ArrayList<>();
+        long ruleId = 1;
+        for (Map.Entry<String, Set<String>> rule : generator.rules().entrySet()) {
+            ruleNames.put(ruleId, rule.getKey());
+            standardsByRule.put(ruleId, rule.getValue());
+            for (String standard : rule.getValue()) {
+                rows.add(row(ruleId, standard));
+            }
+            ruleId++;
+        }
+        // 업로드 후와 같이 룰팩 변경 이벤트로 집계를 채웁니다. 룰팩의 매핑 조회만 메모리의 행으로 대신합니다.
+        ExternalMappingRepository repository = (ExternalMappingRepository) Proxy.newProxyInstance(
+                ExternalMappingRepository.class.getClassLoader(), new Class<?>[]{ExternalMappingRepository.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("findRuleStandardsByRulePackId")) {
+                        return rows;
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+        index = new StandardCountIndex(repository);
+        index.onRulePackChanged(new RulePackChangedEvent(RULE_PACK_ID, ruleNames));
+
+        matchedRuleIds = new ArrayList<>(matchedRules);
+        matchedMappingRows = new ArrayList<>();
+        // 규칙 전체에 고르게 흩어진 규칙이 일치했다고 가정합니다.
+        int step = Math.max(1, rules / matchedRules);
+        for (long id = 1; id <= rules && matchedRuleIds.size() < matchedRules; id += step) {
+            matchedRuleIds.add(id);
+            for (String standard : standardsByRule.get(id)) {
+                matchedMappingRows.add(Map.entry(id, standard));
+            }
+        }
+    }
+
+    @Benchmark
+    public Map<String, Long> indexed() {
+        return index.aggregate(matchedRuleIds);
+    }
+
+    @Benchmark
+    public Map<String, Long> mappingRows() {
+        return matchedMappingRows.stream()
+                .collect(Collectors.groupingBy(Map.Entry::getValue, Collectors.counting()));
+    }
+
+    private static ExternalMappingRepository.RuleStandardView row(long ruleId, String standardInfo) {
+        return new ExternalMappingRepository.RuleStandardView() {
+            @Override
+            public Long getRuleId() {
+                return ruleId;
+            }
+
+            @Override
+            public Long getRulePackId() {
+                return RULE_PACK_ID;
+            }
+
+            @Override
+            public String getStandardInfo() {
+                return standardInfo;
+            }
+        };
+    }
+}
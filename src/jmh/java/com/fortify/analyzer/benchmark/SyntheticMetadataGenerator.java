@@ -0,0 +1,166 @@
+package com.fortify.analyzer.benchmark;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * 벤치마크용 externalmetadata.xml 을 만드는 생성기입니다.
+ * <p>
+ * 규칙 수, 규칙당 매핑 수, 외부 표준 종류 수를 정할 수 있으며, 같은 seed 로 만들면 항상 같은 문서가 나옵니다.
+ * 실제 룰팩처럼 한 규칙의 매핑이 여러 &lt;ExternalList&gt; 에 흩어지도록 표준 종류(CWE, OWASP ...)별 목록으로 나누어 씁니다.
+ * {@link #revision(double)} 은 일부 규칙의 표준을 바꾸고, 일부를 지우고, 새 규칙을 더한 다음 버전을 만듭니다. (비교 벤치마크용)
+ * <p>
+ * 파일로도 만들 수 있습니다: {@code java ... SyntheticMetadataGenerator <출력 파일> [규칙 수] [규칙당 매핑 수] [표준 종류 수]}
+ */
+public final class SyntheticMetadataGenerator {
+
+    private static final String[] TAXONOMIES = {"CWE", "OWASP Top 10", "PCI DSS", "CAPEC", "STIG"};
+
+    private final int mappingsPerRule;
+    private final int standards;
+    private final long seed;
+    // 규칙 이름 -> 외부 표준 목록 (문서에 쓰는 순서 유지)
+    private final Map<String, Set<String>> rules;
+
+    public SyntheticMetadataGenerator(int rules, int mappingsPerRule, int standards, long seed) {
+        this.mappingsPerRule = Math.max(1, mappingsPerRule);
+        this.standards = Math.max(this.mappingsPerRule, standards);
+        this.seed = seed;
+        this.rules = new LinkedHashMap<>();
+        Random random = new Random(seed);
+        for (int i = 0; i < rules; i++) {
+            this.rules.put(ruleName(i), randomStandards(random));
+        }
+    }
+
+    private SyntheticMetadataGenerator(SyntheticMetadataGenerator base, Map<String, Set<String>> rules, long seed) {
+        this.mappingsPerRule = base.mappingsPerRule;
+        this.standards = base.standards;
+        this.seed = seed;
+        this.rules = rules;
+    }
+
+    public int ruleCount() {
+        return rules.size();
+    }
+
+    public int mappingCount() {
+        return rules.values().stream().mapToInt(Set::size).sum();
+    }
+
+    /**
+     * 규칙 이름 -> 외부 표준 목록 (수정하지 마세요)
+     */
+    public Map<String, Set<String>> rules() {
+        return rules;
+    }
+
+    /**
+     * 다음 버전의 문서를 만듭니다.
+     * @param changedRatio 표준이 바뀌는 규칙의 비율. 같은 비율만큼의 절반씩 규칙이 삭제되고 새로 추가됩니다.
+     */
+    public SyntheticMetadataGenerator revision(double changedRatio) {
+        Random random = new Random(seed + 1);
+        Map<String, Set<String>> next = new LinkedHashMap<>();
+        int removedOrAdded = 0;
+        for (Map.Entry<String, Set<String>> rule : rules.entrySet()) {
+            double roll = random.nextDouble();
+            if (roll < changedRatio / 2) {
+                removedOrAdded++;
+                continue;
+            }
+            next.put(rule.getKey(), roll < changedRatio * 1.5 ? randomStandards(random) : rule.getValue());
+        }
+        for (int i = 0; i < removedOrAdded; i++) {
+            next.put(ruleName(rules.size() + i), randomStandards(random));
+        }
+        return new SyntheticMetadataGenerator(this, next, seed + 1);
+    }
+
+    public byte[] toBytes() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(1024, mappingCount() * 160));
+        writeTo(out);
+        return out.toByteArray();
+    }
+
+    public void writeTo(OutputStream outputStream) {
+        // 표준 종류별 <ExternalList> 로 나눕니다.
+        Map<String, List<String[]>> byTaxonomy = new LinkedHashMap<>();
+        for (String taxonomy : TAXONOMIES) {
+            byTaxonomy.put(taxonomy, new ArrayList<>());
+        }
+        rules.forEach((rule, ruleStandards) -> {
+            for (String standard : ruleStandards) {
+                byTaxonomy.get(standard.substring(0, standard.lastIndexOf(' '))).add(new String[]{rule, standard});
+            }
+        });
+
+        try {
+            Writer writer = new OutputStreamWriter(outputStream, StandardCharsets.UTF_8);
+            writer.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+            writer.write("<ExternalMetadataPack xmlns=\"xmlns://www.fortifysoftware.com/schema/externalMetadata\">\n");
+            writer.write("  <PackInfo>\n    <Name>Synthetic External Metadata</Name>\n    <PackID>synthetic-" + seed
+                    + "</PackID>\n    <Version>" + seed + "." + rules.size() + "</Version>\n  </PackInfo>\n");
+            for (Map.Entry<String, List<String[]>> list : byTaxonomy.entrySet()) {
+                writer.write("  <ExternalList>\n    <Name>" + list.getKey() + "</Name>\n");
+                for (String[] mapping : list.getValue()) {
+                    writer.write("    <Mapping>\n      <InternalCategory>");
+                    writer.write(mapping[0]);
+                    writer.write("</InternalCategory>\n      <ExternalCategory>");
+                    writer.write(mapping[1]);
+                    writer.write("</ExternalCategory>\n    </Mapping>\n");
+                }
+                writer.write("  </ExternalList>\n");
+            }
+            writer.write("</ExternalMetadataPack>\n");
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Set<String> randomStandards(Random random) {
+        Set<String> result = new LinkedHashSet<>();
+        while (result.size() < mappingsPerRule) {
+            int standard = random.nextInt(standards);
+            result.add(TAXONOMIES[standard % TAXONOMIES.length] + " " + (standard / TAXONOMIES.length + 1));
+        }
+        return result;
+    }
+
+    private static String ruleName(int index) {
+        return "Synthetic Rule " + index + ": Category " + (index % 97);
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: SyntheticMetadataGenerator <output file> [rules] [mappings per rule] [standards]");
+            System.exit(1);
+        }
+        int rules = args.length > 1 ? Integer.parseInt(args[1]) : 10_000;
+        int mappingsPerRule = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+        int standards = args.length > 3 ? Integer.parseInt(args[3]) : 2_000;
+        SyntheticMetadataGenerator generator = new SyntheticMetadataGenerator(rules, mappingsPerRule, standards, 42);
+        Path output = Paths.get(args[0]);
+        try (OutputStream out = Files.newOutputStream(output)) {
+            generator.writeTo(out);
+        }
+        System.out.printf("%s: %d rules, %d mappings, %d bytes%n", output, generator.ruleCount(), generator.mappingCount(),
+                Files.size(output));
+    }
+}
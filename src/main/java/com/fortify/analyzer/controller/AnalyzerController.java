@@ -2,11 +2,13 @@ package com.fortify.analyzer.controller;
 
 import com.fortify.analyzer.dto.XmlComparisonResultDto;
 import com.fortify.analyzer.service.AnalyzerService;
+import com.fortify.analyzer.service.ComparisonJobService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
@@ -20,30 +22,62 @@ public class AnalyzerController {
     private static final Logger logger = LoggerFactory.getLogger(AnalyzerController.class);
 
     private final AnalyzerService analyzerService;
+    private final ComparisonJobService comparisonJobService;
 
-    public AnalyzerController(AnalyzerService analyzerService) {
+    public AnalyzerController(AnalyzerService analyzerService, ComparisonJobService comparisonJobService) {
         this.analyzerService = analyzerService;
+        this.comparisonJobService = comparisonJobService;
     }
 
     @GetMapping("")
-    public String analyzerPage() {
+    public String analyzerPage(Model model) {
+        model.addAttribute("rulePacks", analyzerService.getRulePackInfos());
         return "analyzer";
     }
 
+    /**
+     * 업로드된 두 파일의 비교를 백그라운드 작업으로 제출하고, 진행 상황/결과를 보여주는 작업 화면으로 이동합니다.
+     */
     @PostMapping("/compare-xml")
     public String compareXmlFiles(@RequestParam("fileA") MultipartFile fileA,
                                   @RequestParam("fileB") MultipartFile fileB,
                                   Model model) {
         try {
-            XmlComparisonResultDto result = analyzerService.compareExternalMetadata(fileA, fileB);
+            String jobId = comparisonJobService.submit(fileA, fileB);
+            return "redirect:/analyzer/jobs/" + jobId;
+        } catch (Exception e) {
+            logger.error("XML comparison job submission failed", e);
+            model.addAttribute("error", "XML 파일 비교 작업을 시작하는 중 오류가 발생했습니다: " + e.getMessage());
+            return "analyzer-results";
+        }
+    }
+
+    @GetMapping("/jobs/{jobId}")
+    public String comparisonJobPage(@PathVariable String jobId, Model model) {
+        return comparisonJobService.getStatus(jobId)
+                .map(status -> {
+                    model.addAttribute("job", status);
+                    return "analyzer-job";
+                })
+                .orElseGet(() -> {
+                    model.addAttribute("error", "비교 작업을 찾을 수 없습니다. 작업이 만료되었을 수 있습니다.");
+                    return "analyzer-results";
+                });
+    }
+
+    @PostMapping("/compare-packs")
+    public String compareRulePacks(@RequestParam("packA") Long packA,
+                                   @RequestParam("packB") Long packB,
+                                   Model model) {
+        try {
+            XmlComparisonResultDto result = analyzerService.compareRulePacks(packA, packB);
             model.addAttribute("result", result);
-            model.addAttribute("fileAName", fileA.getOriginalFilename());
-            model.addAttribute("fileBName", fileB.getOriginalFilename());
+            model.addAttribute("fileAName", analyzerService.describeRulePack(packA));
+            model.addAttribute("fileBName", analyzerService.describeRulePack(packB));
         } catch (Exception e) {
-            // 이제 logger가 선언되었으므로 이 코드가 정상적으로 동작합니다.
-            logger.error("XML comparison failed", e);
-            model.addAttribute("error", "XML 파일을 비교하는 중 오류가 발생했습니다: " + e.getMessage());
+            logger.error("Rule pack comparison failed", e);
+            model.addAttribute("error", "저장된 룰팩을 비교하는 중 오류가 발생했습니다: " + e.getMessage());
         }
         return "analyzer-results";
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,121 @@
+package com.fortify.analyzer.controller;
+
+import com.fortify.analyzer.dto.ComparisonJobPageDto;
+import com.fortify.analyzer.dto.ComparisonJobStatusDto;
+import com.fortify.analyzer.service.ComparisonJobService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+@Tag(name = "Comparison Jobs API", description = "XML 비교 작업 제출 및 결과 조회 API")
+@RestController
+@RequestMapping("/api/analyzer/jobs")
+public class ComparisonJobApiController {
+
+    // 결과 페이지 조회의 최대 페이지 크기
+    private static final int MAX_PAGE_LIMIT = 500;
+
+    private final ComparisonJobService comparisonJobService;
+
+    public ComparisonJobApiController(ComparisonJobService comparisonJobService) {
+        this.comparisonJobService = comparisonJobService;
+    }
+
+    @Operation(summary = "XML 비교 작업 제출", description = "두 externalmetadata.xml 파일의 비교를 백그라운드 작업으로 시작하고 작업 상태를 반환합니다.")
+    @ApiResponse(responseCode = "202", description = "작업 접수")
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<ComparisonJobStatusDto> submit(
+            @Parameter(description = "원본(AS-IS) XML 파일") @RequestParam("fileA") MultipartFile fileA,
+            @Parameter(description = "새로운(TO-BE) XML 파일") @RequestParam("fileB") MultipartFile fileB) throws IOException {
+        String jobId = comparisonJobService.submit(fileA, fileB);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(comparisonJobService.getStatus(jobId).orElseThrow());
+    }
+
+    @Operation(summary = "비교 작업 상태 조회", description = "진행률(읽은 바이트)과 버킷별로 지금까지 분류된 규칙 수를 반환합니다.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "조회 성공"),
+            @ApiResponse(responseCode = "404", description = "해당 ID의 작업을 찾을 수 없음")
+    })
+    @GetMapping("/{jobId}")
+    public ResponseEntity<ComparisonJobStatusDto> getStatus(@Parameter(description = "작업 ID") @PathVariable String jobId) {
+        return comparisonJobService.getStatus(jobId)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    @Operation(summary = "비교 결과 페이지 조회", description = "완료된 작업의 한 버킷(common, modified, only-in-a, only-in-b)을 offset 부터 limit 건 반환합니다.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "조회 성공"),
+            @ApiResponse(responseCode = "404", description = "해당 ID의 작업을 찾을 수 없음"),
+            @ApiResponse(responseCode = "409", description = "작업이 아직 완료되지 않음")
+    })
+    @GetMapping("/{jobId}/results/{bucket}")
+    public ResponseEntity<ComparisonJobPageDto> getPage(
+            @Parameter(description = "작업 ID") @PathVariable String jobId,
+            @Parameter(description = "결과 구분") @PathVariable String bucket,
+            @Parameter(description = "시작 위치 (0부터)") @RequestParam(defaultValue = "0") long offset,
+            @Parameter(description = "페이지 크기 (1~" + MAX_PAGE_LIMIT + ")") @RequestParam(defaultValue = "100") int limit) throws IOException {
+        if (comparisonJobService.getStatus(jobId).isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        try {
+            int boundedLimit = Math.max(1, Math.min(limit, MAX_PAGE_LIMIT));
+            return ResponseEntity.ok(comparisonJobService.getPage(jobId, bucket, offset, boundedLimit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+    }
+
+    @Operation(summary = "비교 결과 내보내기", description = "완료된 작업의 결과를 CSV 또는 NDJSON 으로 내려받습니다. bucket 을 생략하면 모든 버킷을 포함합니다.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "내보내기 성공"),
+            @ApiResponse(responseCode = "404", description = "해당 ID의 작업을 찾을 수 없음"),
+            @ApiResponse(responseCode = "409", description = "작업이 아직 완료되지 않음")
+    })
+    @GetMapping("/{jobId}/export")
+    public ResponseEntity<StreamingResponseBody> export(
+            @Parameter(description = "작업 ID") @PathVariable String jobId,
+            @Parameter(description = "형식 (csv, ndjson)") @RequestParam(defaultValue = "csv") String format,
+            @Parameter(description = "결과 구분 (생략 시 전체)") @RequestParam(required = false) String bucket) {
+        ComparisonJobService.ExportFormat exportFormat;
+        try {
+            exportFormat = ComparisonJobService.ExportFormat.valueOf(format.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (bucket != null && !ComparisonJobService.isBucketName(bucket)) {
+            return ResponseEntity.badRequest().build();
+        }
+        return comparisonJobService.getStatus(jobId)
+                .map(status -> {
+                    if (!"COMPLETED".equals(status.state())) {
+                        return ResponseEntity.status(HttpStatus.CONFLICT).<StreamingResponseBody>build();
+                    }
+                    String extension = exportFormat == ComparisonJobService.ExportFormat.CSV ? "csv" : "ndjson";
+                    MediaType mediaType = exportFormat == ComparisonJobService.ExportFormat.CSV
+                            ? new MediaType("text", "csv", StandardCharsets.UTF_8)
+                            : new MediaType("application", "x-ndjson", StandardCharsets.UTF_8);
+                    StreamingResponseBody body = outputStream -> comparisonJobService.export(jobId, bucket, exportFormat, outputStream);
+                    return ResponseEntity.ok()
+                            .contentType(mediaType)
+                            .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"comparison-" + jobId + "." + extension + "\"")
+                            .body(body);
+                })
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+}
@@ -1,7 +1,12 @@
 package com.fortify.analyzer.controller;
 
+import com.fortify.analyzer.dto.JobStatusDto;
+import com.fortify.analyzer.dto.KingdomCrawlProgressDto;
+import com.fortify.analyzer.service.AnalysisArtifactCache;
 import com.fortify.analyzer.service.AnalyzerService;
 import com.fortify.analyzer.service.CrawlService;
+import com.fortify.analyzer.service.CrawlStatusStream;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
@@ -9,9 +14,15 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Optional;
 
 @Controller
 @RequestMapping("/crawler")
@@ -19,10 +30,12 @@ public class CrawlController {
 
     private final CrawlService crawlService;
     private final AnalyzerService analyzerService;
+    private final CrawlStatusStream crawlStatusStream;
 
-    public CrawlController(CrawlService crawlService, AnalyzerService analyzerService) {
+    public CrawlController(CrawlService crawlService, AnalyzerService analyzerService, CrawlStatusStream crawlStatusStream) {
         this.crawlService = crawlService;
         this.analyzerService = analyzerService;
+        this.crawlStatusStream = crawlStatusStream;
     }
 
     @GetMapping("")
@@ -82,37 +95,79 @@ public class CrawlController {
         return ResponseEntity.ok(crawlService.getTasksStatus());
     }
 
+    /**
+     * 작업 상태 스트림(SSE). 연결 직후 작업별 현재 상태를, 이후에는 바뀐 상태만 "status" 이벤트로 보냅니다.
+     */
+    @GetMapping(value = "/status/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @ResponseBody
+    public SseEmitter streamStatus() {
+        return crawlStatusStream.subscribe();
+    }
+
+    @GetMapping("/jobs")
+    @ResponseBody
+    public ResponseEntity<List<JobStatusDto>> getJobStatuses() {
+        return ResponseEntity.ok(crawlService.getJobStatuses());
+    }
+
+    @GetMapping("/progress")
+    @ResponseBody
+    public ResponseEntity<List<KingdomCrawlProgressDto>> getCrawlProgress() {
+        return ResponseEntity.ok(crawlService.getCrawlProgress());
+    }
+
     /**
      * 요약 분석 결과 JSON을 반환하는 API입니다.
+     * ETag/Last-Modified 조건부 요청(304)과 gzip 응답을 지원합니다.
      * @return 요약 JSON 데이터를 담은 ResponseEntity
      */
     @GetMapping("/api/analysis/summary")
     @ResponseBody
-    public ResponseEntity<String> getAnalysisSummary() {
-        try {
-            String jsonContent = analyzerService.getAnalysisResultJson("summary_by_language.json");
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            return new ResponseEntity<>(jsonContent, headers, HttpStatus.OK);
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("{\"error\": \"Could not read summary file.\"}");
-        }
+    public ResponseEntity<byte[]> getAnalysisSummary(@RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return serveAnalysisFile("summary_by_language.json", acceptEncoding, "Could not read summary file.");
     }
 
     /**
      * 상세 분석 결과 JSON을 반환하는 API입니다.
+     * ETag/Last-Modified 조건부 요청(304)과 gzip 응답을 지원합니다.
      * @return 상세 JSON 데이터를 담은 ResponseEntity
      */
     @GetMapping("/api/analysis/detail")
     @ResponseBody
-    public ResponseEntity<String> getAnalysisDetail() {
+    public ResponseEntity<byte[]> getAnalysisDetail(@RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return serveAnalysisFile("detail_by_language/detail_by_language.json", acceptEncoding, "Could not read detail file.");
+    }
+
+    /**
+     * 캐시된 분석 결과 파일을 응답합니다. ETag/Last-Modified 를 설정하면 조건부 GET 은 Spring 이 304 로 처리합니다.
+     */
+    private ResponseEntity<byte[]> serveAnalysisFile(String fileName, String acceptEncoding, String errorMessage) {
+        Optional<AnalysisArtifactCache.Artifact> artifact;
         try {
-            String jsonContent = analyzerService.getAnalysisResultJson("detail_by_language.json");
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            return new ResponseEntity<>(jsonContent, headers, HttpStatus.OK);
+            artifact = analyzerService.getAnalysisArtifact(fileName);
         } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("{\"error\": \"Could not read detail file.\"}");
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(("{\"error\": \"" + errorMessage + "\"}").getBytes(StandardCharsets.UTF_8));
+        }
+        if (artifact.isEmpty()) {
+            String notFound = String.format("{ \"error\": \"File not found: %s. Please run the crawler first.\" }", fileName);
+            return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(notFound.getBytes(StandardCharsets.UTF_8));
+        }
+
+        AnalysisArtifactCache.Artifact file = artifact.get();
+        boolean gzip = acceptEncoding != null && acceptEncoding.toLowerCase(Locale.ROOT).contains("gzip");
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .lastModified(file.lastModifiedMillis())
+                .cacheControl(CacheControl.noCache())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            // 인코딩별로 다른 표현이므로 ETag 도 구분합니다.
+            return response.eTag(file.etag().replace("\"", "") + "-gzip")
+                    .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                    .body(file.gzipContent());
         }
+        return response.eTag(file.etag()).body(file.content());
     }
-}
\ No newline at end of file
+}
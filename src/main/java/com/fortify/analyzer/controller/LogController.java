@@ -1,31 +1,68 @@
 // src/main/java/com/fortify/analyzer/controller/LogController.java
 package com.fortify.analyzer.controller;
 
-import com.fortify.analyzer.entity.Log;
-import com.fortify.analyzer.repository.LogRepository;
+import com.fortify.analyzer.dto.LogPageDto;
+import com.fortify.analyzer.service.LogService;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
 
-import java.util.List;
+import java.time.LocalDateTime;
 
 @Controller
 @RequiredArgsConstructor
 public class LogController {
 
-    private final LogRepository logRepository;
+    private static final int MAX_PAGE_SIZE = 500;
+
+    private final LogService logService;
 
     @GetMapping("/logs")
-    public String showLogs(Model model) {
-        // DB에 저장된 모든 로그를 최신순으로 정렬하여 조회합니다.
-        List<Log> logs = logRepository.findAll(Sort.by(Sort.Direction.DESC, "timestamp"));
-        
-        // 조회된 로그 목록을 'model'에 담아 View(HTML)로 전달합니다.
-        model.addAttribute("logs", logs);
-        
+    public String showLogs(@RequestParam(required = false) String status,
+                           @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                           @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                           @RequestParam(required = false) String cursor,
+                           @RequestParam(defaultValue = "100") int size,
+                           Model model) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        // 최신순으로 한 페이지만 조회합니다. (스택 트레이스는 '보기'를 누를 때 따로 조회)
+        LogPageDto page;
+        try {
+            page = logService.getLogPage(status, from, to, cursor, pageSize);
+        } catch (IllegalArgumentException e) {
+            model.addAttribute("error", "잘못된 페이지 요청입니다. 첫 페이지를 표시합니다.");
+            page = logService.getLogPage(status, from, to, null, pageSize);
+        }
+
+        // 조회된 로그 목록과 필터 값을 'model'에 담아 View(HTML)로 전달합니다.
+        model.addAttribute("logs", page.items());
+        model.addAttribute("nextCursor", page.nextCursor());
+        model.addAttribute("statuses", logService.getStatuses());
+        model.addAttribute("status", status);
+        model.addAttribute("from", from);
+        model.addAttribute("to", to);
+        model.addAttribute("size", pageSize);
+        model.addAttribute("firstPage", cursor == null || cursor.isBlank());
+
         // 'templates/logs.html' 파일을 사용자에게 보여줍니다.
         return "logs";
     }
-}
\ No newline at end of file
+
+    /**
+     * 로그 한 건의 스택 트레이스를 반환합니다. (목록에서 '보기'를 누를 때 조회)
+     */
+    @GetMapping(value = "/logs/{id}/traceback", produces = MediaType.TEXT_PLAIN_VALUE)
+    @ResponseBody
+    public ResponseEntity<String> getTraceback(@PathVariable Long id) {
+        return logService.getTraceback(id)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+}
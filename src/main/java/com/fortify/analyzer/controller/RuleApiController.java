@@ -1,6 +1,10 @@
 package com.fortify.analyzer.controller;
 
+import com.fortify.analyzer.dto.CacheStatsDto;
+import com.fortify.analyzer.dto.RuleSearchPageDto;
+import com.fortify.analyzer.dto.RuleSearchSummaryDto;
 import com.fortify.analyzer.dto.SearchResultDto;
+import com.fortify.analyzer.dto.StandardCountDto;
 import com.fortify.analyzer.entity.Rule;
 import com.fortify.analyzer.service.SearchService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -12,6 +16,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
 import java.util.Optional;
 
 @Tag(name = "Rules API", description = "룰 검색 및 조회 API")
@@ -19,6 +24,9 @@ import java.util.Optional;
 @RequestMapping("/api/rules")
 public class RuleApiController {
 
+    // 페이지 단위 검색 API 의 최대 페이지 크기
+    private static final int MAX_PAGE_LIMIT = 500;
+
     @Autowired
     private SearchService searchService;
 
@@ -32,6 +40,43 @@ public class RuleApiController {
         return ResponseEntity.ok(results);
     }
 
+    @Operation(summary = "키워드로 룰 목록 페이지 조회",
+            description = "키워드가 포함된 룰을 ID 오름차순으로 limit 건씩 반환합니다. 다음 페이지는 응답의 nextCursor 를 after 로 전달하여 조회합니다.")
+    @ApiResponse(responseCode = "200", description = "조회 성공")
+    @GetMapping("/search/page")
+    public ResponseEntity<RuleSearchPageDto> searchRulePage(
+            @Parameter(description = "검색할 룰 이름 키워드", required = true) @RequestParam String keyword,
+            @Parameter(description = "이전 페이지의 nextCursor (첫 페이지는 생략)") @RequestParam(required = false) Long after,
+            @Parameter(description = "페이지 크기 (1~" + MAX_PAGE_LIMIT + ")") @RequestParam(defaultValue = "50") int limit) {
+        int boundedLimit = Math.max(1, Math.min(limit, MAX_PAGE_LIMIT));
+        return ResponseEntity.ok(searchService.searchRulePage(keyword, after, boundedLimit));
+    }
+
+    @Operation(summary = "키워드 검색 통계 조회", description = "룰 목록 없이 일치하는 룰 개수와 상위 외부 표준 통계만 반환합니다.")
+    @ApiResponse(responseCode = "200", description = "조회 성공")
+    @GetMapping("/search/summary")
+    public ResponseEntity<RuleSearchSummaryDto> summarizeSearch(
+            @Parameter(description = "검색할 룰 이름 키워드", required = true) @RequestParam String keyword,
+            @Parameter(description = "반환할 상위 외부 표준 개수") @RequestParam(defaultValue = "5") int top) {
+        return ResponseEntity.ok(searchService.summarizeSearch(keyword, Math.max(0, top)));
+    }
+
+    @Operation(summary = "검색 결과 캐시 통계 조회", description = "검색 결과 캐시의 적중/미스/제거 횟수와 현재 크기를 반환합니다.")
+    @ApiResponse(responseCode = "200", description = "조회 성공")
+    @GetMapping("/search/cache-stats")
+    public ResponseEntity<CacheStatsDto> getSearchCacheStats() {
+        return ResponseEntity.ok(searchService.getSearchCacheStats());
+    }
+
+    @Operation(summary = "룰팩 외부 표준 통계 조회", description = "룰팩에 속한 룰들의 외부 표준별 매핑 개수를 많은 순으로 반환합니다.")
+    @ApiResponse(responseCode = "200", description = "조회 성공")
+    @GetMapping("/packs/{id}/standards")
+    public ResponseEntity<List<StandardCountDto>> getRulePackStandardCounts(
+            @Parameter(description = "조회할 룰팩의 ID") @PathVariable Long id,
+            @Parameter(description = "반환할 상위 외부 표준 개수") @RequestParam(defaultValue = "5") int top) {
+        return ResponseEntity.ok(searchService.getRulePackStandardCounts(id, Math.max(0, top)));
+    }
+
     @Operation(summary = "특정 룰 상세 정보 조회", description = "룰 ID를 사용하여 특정 룰의 상세 정보를 조회합니다.")
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "조회 성공"),
@@ -0,0 +1,12 @@
+package com.fortify.analyzer.dto;
+
+/**
+ * 캐시 적중/미스/제거 통계를 REST API 로 전달하기 위한 DTO입니다.
+ */
+public record CacheStatsDto(
+        long hits,
+        long misses,
+        long evictions,
+        int size,
+        int maxSize
+) {}
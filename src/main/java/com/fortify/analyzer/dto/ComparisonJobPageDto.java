@@ -0,0 +1,12 @@
+package com.fortify.analyzer.dto;
+
+import java.util.List;
+
+/**
+ * 비교 작업 결과 중 한 버킷의 한 페이지입니다.
+ * @param bucket 버킷 이름 (common, modified, only-in-a, only-in-b)
+ * @param offset 페이지의 시작 위치 (0부터)
+ * @param total 버킷의 전체 규칙 수
+ * @param items 페이지에 포함된 규칙 (규칙 ID 오름차순)
+ */
+public record ComparisonJobPageDto(String bucket, long offset, long total, List<RuleDiffEntry> items) {}
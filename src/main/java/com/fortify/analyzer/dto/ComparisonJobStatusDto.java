@@ -0,0 +1,29 @@
+package com.fortify.analyzer.dto;
+
+import java.util.Map;
+
+/**
+ * 비동기 XML 비교 작업의 진행 상태입니다.
+ * @param jobId 작업 ID
+ * @param state QUEUED, RUNNING, COMPLETED, FAILED 중 하나
+ * @param phase 현재 단계 설명
+ * @param fileAName 원본 파일 이름
+ * @param fileBName 새로운 파일 이름
+ * @param bytesRead 지금까지 읽은 바이트 수 (두 파일 합계)
+ * @param totalBytes 두 파일의 전체 바이트 수
+ * @param progressPercent 파일 읽기 진행률 (0~100)
+ * @param counts Key: 버킷 이름(common, modified, only-in-a, only-in-b), Value: 지금까지 분류된 규칙 수
+ * @param message 실패 시 오류 메시지
+ */
+public record ComparisonJobStatusDto(
+        String jobId,
+        String state,
+        String phase,
+        String fileAName,
+        String fileBName,
+        long bytesRead,
+        long totalBytes,
+        int progressPercent,
+        Map<String, Long> counts,
+        String message
+) {}
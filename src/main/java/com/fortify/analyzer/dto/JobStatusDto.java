@@ -0,0 +1,35 @@
+package com.fortify.analyzer.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * 백그라운드 작업의 진행 상태입니다.
+ * @param jobId 작업 ID
+ * @param jobType 작업 종류 (CRAWLING, ANALYSIS)
+ * @param state QUEUED, RUNNING, COMPLETED, FAILED, CANCELLED, INTERRUPTED 중 하나
+ * @param stepsDone 완료한 단계 수 (크롤링: 페이지 수)
+ * @param stepsTotal 전체 단계 수 (아직 모르면 0)
+ * @param currentStep 현재 단계 설명
+ * @param throughputPerMinute 이번 실행의 분당 처리 단계 수
+ * @param etaSeconds 남은 예상 시간(초), 계산할 수 없으면 null
+ * @param message 마지막 결과/오류 메시지
+ * @param attempts 실행(재개 포함) 횟수
+ * @param startedAt 이번 실행 시작 시각
+ * @param updatedAt 마지막 갱신 시각
+ * @param finishedAt 종료 시각
+ */
+public record JobStatusDto(
+        Long jobId,
+        String jobType,
+        String state,
+        long stepsDone,
+        long stepsTotal,
+        String currentStep,
+        double throughputPerMinute,
+        Long etaSeconds,
+        String message,
+        int attempts,
+        LocalDateTime startedAt,
+        LocalDateTime updatedAt,
+        LocalDateTime finishedAt
+) {}
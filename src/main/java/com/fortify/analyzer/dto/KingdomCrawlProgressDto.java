@@ -0,0 +1,23 @@
+package com.fortify.analyzer.dto;
+
+/**
+ * 카테고리(kingdom) 하나의 크롤러 실행 진행 상태입니다.
+ * @param kingdom 카테고리 이름
+ * @param state QUEUED, RUNNING, COMPLETED, FAILED, CANCELLED 중 하나
+ * @param pagesDone 크롤링을 마친 목록 페이지 수
+ * @param totalPages 크롤링할 전체 목록 페이지 수
+ * @param fetchedPages 새로 받았거나 내용이 바뀐 페이지 수 (증분 모드)
+ * @param unchangedPages 다시 받았지만 내용이 같은 페이지 수 (증분 모드)
+ * @param cachedPages 서버가 304 로 응답하여 캐시를 사용한 페이지 수 (증분 모드)
+ * @param lastMessage 크롤러가 마지막으로 출력한 줄
+ */
+public record KingdomCrawlProgressDto(
+        String kingdom,
+        String state,
+        int pagesDone,
+        int totalPages,
+        int fetchedPages,
+        int unchangedPages,
+        int cachedPages,
+        String lastMessage
+) {}
@@ -0,0 +1,12 @@
+package com.fortify.analyzer.dto;
+
+import java.util.List;
+
+/**
+ * 키셋(커서) 방식 로그 목록의 한 페이지 결과입니다. (최신순)
+ * 다음 페이지는 nextCursor 를 cursor 파라미터로 넘겨 요청하며, 마지막 페이지이면 nextCursor 가 null 입니다.
+ */
+public record LogPageDto(
+        List<LogSummaryDto> items,
+        String nextCursor
+) {}
@@ -0,0 +1,15 @@
+package com.fortify.analyzer.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * 로그 목록 화면에서 로그 한 건을 엔티티 대신 전달하기 위한 프로젝션 DTO입니다.
+ * 스택 트레이스(TEXT)는 읽지 않고 존재 여부만 전달하며, 내용은 필요할 때 따로 조회합니다.
+ */
+public record LogSummaryDto(
+        Long id,
+        LocalDateTime timestamp,
+        String status,
+        String message,
+        Boolean hasTraceback
+) {}
@@ -0,0 +1,12 @@
+package com.fortify.analyzer.dto;
+
+import java.util.List;
+
+/**
+ * 비교 결과의 규칙 한 건입니다.
+ * @param ruleId 규칙 ID (InternalCategory)
+ * @param categories 규칙의 외부 표준 목록 (정렬됨). 공통/변경/새로운 쪽에만 있는 규칙은 새로운(TO-BE) 파일 기준, 원본에만 있는 규칙은 원본 기준
+ * @param previousCategories 변경된 규칙일 때 원본(AS-IS) 파일의 외부 표준 목록, 그 외에는 null
+ */
+public record RuleDiffEntry(String ruleId, List<String> categories, List<String> previousCategories) {
+}
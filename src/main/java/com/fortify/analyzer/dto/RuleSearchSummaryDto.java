@@ -0,0 +1,12 @@
+package com.fortify.analyzer.dto;
+
+import java.util.List;
+
+/**
+ * 검색 결과 목록 없이 개수와 상위 외부 표준 통계만 전달하는 가벼운 집계 DTO입니다.
+ */
+public record RuleSearchSummaryDto(
+        String keyword,
+        long ruleCount,
+        List<StandardCountDto> topStandards
+) {}
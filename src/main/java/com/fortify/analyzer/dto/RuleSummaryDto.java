@@ -0,0 +1,12 @@
+package com.fortify.analyzer.dto;
+
+/**
+ * 페이지 단위 검색 API 에서 규칙 한 건을 엔티티 대신 전달하기 위한 프로젝션 DTO입니다.
+ */
+public record RuleSummaryDto(
+        Long id,
+        String ruleName,
+        String packName,
+        String packVersion,
+        Long mappingCount
+) {}
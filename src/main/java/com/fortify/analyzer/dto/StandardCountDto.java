@@ -0,0 +1,9 @@
+package com.fortify.analyzer.dto;
+
+/**
+ * 외부 표준별 매핑 개수입니다.
+ */
+public record StandardCountDto(
+        String standardInfo,
+        Long count
+) {}
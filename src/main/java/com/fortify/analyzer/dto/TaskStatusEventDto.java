@@ -0,0 +1,17 @@
+package com.fortify.analyzer.dto;
+
+import java.util.List;
+
+/**
+ * 크롤링/분석 상태 스트림(SSE)으로 전달하는 작업 상태입니다.
+ * @param task 작업 이름 (CRAWLING, ANALYSIS)
+ * @param status 상태 문자열 (e.g., "RUNNING: ...", "IDLE - ..."), GET /crawler/status 와 같은 형식
+ * @param job 구조화된 작업 진행 상태, 작업 기록이 없으면 null
+ * @param kingdoms 카테고리별 크롤러 진행 상태 (CRAWLING 만 해당, 그 외에는 빈 목록)
+ */
+public record TaskStatusEventDto(
+        String task,
+        String status,
+        JobStatusDto job,
+        List<KingdomCrawlProgressDto> kingdoms
+) {}
@@ -1,18 +1,59 @@
 package com.fortify.analyzer.dto;
 
 import lombok.Getter;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 
+/**
+ * 두 externalmetadata.xml 비교 결과입니다.
+ * 버킷별 개수는 항상 전체 개수이며, 목록에는 버킷마다 최대 displayLimit 건까지만 담깁니다.
+ */
 @Getter
 public class XmlComparisonResultDto {
-    private final List<Map<String, String>> commonRules;
-    private final List<Map<String, String>> onlyInA;
-    private final List<Map<String, String>> onlyInB;
-
-    public XmlComparisonResultDto(List<Map<String, String>> commonRules, List<Map<String, String>> onlyInA, List<Map<String, String>> onlyInB) {
-        this.commonRules = commonRules;
-        this.onlyInA = onlyInA;
-        this.onlyInB = onlyInB;
+    private final List<RuleDiffEntry> commonRules = new ArrayList<>();
+    private final List<RuleDiffEntry> modifiedRules = new ArrayList<>();
+    private final List<RuleDiffEntry> onlyInA = new ArrayList<>();
+    private final List<RuleDiffEntry> onlyInB = new ArrayList<>();
+    private final int displayLimit;
+    private long commonCount;
+    private long modifiedCount;
+    private long onlyInACount;
+    private long onlyInBCount;
+
+    public XmlComparisonResultDto(int displayLimit) {
+        this.displayLimit = displayLimit;
+    }
+
+    public void addCommon(RuleDiffEntry entry) {
+        commonCount++;
+        addLimited(commonRules, entry);
+    }
+
+    public void addModified(RuleDiffEntry entry) {
+        modifiedCount++;
+        addLimited(modifiedRules, entry);
+    }
+
+    public void addOnlyInA(RuleDiffEntry entry) {
+        onlyInACount++;
+        addLimited(onlyInA, entry);
+    }
+
+    public void addOnlyInB(RuleDiffEntry entry) {
+        onlyInBCount++;
+        addLimited(onlyInB, entry);
+    }
+
+    /**
+     * 표시 한도 때문에 목록이 잘린 버킷이 있는지 여부
+     */
+    public boolean isTruncated() {
+        return Math.max(Math.max(commonCount, modifiedCount), Math.max(onlyInACount, onlyInBCount)) > displayLimit;
+    }
+
+    private void addLimited(List<RuleDiffEntry> list, RuleDiffEntry entry) {
+        if (list.size() < displayLimit) {
+            list.add(entry);
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,72 @@
+package com.fortify.analyzer.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Lob;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * 크롤링/분석 같은 장시간 백그라운드 작업의 상태와 체크포인트입니다.
+ * 애플리케이션이 재시작되거나 작업이 중지/실패해도 체크포인트부터 이어서 실행할 수 있도록 DB 에 보관합니다.
+ */
+@Entity
+@Table(name = "background_jobs", indexes = @Index(name = "idx_background_jobs_type_id", columnList = "jobType, id"))
+@Getter
+@Setter
+@NoArgsConstructor
+public class BackgroundJob {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 50)
+    private String jobType; // 'CRAWLING', 'ANALYSIS' 등
+
+    @Column(nullable = false, length = 20)
+    private String state; // QUEUED, RUNNING, COMPLETED, FAILED, CANCELLED, INTERRUPTED
+
+    @Column(nullable = false)
+    private long stepsDone;
+
+    @Column(nullable = false)
+    private long stepsTotal;
+
+    @Column(length = 512)
+    private String currentStep;
+
+    @Lob // 작업 종류별 체크포인트 (JSON)
+    @Column(columnDefinition = "TEXT")
+    private String checkpoint;
+
+    @Column(length = 1024)
+    private String message;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    private LocalDateTime startedAt;
+
+    private LocalDateTime updatedAt;
+
+    private LocalDateTime finishedAt;
+
+    public BackgroundJob(String jobType) {
+        this.jobType = jobType;
+        this.state = "QUEUED";
+        this.createdAt = LocalDateTime.now();
+        this.updatedAt = this.createdAt;
+    }
+}
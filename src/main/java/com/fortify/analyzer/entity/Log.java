@@ -11,6 +11,7 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.Lob;
 import jakarta.persistence.Table;
 import lombok.Getter;
@@ -18,7 +19,12 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 @Entity
-@Table(name = "logs")
+// 로그 목록은 (timestamp, id) 키셋으로 최신순 조회하며, 상태 필터가 있으면 status 를 앞에 둔 인덱스를 사용합니다.
+@Table(name = "logs", indexes = {
+        @Index(name = "idx_logs_timestamp_id", columnList = "timestamp, id"),
+        @Index(name = "idx_logs_status_timestamp_id", columnList = "status, timestamp, id"),
+        @Index(name = "idx_logs_traceback_hash", columnList = "tracebackHash")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -38,7 +44,12 @@ public class Log {
     @Column(nullable = false, updatable = false)
     private LocalDateTime timestamp;
 
+    // 이전 방식으로 로그마다 저장된 스택 트레이스. 보관 작업(LogRetentionService)이 log_tracebacks 로 옮깁니다.
     @Lob // 매우 긴 텍스트를 저장할 수 있는 타입 (TEXT)
     @Column(columnDefinition = "TEXT")
     private String traceback;
+
+    // 스택 트레이스(LogTraceback)의 SHA-256 지문. 같은 스택 트레이스는 한 번만 저장하고 여러 로그가 참조합니다.
+    @Column(length = 64)
+    private String tracebackHash;
 }
\ No newline at end of file
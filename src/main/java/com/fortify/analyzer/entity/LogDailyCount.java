@@ -0,0 +1,38 @@
+package com.fortify.analyzer.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDate;
+
+/**
+ * 보관 기간이 지나 삭제한 로그의 일별/상태별 건수입니다. (audit.log.retention.mode=rollup)
+ */
+@Entity
+@Table(name = "log_daily_counts", uniqueConstraints = @UniqueConstraint(columnNames = {"logDate", "status"}))
+@Getter
+@Setter
+@NoArgsConstructor
+public class LogDailyCount {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private LocalDate logDate;
+
+    @Column(nullable = false, length = 50)
+    private String status;
+
+    @Column(nullable = false)
+    private long entryCount;
+}
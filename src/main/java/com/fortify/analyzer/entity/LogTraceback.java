@@ -0,0 +1,44 @@
+package com.fortify.analyzer.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Lob;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * 로그의 스택 트레이스. 같은 내용은 한 번만 저장하고 로그(logs.traceback_hash)는 SHA-256 지문으로 참조합니다.
+ * 저장은 {@code LogTracebackStore} 가 JDBC 로 합니다.
+ */
+@Entity
+@Table(name = "log_tracebacks")
+@Getter
+@Setter
+@NoArgsConstructor
+public class LogTraceback {
+
+    // 스택 트레이스(UTF-8) 의 SHA-256 지문 (16진수 문자열)
+    @Id
+    @Column(length = 64)
+    private String hash;
+
+    @Lob // UTF-8 스택 트레이스, compressed 이면 gzip 으로 압축된 내용
+    @Column(nullable = false)
+    private byte[] content;
+
+    @Column(nullable = false)
+    private boolean compressed;
+
+    // 압축 전 크기 (bytes)
+    @Column(nullable = false)
+    private int originalLength;
+
+    // 저장한 시각. 같은 스택 트레이스를 다시 사용하면 그 시각으로 갱신되며, 보관 작업은 이 시각을 기준으로 정리합니다.
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+}
@@ -8,7 +8,9 @@ import java.util.List;
 
 // ✨ 1. @Table 어노테이션을 추가하여 복합 유니크 제약조건을 설정합니다.
 @Table(uniqueConstraints = {
-    @UniqueConstraint(columnNames = {"location", "packVersion"})
+    @UniqueConstraint(columnNames = {"location", "packVersion"}),
+    // 같은 위치에 같은 내용의 파일이 두 번 저장되지 않도록 하고, 재업로드 여부를 빠르게 확인하기 위한 제약조건
+    @UniqueConstraint(columnNames = {"location", "contentSha256"})
 })
 @Entity
 @Getter
@@ -26,6 +28,10 @@ public class RulePack {
     // ✨ 2. 기존 @Column(unique = true) 어노테이션은 삭제합니다.
     private String location;
 
+    // 업로드된 XML 파일 내용의 SHA-256 지문 (16진수 문자열). 같은 위치에 동일한 파일이 재업로드되면 파싱 전에 걸러내는 데 사용합니다.
+    @Column(length = 64)
+    private String contentSha256;
+
     @OneToMany(mappedBy = "rulePack", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<Rule> rules = new ArrayList<>();
 }
\ No newline at end of file
@@ -0,0 +1,23 @@
+package com.fortify.analyzer.repository;
+
+import com.fortify.analyzer.entity.BackgroundJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface BackgroundJobRepository extends JpaRepository<BackgroundJob, Long> {
+
+    /**
+     * 작업 종류별 가장 최근 작업을 조회합니다.
+     */
+    Optional<BackgroundJob> findFirstByJobTypeOrderByIdDesc(String jobType);
+
+    /**
+     * 주어진 상태의 작업을 조회합니다. (재시작 시 이어서 실행할 작업 찾기)
+     */
+    List<BackgroundJob> findByStateInOrderByIdAsc(Collection<String> states);
+}
@@ -1,13 +1,55 @@
 package com.fortify.analyzer.repository;
 
+import com.fortify.analyzer.dto.StandardCountDto;
 import com.fortify.analyzer.entity.ExternalMapping;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface ExternalMappingRepository extends JpaRepository<ExternalMapping, Long> {
     // Rule 엔티티의 ruleName 필드를 기준으로 검색하는 메소드
+    // 검색 결과 화면에서 규칙/룰팩을 사용하므로 같은 쿼리에서 함께 로딩합니다. (N+1 방지)
+    @EntityGraph(attributePaths = {"rule", "rule.rulePack"})
     List<ExternalMapping> findByRule_RuleNameContainingIgnoreCase(String keyword);
-}
\ No newline at end of file
+
+    // 규칙 이름 색인으로 찾은 규칙 ID 들의 매핑을 조회하는 메소드
+    @EntityGraph(attributePaths = {"rule", "rule.rulePack"})
+    List<ExternalMapping> findByRule_IdInOrderByIdAsc(Collection<Long> ruleIds);
+
+    // 규칙 ID 들의 외부 표준별 매핑 개수를 DB에서 집계 (매핑 엔티티를 로딩하지 않음)
+    @Query("select new com.fortify.analyzer.dto.StandardCountDto(m.standardInfo, count(m)) " +
+           "from ExternalMapping m where m.rule.id in :ruleIds group by m.standardInfo")
+    List<StandardCountDto> countByStandardInfoForRuleIds(@Param("ruleIds") Collection<Long> ruleIds);
+
+    // 표준 개수 집계(StandardCountIndex)를 만들 때 엔티티 대신 규칙/룰팩 ID와 표준 이름만 조회하기 위한 프로젝션
+    interface RuleStandardView {
+        Long getRuleId();
+        Long getRulePackId();
+        String getStandardInfo();
+    }
+
+    @Query("select m.rule.id as ruleId, m.rule.rulePack.id as rulePackId, m.standardInfo as standardInfo " +
+           "from ExternalMapping m order by m.rule.id")
+    List<RuleStandardView> findAllRuleStandards();
+
+    // 새로 저장된 룰팩의 매핑만 표준 개수 집계에 더할 때 사용
+    @Query("select m.rule.id as ruleId, m.rule.rulePack.id as rulePackId, m.standardInfo as standardInfo " +
+           "from ExternalMapping m where m.rule.rulePack.id = :rulePackId order by m.rule.id")
+    List<RuleStandardView> findRuleStandardsByRulePackId(@Param("rulePackId") Long rulePackId);
+
+    // 저장된 두 룰팩을 비교할 때 엔티티 대신 규칙 이름(InternalCategory)과 표준 이름만 조회하기 위한 프로젝션
+    interface RuleMappingView {
+        String getRuleName();
+        String getStandardInfo();
+    }
+
+    @Query("select r.ruleName as ruleName, m.standardInfo as standardInfo " +
+           "from ExternalMapping m join m.rule r where r.rulePack.id = :rulePackId")
+    List<RuleMappingView> findRuleMappingsByRulePackId(@Param("rulePackId") Long rulePackId);
+}
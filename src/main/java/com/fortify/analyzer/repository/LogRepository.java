@@ -1,10 +1,55 @@
 // src/main/java/com/fortify/analyzer/repository/LogRepository.java
 package com.fortify.analyzer.repository;
 
+import com.fortify.analyzer.dto.LogSummaryDto;
 import com.fortify.analyzer.entity.Log;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
 @Repository
 public interface LogRepository extends JpaRepository<Log, Long> {
-}
\ No newline at end of file
+
+    // 로그 목록용 키셋 조회: (timestamp, id) 가 커서보다 앞선 로그를 최신순으로 조회 (traceback 은 읽지 않음)
+    // idx_logs_timestamp_id 인덱스를 역순으로 읽습니다.
+    @Query("select new com.fortify.analyzer.dto.LogSummaryDto(l.id, l.timestamp, l.status, l.message, " +
+           "case when l.traceback is not null or l.tracebackHash is not null then true else false end) " +
+           "from Log l " +
+           "where l.timestamp >= :from and l.timestamp < :to " +
+           "and (l.timestamp < :cursorTime or (l.timestamp = :cursorTime and l.id < :cursorId)) " +
+           "order by l.timestamp desc, l.id desc")
+    List<LogSummaryDto> findPage(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to,
+                                 @Param("cursorTime") LocalDateTime cursorTime, @Param("cursorId") Long cursorId,
+                                 Pageable pageable);
+
+    // 상태 필터가 있는 키셋 조회 (idx_logs_status_timestamp_id 인덱스 사용)
+    @Query("select new com.fortify.analyzer.dto.LogSummaryDto(l.id, l.timestamp, l.status, l.message, " +
+           "case when l.traceback is not null or l.tracebackHash is not null then true else false end) " +
+           "from Log l " +
+           "where l.status = :status and l.timestamp >= :from and l.timestamp < :to " +
+           "and (l.timestamp < :cursorTime or (l.timestamp = :cursorTime and l.id < :cursorId)) " +
+           "order by l.timestamp desc, l.id desc")
+    List<LogSummaryDto> findPageByStatus(@Param("status") String status,
+                                         @Param("from") LocalDateTime from, @Param("to") LocalDateTime to,
+                                         @Param("cursorTime") LocalDateTime cursorTime, @Param("cursorId") Long cursorId,
+                                         Pageable pageable);
+
+    // 상세 보기 요청 시에만 스택 트레이스를 조회 (이전 방식의 본문 또는 log_tracebacks 지문)
+    interface TracebackView {
+        String getTraceback();
+        String getTracebackHash();
+    }
+
+    @Query("select l.traceback as traceback, l.tracebackHash as tracebackHash from Log l where l.id = :id")
+    Optional<TracebackView> findTracebackById(@Param("id") Long id);
+
+    // 상태 필터 선택지
+    @Query("select distinct l.status from Log l order by l.status")
+    List<String> findDistinctStatuses();
+}
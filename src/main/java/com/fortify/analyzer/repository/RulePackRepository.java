@@ -1,9 +1,12 @@
 package com.fortify.analyzer.repository;
 
+import com.fortify.analyzer.dto.RulePackInfoDto;
 import com.fortify.analyzer.entity.RulePack;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -14,4 +17,12 @@ public interface RulePackRepository extends JpaRepository<RulePack, Long> {
 
     // ✨ 버전 정보까지 함께 조회하는 메소드 추가
     Optional<RulePack> findByLocationAndPackVersion(String location, String packVersion);
-}
\ No newline at end of file
+
+    // 같은 위치에 내용 지문(SHA-256)이 같은 룰팩이 이미 저장되어 있는지 확인
+    boolean existsByLocationAndContentSha256(String location, String contentSha256);
+
+    // 비교 화면의 룰팩 선택 목록 (엔티티를 로딩하지 않음)
+    @Query("select new com.fortify.analyzer.dto.RulePackInfoDto(p.id, p.packName, p.packVersion, p.location) " +
+           "from RulePack p order by p.packName, p.packVersion, p.id")
+    List<RulePackInfoDto> findAllPackInfos();
+}
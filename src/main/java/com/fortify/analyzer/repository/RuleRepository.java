@@ -1,14 +1,53 @@
 package com.fortify.analyzer.repository;
 
+import com.fortify.analyzer.dto.RuleSummaryDto;
 import com.fortify.analyzer.entity.Rule;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 public interface RuleRepository extends JpaRepository<Rule, Long> {
     
     List<Rule> findByRuleNameContainingIgnoreCase(String keyword);
+
+    // 규칙 이름 색인(RuleNameIndex)을 만들 때 엔티티 대신 ID와 이름만 조회하기 위한 프로젝션
+    interface RuleNameView {
+        Long getId();
+        String getRuleName();
+    }
+
+    @Query("select r.id as id, r.ruleName as ruleName from Rule r order by r.id")
+    List<RuleNameView> findAllRuleNames();
+
+    // 규칙 이름 색인을 사용할 수 없을 때, 엔티티 대신 일치하는 규칙 ID 만 조회
+    @Query("select r.id from Rule r where upper(r.ruleName) like upper(concat('%', :keyword, '%')) order by r.id")
+    List<Long> findIdsByRuleNameContaining(@Param("keyword") String keyword);
+
+    // 미리 집계된 표준 개수를 사용할 때, 검색 결과 화면에 필요한 규칙과 룰팩만 조회 (매핑은 로딩하지 않음)
+    @EntityGraph(attributePaths = {"rulePack"})
+    List<Rule> findByIdInOrderByIdAsc(Collection<Long> ids);
+
+    // 룰팩에 속한 규칙 ID 만 조회
+    @Query("select r.id from Rule r where r.rulePack.id = :rulePackId order by r.id")
+    List<Long> findIdsByRulePackId(@Param("rulePackId") Long rulePackId);
+
+    // 페이지 단위 검색 API 용 프로젝션 (연관 엔티티를 로딩하지 않음)
+    @Query("select new com.fortify.analyzer.dto.RuleSummaryDto(r.id, r.ruleName, p.packName, p.packVersion, count(m)) " +
+           "from Rule r join r.rulePack p left join r.mappings m " +
+           "where r.id in :ids " +
+           "group by r.id, r.ruleName, p.packName, p.packVersion " +
+           "order by r.id")
+    List<RuleSummaryDto> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
     
     // findById는 JpaRepository에 이미 있으므로 아래 라인은 삭제해도 무방합니다.
     // Optional<Rule> findById(Long id);
+
+    // 상세 보기용: 룰팩과 매핑을 한 번의 쿼리로 함께 로딩합니다.
+    // (languages 까지 함께 조인하면 매핑 목록(List)이 언어 수만큼 중복되므로 서비스에서 별도로 초기화합니다.)
+    @EntityGraph(attributePaths = {"rulePack", "mappings"})
+    Optional<Rule> findWithDetailsById(Long id);
 }
\ No newline at end of file
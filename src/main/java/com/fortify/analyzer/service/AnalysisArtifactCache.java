@@ -0,0 +1,172 @@
+package com.fortify.analyzer.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 크롤러 분석 결과 파일(analysis/*.json)을 메모리에 보관하는 캐시입니다.
+ * <p>
+ * 파일을 처음 요청할 때 한 번 읽어 원본 바이트, 미리 압축한 gzip 바이트, 내용 기반 ETag, 수정 시각을 함께 보관합니다.
+ * 분석 단계가 파일을 다시 쓰면 {@link WatchService} 가 analysis 디렉터리의 변경을 감지하여 해당 항목을 비우고,
+ * 다음 요청에서 새 내용을 읽습니다. 감시를 시작할 수 없는 환경에서는 요청마다 파일의 수정 시각/크기를 비교합니다.
+ */
+@Component
+public class AnalysisArtifactCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(AnalysisArtifactCache.class);
+
+    /**
+     * 캐시된 분석 결과 파일
+     * @param content 원본 바이트
+     * @param gzipContent gzip 으로 압축한 바이트
+     * @param etag 내용의 SHA-256 기반 ETag (따옴표 포함)
+     * @param lastModifiedMillis 파일 수정 시각 (epoch ms)
+     * @param size 파일 크기 (bytes)
+     */
+    public record Artifact(byte[] content, byte[] gzipContent, String etag, long lastModifiedMillis, long size) {}
+
+    private final Path analysisDirectory;
+    private final Map<Path, Artifact> artifacts = new ConcurrentHashMap<>();
+    // 무효화될 때마다 증가. 읽기 도중 파일이 바뀌었으면 읽은 내용을 캐시에 넣지 않습니다.
+    private final AtomicLong generation = new AtomicLong();
+
+    private WatchService watchService;
+    private Thread watchThread;
+    private volatile boolean watching;
+
+    public AnalysisArtifactCache(@Value("${crawler.results.path}") String resultsBasePath) {
+        this.analysisDirectory = Paths.get(resultsBasePath, "analysis").toAbsolutePath().normalize();
+    }
+
+    @PostConstruct
+    public void startWatching() {
+        try {
+            watchService = FileSystems.getDefault().newWatchService();
+            // WatchService 는 하위 디렉터리를 감시하지 않으므로, 상세 결과 디렉터리도 따로 등록합니다.
+            for (Path directory : new Path[]{analysisDirectory, analysisDirectory.resolve("detail_by_language")}) {
+                Files.createDirectories(directory);
+                directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                        StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+            }
+            watchThread = new Thread(this::watchLoop, "analysis-artifact-watcher");
+            watchThread.setDaemon(true);
+            watchThread.start();
+            watching = true;
+        } catch (IOException e) {
+            logger.warn("Could not watch {}, analysis files will be revalidated on every request: {}", analysisDirectory, e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void stopWatching() throws IOException {
+        watching = false;
+        if (watchService != null) {
+            watchService.close();
+        }
+    }
+
+    /**
+     * analysis 디렉터리 기준 상대 경로의 파일을 반환합니다.
+     * @param relativePath e.g., "summary_by_language.json", "detail_by_language/detail_by_language.json"
+     * @return 캐시된 파일, 파일이 없으면 empty
+     */
+    public Optional<Artifact> get(String relativePath) throws IOException {
+        Path path = analysisDirectory.resolve(relativePath).normalize();
+        if (!path.startsWith(analysisDirectory)) {
+            throw new IllegalArgumentException("분석 결과 디렉터리 밖의 파일은 읽을 수 없습니다: " + relativePath);
+        }
+
+        Artifact cached = artifacts.get(path);
+        if (cached != null && (watching || isUnchanged(path, cached))) {
+            return Optional.of(cached);
+        }
+
+        long loadGeneration = generation.get();
+        Artifact loaded;
+        try {
+            loaded = load(path);
+        } catch (NoSuchFileException e) {
+            artifacts.remove(path);
+            return Optional.empty();
+        }
+        if (generation.get() == loadGeneration) {
+            artifacts.put(path, loaded);
+        }
+        return Optional.of(loaded);
+    }
+
+    private void watchLoop() {
+        while (watching) {
+            WatchKey key;
+            try {
+                key = watchService.take();
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+                return;
+            }
+            Path directory = (Path) key.watchable();
+            for (WatchEvent<?> event : key.pollEvents()) {
+                generation.incrementAndGet();
+                if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                    artifacts.clear();
+                } else {
+                    Path changed = directory.resolve((Path) event.context());
+                    if (artifacts.remove(changed) != null) {
+                        logger.info("Analysis file changed, cache entry dropped: {}", changed);
+                    }
+                }
+            }
+            key.reset();
+        }
+    }
+
+    private static boolean isUnchanged(Path path, Artifact cached) throws IOException {
+        return Files.exists(path)
+                && Files.getLastModifiedTime(path).toMillis() == cached.lastModifiedMillis()
+                && Files.size(path) == cached.size();
+    }
+
+    private static Artifact load(Path path) throws IOException {
+        long lastModified = Files.getLastModifiedTime(path).toMillis();
+        byte[] content = Files.readAllBytes(path);
+
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(Math.max(64, content.length / 4));
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(content);
+        }
+
+        String etag;
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(content);
+            etag = "\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+        logger.info("Analysis file cached: {} ({} bytes, {} bytes gzipped)", path, content.length, compressed.size());
+        return new Artifact(content, compressed.toByteArray(), etag, lastModified, content.length);
+    }
+}
@@ -0,0 +1,111 @@
+package com.fortify.analyzer.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 언어별 분석 작업: 크롤링 결과(json/*.json)를 언어별로 집계합니다.
+ * 분석 엔진이 바뀐 kingdom 파일만 다시 읽으므로 별도의 체크포인트 없이 다시 실행합니다.
+ */
+@Component
+public class AnalysisJobHandler implements JobHandler {
+
+    public static final String JOB_TYPE = "ANALYSIS";
+
+    private static final Logger logger = LoggerFactory.getLogger(AnalysisJobHandler.class);
+
+    @Value("${crawler.results.path}")
+    private String resultsDirectoryPath;
+
+    // java: 내장 분석 엔진 사용, python: 기존 languge.py 스크립트 실행
+    @Value("${analysis.engine:java}")
+    private String analysisEngine;
+
+    private final LanguageAnalysisEngine languageAnalysisEngine;
+    private final AnalyzerMetrics analyzerMetrics;
+
+    public AnalysisJobHandler(LanguageAnalysisEngine languageAnalysisEngine, AnalyzerMetrics analyzerMetrics) {
+        this.languageAnalysisEngine = languageAnalysisEngine;
+        this.analyzerMetrics = analyzerMetrics;
+    }
+
+    @Override
+    public String jobType() {
+        return JOB_TYPE;
+    }
+
+    @Override
+    public String run(JobContext context) throws Exception {
+        if ("python".equalsIgnoreCase(analysisEngine)) {
+            context.progress(0, 1, "Executing language analysis script...");
+            executeScript("scripts/languge.py", "--base-dir", resultsDirectoryPath);
+            context.progress(1, 1, "Language analysis script finished.");
+            return "Analysis Finished Successfully.";
+        }
+        context.progress(0, 1, "Analyzing vulnerabilities by language...");
+        LanguageAnalysisEngine.AnalysisRun run = languageAnalysisEngine.analyze(Paths.get(resultsDirectoryPath));
+        context.progress(1, 1, "Language analysis finished.");
+        return run.written()
+                ? "Analysis Finished Successfully. (" + run.reparsedFiles() + "/" + run.kingdomFiles() + " kingdom files re-read)"
+                : "Analysis Finished Successfully. (no kingdom files changed)";
+    }
+
+    private void executeScript(String scriptPath, String... args) throws InterruptedException {
+        Process process = null;
+        String outcome = "failure";
+        long startedAt = System.nanoTime();
+        try {
+            URL scriptUrl = getClass().getClassLoader().getResource(scriptPath);
+            if (scriptUrl == null) {
+                throw new IOException("Script not found: " + scriptPath);
+            }
+            File scriptFile = new File(scriptUrl.toURI());
+            List<String> command = new ArrayList<>();
+            command.add("python3");
+            command.add(scriptFile.getAbsolutePath());
+            command.addAll(Arrays.asList(args));
+            ProcessBuilder processBuilder = new ProcessBuilder(command);
+            processBuilder.redirectErrorStream(true);
+            logger.info("Executing command: {}", String.join(" ", processBuilder.command()));
+            process = processBuilder.start();
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    logger.info("[Python] " + line);
+                }
+            }
+            int exitCode = process.waitFor();
+            logger.info("Script {} executed with exit code: {}", scriptPath, exitCode);
+            if (exitCode != 0) {
+                throw new RuntimeException("Python script execution failed with exit code " + exitCode);
+            }
+            outcome = "success";
+        } catch (InterruptedException e) {
+            outcome = "cancelled";
+            throw e;
+        } catch (IOException | URISyntaxException e) {
+            throw new RuntimeException("Failed to execute python script: " + scriptPath, e);
+        } finally {
+            analyzerMetrics.scriptExecution(Paths.get(scriptPath).getFileName().toString(), outcome)
+                    .record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+            // 작업이 중지된 경우 스크립트도 함께 종료합니다.
+            if (process != null && process.isAlive()) {
+                process.destroyForcibly();
+            }
+        }
+    }
+}
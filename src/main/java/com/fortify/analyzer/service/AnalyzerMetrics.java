@@ -0,0 +1,100 @@
+package com.fortify.analyzer.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * 업로드/검색/비교/크롤링 주요 경로의 Micrometer 지표입니다. (/actuator/prometheus 로 수집)
+ * <p>
+ * 지표 이름과 태그는 이 클래스에서만 정하며, 서비스는 여기서 만든 타이머/카운터로 기록합니다.
+ * 타이머는 Prometheus 에서 지연 시간 백분위를 계산할 수 있도록 히스토그램 버킷을 함께 내보냅니다.
+ * 실행 중인 작업 수나 대기열 길이 같은 게이지는 해당 상태를 가진 서비스가 {@code MeterBinder} 로 직접 등록합니다.
+ */
+@Component
+public class AnalyzerMetrics {
+
+    private static final Duration MIN_EXPECTED = Duration.ofMillis(1);
+
+    private final MeterRegistry registry;
+    private final Timer uploadParse;
+    private final Timer uploadPersist;
+    private final Timer search;
+    private final Timer compareFiles;
+    private final Timer compareRulePacks;
+    private final Timer pageProbeFound;
+    private final Timer pageProbeMissing;
+    private final Counter rulesIngested;
+    private final Counter mappingsIngested;
+    private final Counter rulePacksSkipped;
+
+    public AnalyzerMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        this.uploadParse = timer("fortify.upload.rulepack", "룰팩 XML 업로드 단계별 처리 시간", Duration.ofMinutes(5), "phase", "parse");
+        this.uploadPersist = timer("fortify.upload.rulepack", "룰팩 XML 업로드 단계별 처리 시간", Duration.ofMinutes(5), "phase", "persist");
+        this.search = timer("fortify.search", "규칙 검색 및 외부 표준 집계 시간", Duration.ofSeconds(30));
+        this.compareFiles = timer("fortify.compare", "externalmetadata.xml 비교 시간", Duration.ofMinutes(5), "source", "files");
+        this.compareRulePacks = timer("fortify.compare", "externalmetadata.xml 비교 시간", Duration.ofMinutes(5), "source", "rule-packs");
+        this.pageProbeFound = timer("fortify.crawler.page.probe", "새 페이지 탐색 요청 시간", Duration.ofSeconds(30), "outcome", "found");
+        this.pageProbeMissing = timer("fortify.crawler.page.probe", "새 페이지 탐색 요청 시간", Duration.ofSeconds(30), "outcome", "missing");
+        this.rulesIngested = Counter.builder("fortify.upload.rules").description("저장한 규칙 수").register(registry);
+        this.mappingsIngested = Counter.builder("fortify.upload.mappings").description("저장한 외부 표준 매핑 수").register(registry);
+        this.rulePacksSkipped = Counter.builder("fortify.upload.rulepacks.skipped")
+                .description("이미 저장되어 있어 건너뛴 룰팩 수").register(registry);
+    }
+
+    public Timer uploadParse() {
+        return uploadParse;
+    }
+
+    public Timer uploadPersist() {
+        return uploadPersist;
+    }
+
+    public Timer search() {
+        return search;
+    }
+
+    /**
+     * 두 매핑 목록의 비교 시간
+     * @param rulePacks 저장된 룰팩끼리 비교하면 true, 업로드한 두 파일을 비교하면 false
+     */
+    public Timer compare(boolean rulePacks) {
+        return rulePacks ? compareRulePacks : compareFiles;
+    }
+
+    public Timer pageProbe(boolean found) {
+        return found ? pageProbeFound : pageProbeMissing;
+    }
+
+    /**
+     * 외부 스크립트(crawler.py, languge.py) 한 번의 실행 시간
+     * @param outcome 종료 결과: "success", "failure", "cancelled" 중 하나 (호출하는 쪽 모두 같은 값을 사용)
+     */
+    public Timer scriptExecution(String script, String outcome) {
+        return timer("fortify.script.execution", "외부 스크립트 실행 시간", Duration.ofHours(2), "script", script, "outcome", outcome);
+    }
+
+    public void recordIngested(int rules, int mappings) {
+        rulesIngested.increment(rules);
+        mappingsIngested.increment(mappings);
+    }
+
+    public void recordSkippedRulePack() {
+        rulePacksSkipped.increment();
+    }
+
+    // 같은 이름/태그의 타이머는 레지스트리가 하나만 만들어 돌려줍니다.
+    private Timer timer(String name, String description, Duration maxExpected, String... tags) {
+        return Timer.builder(name)
+                .description(description)
+                .tags(tags)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(MIN_EXPECTED)
+                .maximumExpectedValue(maxExpected)
+                .register(registry);
+    }
+}
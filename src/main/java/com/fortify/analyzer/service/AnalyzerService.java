@@ -1,146 +1,143 @@
 package com.fortify.analyzer.service;
 
+import com.fortify.analyzer.dto.RulePackInfoDto;
 import com.fortify.analyzer.dto.XmlComparisonResultDto;
+import com.fortify.analyzer.repository.ExternalMappingRepository;
 import com.fortify.analyzer.repository.RulePackRepository;
 import com.fortify.analyzer.repository.RuleRepository;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.web.multipart.MultipartFile;
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
-import org.w3c.dom.Node;
-import org.w3c.dom.NodeList;
-
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
+
+import javax.xml.stream.XMLStreamException;
 import java.io.IOException;
-import java.io.InputStream;
-import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.util.ArrayList;
-import java.util.HashMap;
+import java.io.UncheckedIOException;
+import java.time.Duration;
 import java.util.List;
-import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.Optional;
 
 @Service
 public class AnalyzerService {
 
     private static final Logger logger = LoggerFactory.getLogger(AnalyzerService.class);
 
-    // RulePack 관련 필드들은 현재 사용되지 않지만, 다른 기능을 위해 유지합니다.
+    // RuleRepository 는 현재 사용되지 않지만, 다른 기능을 위해 유지합니다.
     private final RuleRepository ruleRepository;
     private final RulePackRepository rulePackRepository;
+    private final ExternalMappingRepository externalMappingRepository;
+
+    private final MetadataDiffEngine metadataDiffEngine;
+    private final AnalysisArtifactCache analysisArtifactCache;
+    private final AnalyzerMetrics analyzerMetrics;
+
+    /**
+     * 저장된 룰팩 비교 결과 캐시의 키 (원본 룰팩 ID, 새로운 룰팩 ID)
+     */
+    private record RulePackPair(Long rulePackIdA, Long rulePackIdB) {}
+
+    // 저장된 룰팩은 변경되지 않으므로 룰팩 쌍별 비교 결과를 캐시합니다.
+    private final BoundedCache<RulePackPair, XmlComparisonResultDto> rulePackComparisonCache;
 
-    @Value("${crawler.results.path}")
-    private String resultsBasePath;
+    @Value("${analyzer.compare.max-display-rows:1000}")
+    private int maxDisplayRows;
 
-    public AnalyzerService(RuleRepository ruleRepository, RulePackRepository rulePackRepository) {
+    public AnalyzerService(RuleRepository ruleRepository, RulePackRepository rulePackRepository,
+                           ExternalMappingRepository externalMappingRepository, MetadataDiffEngine metadataDiffEngine,
+                           AnalysisArtifactCache analysisArtifactCache, AnalyzerMetrics analyzerMetrics,
+                           @Value("${analyzer.compare.cache.max-size:50}") int comparisonCacheMaxSize) {
         this.ruleRepository = ruleRepository;
         this.rulePackRepository = rulePackRepository;
+        this.externalMappingRepository = externalMappingRepository;
+        this.metadataDiffEngine = metadataDiffEngine;
+        this.analysisArtifactCache = analysisArtifactCache;
+        this.analyzerMetrics = analyzerMetrics;
+        this.rulePackComparisonCache = new BoundedCache<>(comparisonCacheMaxSize, Duration.ZERO);
     }
 
     /**
-     * 두 개의 externalmetadata.xml 파일을 비교합니다.
-     * @param fileA 원본 파일
-     * @param fileB 새로운 파일
-     * @return 비교 결과 DTO
+     * DB 에 저장된 두 룰팩을 비교합니다. XML 을 다시 업로드할 필요 없이 규칙 이름/외부 표준만 프로젝션으로 조회합니다.
+     * 저장된 룰팩은 변경되지 않으므로 같은 룰팩 쌍의 결과는 캐시에서 반환합니다.
+     * @param rulePackIdA 원본 룰팩 ID
+     * @param rulePackIdB 새로운 룰팩 ID
+     * @throws IllegalArgumentException 해당 ID 의 룰팩이 없는 경우
      */
-    public XmlComparisonResultDto compareExternalMetadata(MultipartFile fileA, MultipartFile fileB) throws Exception {
-        // 1. 각 XML 파일 파싱하여 규칙 Map 생성
-        Map<String, Map<String, String>> rulesA = parseXmlFile(fileA.getInputStream());
-        Map<String, Map<String, String>> rulesB = parseXmlFile(fileB.getInputStream());
-
-        // 2. 비교 결과를 담을 리스트 초기화
-        List<Map<String, String>> commonRules = new ArrayList<>();
-        List<Map<String, String>> onlyInA = new ArrayList<>();
-        List<Map<String, String>> onlyInB = new ArrayList<>();
-
-        // 3. A 파일 기준으로 비교
-        for (String ruleIdA : rulesA.keySet()) {
-            if (rulesB.containsKey(ruleIdA)) {
-                // B에도 있으면 공통 규칙
-                commonRules.add(rulesA.get(ruleIdA));
-            } else {
-                // B에 없으면 A에만 있는 규칙
-                onlyInA.add(rulesA.get(ruleIdA));
+    public XmlComparisonResultDto compareRulePacks(Long rulePackIdA, Long rulePackIdB) {
+        for (Long rulePackId : List.of(rulePackIdA, rulePackIdB)) {
+            if (!rulePackRepository.existsById(rulePackId)) {
+                throw new IllegalArgumentException("ID가 " + rulePackId + "인 룰팩을 찾을 수 없습니다.");
             }
         }
-
-        // 4. B 파일 기준으로 B에만 있는 규칙 찾기
-        for (String ruleIdB : rulesB.keySet()) {
-            if (!rulesA.containsKey(ruleIdB)) {
-                onlyInB.add(rulesB.get(ruleIdB));
-            }
-        }
-
-        logger.info("Comparison complete. Common: {}, Only in A: {}, Only in B: {}", commonRules.size(), onlyInA.size(), onlyInB.size());
-        return new XmlComparisonResultDto(commonRules, onlyInA, onlyInB);
+        return rulePackComparisonCache.get(new RulePackPair(rulePackIdA, rulePackIdB), this::computeRulePackComparison);
     }
 
     /**
-     * XML 파일 스트림을 파싱하여 규칙 정보를 Map 형태로 반환합니다.
-     * @param inputStream XML 파일의 InputStream
-     * @return Key: InternalCategory, Value: 규칙 정보(Map)
+     * 비교 화면에서 선택할 수 있는 저장된 룰팩 목록
      */
-    private Map<String, Map<String, String>> parseXmlFile(InputStream inputStream) throws Exception {
-        Map<String, Map<String, String>> ruleMap = new HashMap<>();
-        DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
-        DocumentBuilder builder = factory.newDocumentBuilder();
-        Document doc = builder.parse(inputStream);
-        doc.getDocumentElement().normalize();
-
-        // <Mapping> 태그를 모두 가져옵니다.
-        NodeList mappingList = doc.getElementsByTagName("Mapping");
-
-        for (int i = 0; i < mappingList.getLength(); i++) {
-            Node mappingNode = mappingList.item(i);
-            if (mappingNode.getNodeType() == Node.ELEMENT_NODE) {
-                Element mappingElement = (Element) mappingNode;
-                
-                String internalCategory = getTagValue("InternalCategory", mappingElement);
-                String externalCategory = getTagValue("ExternalCategory", mappingElement);
-                
-                // InternalCategory를 고유 ID로 사용합니다.
-                if (internalCategory != null && !internalCategory.isEmpty()) {
-                    Map<String, String> ruleDetails = new HashMap<>();
-                    ruleDetails.put("RuleID", internalCategory); // 화면 표시에 사용할 데이터
-                    ruleDetails.put("Name", externalCategory);   // 화면 표시에 사용할 데이터
-                    ruleMap.put(internalCategory, ruleDetails);
-                }
-            }
-        }
-        return ruleMap;
+    public List<RulePackInfoDto> getRulePackInfos() {
+        return rulePackRepository.findAllPackInfos();
     }
 
     /**
-     * 특정 부모 엘리먼트 아래에서 태그 이름으로 자식 엘리먼트의 텍스트 값을 가져오는 헬퍼 메서드
+     * 결과 화면에 표시할 룰팩 이름 (e.g., "Core Java (2024.1.0)")
      */
-    private String getTagValue(String tagName, Element parentElement) {
-        NodeList nodeList = parentElement.getElementsByTagName(tagName);
-        if (nodeList.getLength() > 0 && nodeList.item(0).getChildNodes().getLength() > 0) {
-            return nodeList.item(0).getChildNodes().item(0).getNodeValue();
+    public String describeRulePack(Long rulePackId) {
+        return rulePackRepository.findById(rulePackId)
+                .map(rulePack -> rulePack.getPackName() + " (" + rulePack.getPackVersion() + ")")
+                .orElse(String.valueOf(rulePackId));
+    }
+
+    private XmlComparisonResultDto computeRulePackComparison(RulePackPair pair) {
+        XmlComparisonResultDto result = new XmlComparisonResultDto(maxDisplayRows);
+        MetadataDiffEngine.DiffCounts counts;
+        Timer.Sample sample = Timer.start();
+        try {
+            counts = metadataDiffEngine.compare(
+                    sorter -> collectRulePack(pair.rulePackIdA(), sorter),
+                    sorter -> collectRulePack(pair.rulePackIdB(), sorter),
+                    collectInto(result));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (XMLStreamException e) {
+            // DB 조회 결과만 사용하므로 XML 파싱 오류는 발생하지 않습니다.
+            throw new IllegalStateException(e);
+        } finally {
+            sample.stop(analyzerMetrics.compare(true));
+        }
+        logger.info("Rule pack comparison {} -> {} complete. Common: {}, Modified: {}, Only in A: {}, Only in B: {}",
+                pair.rulePackIdA(), pair.rulePackIdB(), counts.common(), counts.modified(), counts.onlyInA(), counts.onlyInB());
+        return result;
+    }
+
+    private void collectRulePack(Long rulePackId, ExternalMappingSorter sorter) throws IOException {
+        for (ExternalMappingRepository.RuleMappingView mapping : externalMappingRepository.findRuleMappingsByRulePackId(rulePackId)) {
+            String standardInfo = mapping.getStandardInfo() == null ? "" : mapping.getStandardInfo();
+            sorter.add(new ExternalMappingSorter.MappingRecord(mapping.getRuleName(), standardInfo));
         }
-        return ""; // 값이 없는 경우 빈 문자열 반환
+    }
+
+    private static MetadataDiffEngine.DiffSink collectInto(XmlComparisonResultDto result) {
+        return (bucket, entry) -> {
+            switch (bucket) {
+                case COMMON -> result.addCommon(entry);
+                case MODIFIED -> result.addModified(entry);
+                case ONLY_IN_A -> result.addOnlyInA(entry);
+                case ONLY_IN_B -> result.addOnlyInB(entry);
+            }
+        };
     }
 
     /**
-     * 크롤러의 분석 결과 JSON 파일을 읽어 문자열로 반환합니다.
-     * @param fileName 읽어올 파일명 (e.g., "summary_by_language.json")
-     * @return 파일의 내용 (JSON 문자열)
+     * 크롤러의 분석 결과 파일을 캐시에서 가져옵니다. 파일은 분석 단계가 다시 쓸 때까지 메모리에 유지됩니다.
+     * @param fileName analysis 디렉터리 기준 상대 경로 (e.g., "summary_by_language.json")
+     * @return 캐시된 파일, 아직 분석 결과가 없으면 empty
      */
-    public String getAnalysisResultJson(String fileName) throws IOException {
-        Path filePath = Paths.get(resultsBasePath, "analysis", fileName);
-
-        if (!Files.exists(filePath)) {
-            logger.warn("Analysis file not found: {}", filePath);
-            return String.format("{ \"error\": \"File not found: %s. Please run the crawler first.\" }", fileName);
+    public Optional<AnalysisArtifactCache.Artifact> getAnalysisArtifact(String fileName) throws IOException {
+        Optional<AnalysisArtifactCache.Artifact> artifact = analysisArtifactCache.get(fileName);
+        if (artifact.isEmpty()) {
+            logger.warn("Analysis file not found: {}", fileName);
         }
-        
-        return Files.readString(filePath, StandardCharsets.UTF_8);
+        return artifact;
     }
-}
\ No newline at end of file
+}
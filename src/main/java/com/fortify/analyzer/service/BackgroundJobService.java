@@ -0,0 +1,336 @@
+package com.fortify.analyzer.service;
+
+import com.fortify.analyzer.dto.JobStatusDto;
+import com.fortify.analyzer.entity.BackgroundJob;
+import com.fortify.analyzer.repository.BackgroundJobRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 크롤링/분석 같은 장시간 작업을 실행하고 상태를 DB({@link BackgroundJob})에 보관하는 서비스입니다.
+ * <p>
+ * 작업 종류마다 별도의 실행기를 두며 크기는 {@code jobs.executor.<종류>.threads} 로 정합니다. (기본 1)
+ * 종류별로 동시에 하나의 작업만 실행하고, 끝나지 않은 마지막 작업(실패/중지/재시작으로 중단)이 있으면
+ * 새로 시작하는 대신 저장된 체크포인트부터 이어서 실행합니다. 애플리케이션이 실행 중인 작업을 남기고 종료되었다면
+ * 다음 기동 시 자동으로 이어서 실행합니다.
+ * 진행 상황은 메모리에서 바로 조회되며, DB 에는 일정 간격(체크포인트는 즉시)으로 반영합니다.
+ * 상태가 바뀔 때마다 {@link JobStatusChangedEvent} 를 발행합니다.
+ */
+@Service
+public class BackgroundJobService implements MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(BackgroundJobService.class);
+
+    // 재기동 시 자동으로 이어서 실행할 상태
+    private static final List<String> RESUME_ON_STARTUP_STATES = List.of("QUEUED", "RUNNING", "INTERRUPTED");
+    // 다시 시작을 요청했을 때 체크포인트부터 이어서 실행할 상태 (사용자가 중지한 작업은 처음부터 새로 실행)
+    private static final List<String> RESUME_ON_SUBMIT_STATES = List.of("INTERRUPTED", "FAILED");
+    // 진행 상황을 DB 에 반영하는 최소 간격
+    private static final long PROGRESS_FLUSH_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    /**
+     * 실행 중인 작업의 메모리 상태. 필드 변경과 저장은 이 객체로 동기화합니다.
+     */
+    private static final class RunningJob {
+        private final BackgroundJob job;
+        private Future<?> future;
+        private long stepsAtStart;
+        private long startNanos;
+        private long lastFlushNanos;
+        private boolean forceStopped;
+
+        private RunningJob(BackgroundJob job) {
+            this.job = job;
+        }
+    }
+
+    private final BackgroundJobRepository backgroundJobRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Map<String, JobHandler> handlers = new LinkedHashMap<>();
+    private final Map<String, ExecutorService> executors = new LinkedHashMap<>();
+    // Key: 작업 종류
+    private final Map<String, RunningJob> runningJobs = new ConcurrentHashMap<>();
+    private final Duration resumeWindow;
+    private volatile boolean shuttingDown;
+
+    public BackgroundJobService(BackgroundJobRepository backgroundJobRepository, ApplicationEventPublisher eventPublisher,
+                                List<JobHandler> jobHandlers, Environment environment,
+                                @Value("${jobs.resume-window:24h}") Duration resumeWindow) {
+        this.backgroundJobRepository = backgroundJobRepository;
+        this.eventPublisher = eventPublisher;
+        this.resumeWindow = resumeWindow;
+        for (JobHandler handler : jobHandlers) {
+            String jobType = handler.jobType();
+            handlers.put(jobType, handler);
+            String typeKey = jobType.toLowerCase(Locale.ROOT);
+            int threads = Math.max(1, environment.getProperty("jobs.executor." + typeKey + ".threads", Integer.class, 1));
+            AtomicInteger threadNumber = new AtomicInteger();
+            executors.put(jobType, Executors.newFixedThreadPool(threads, runnable -> {
+                Thread thread = new Thread(runnable, "job-" + typeKey + "-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }));
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (String jobType : handlers.keySet()) {
+            Gauge.builder("fortify.jobs.running", runningJobs, jobs -> jobs.containsKey(jobType) ? 1 : 0)
+                    .description("실행 중인 작업 수 (작업 종류별 최대 1)")
+                    .tag("type", jobType)
+                    .register(registry);
+        }
+    }
+
+    /**
+     * 이전 실행에서 끝나지 않은 작업을 이어서 실행합니다.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeInterruptedJobs() {
+        Map<String, BackgroundJob> latestByType = new LinkedHashMap<>();
+        for (BackgroundJob job : backgroundJobRepository.findByStateInOrderByIdAsc(RESUME_ON_STARTUP_STATES)) {
+            latestByType.put(job.getJobType(), job);
+        }
+        latestByType.values().forEach(job -> {
+            if (handlers.containsKey(job.getJobType()) && isWithinResumeWindow(job)) {
+                logger.info("Resuming {} job {} from its last checkpoint.", job.getJobType(), job.getId());
+                start(job);
+            }
+        });
+    }
+
+    /**
+     * 작업을 시작합니다. 이미 실행 중이면 실행 중인 작업을 반환하고, 마지막 작업이 서버 종료로 중단되었거나 실패했으면
+     * 그 작업을 체크포인트부터 이어서 실행합니다. 완료되었거나 사용자가 중지한 작업 뒤에는 새 작업을 시작합니다.
+     * @param jobType 작업 종류
+     * @return 작업 상태
+     */
+    public synchronized JobStatusDto submit(String jobType) {
+        requireHandler(jobType);
+        RunningJob active = runningJobs.get(jobType);
+        if (active != null) {
+            logger.warn("{} job {} is already running.", jobType, active.job.getId());
+            return toStatus(active);
+        }
+        BackgroundJob job = backgroundJobRepository.findFirstByJobTypeOrderByIdDesc(jobType)
+                .filter(last -> RESUME_ON_SUBMIT_STATES.contains(last.getState()) && isWithinResumeWindow(last))
+                .orElseGet(() -> new BackgroundJob(jobType));
+        return toStatus(start(job));
+    }
+
+    /**
+     * 실행 중인 작업을 중지합니다. (실행 스레드를 인터럽트)
+     * @param force true 이면 작업 스레드가 끝나기를 기다리지 않고 즉시 중지된 것으로 기록합니다.
+     */
+    public void cancel(String jobType, boolean force) {
+        RunningJob running = runningJobs.get(jobType);
+        if (running == null) {
+            return;
+        }
+        if (running.future != null) {
+            running.future.cancel(true);
+        }
+        logger.info("{} job {} cancellation requested{}.", jobType, running.job.getId(), force ? " (forced)" : "");
+        if (force) {
+            synchronized (running) {
+                running.forceStopped = true;
+                finish(running, "CANCELLED", "Forcefully stopped by user.");
+            }
+            runningJobs.remove(jobType, running);
+            eventPublisher.publishEvent(new JobStatusChangedEvent(jobType));
+        }
+    }
+
+    /**
+     * 작업 종류의 현재(실행 중이면 실행 중인, 아니면 마지막) 작업 상태를 반환합니다.
+     */
+    public Optional<JobStatusDto> getStatus(String jobType) {
+        RunningJob running = runningJobs.get(jobType);
+        if (running != null) {
+            return Optional.of(toStatus(running));
+        }
+        return backgroundJobRepository.findFirstByJobTypeOrderByIdDesc(jobType).map(job -> toStatus(job, 0, 0));
+    }
+
+    public boolean isRunning(String jobType) {
+        return runningJobs.containsKey(jobType);
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        shuttingDown = true;
+        executors.values().forEach(ExecutorService::shutdownNow);
+        // 실행 중이던 작업이 INTERRUPTED 상태를 저장할 시간을 줍니다. (다음 기동 시 이어서 실행)
+        for (ExecutorService executor : executors.values()) {
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        }
+    }
+
+    private RunningJob start(BackgroundJob job) {
+        JobHandler handler = requireHandler(job.getJobType());
+        job.setState("QUEUED");
+        job.setMessage(null);
+        job.setFinishedAt(null);
+        job.setUpdatedAt(LocalDateTime.now());
+        RunningJob running = new RunningJob(backgroundJobRepository.save(job));
+        runningJobs.put(job.getJobType(), running);
+        synchronized (running) {
+            running.future = executors.get(job.getJobType()).submit(() -> execute(running, handler));
+        }
+        return running;
+    }
+
+    private void execute(RunningJob running, JobHandler handler) {
+        BackgroundJob job = running.job;
+        synchronized (running) {
+            job.setState("RUNNING");
+            job.setAttempts(job.getAttempts() + 1);
+            job.setStartedAt(LocalDateTime.now());
+            running.stepsAtStart = job.getStepsDone();
+            running.startNanos = System.nanoTime();
+            persist(running);
+        }
+        logger.info("{} job {} started (attempt {}).", job.getJobType(), job.getId(), job.getAttempts());
+        try {
+            String message = handler.run(new Context(running));
+            complete(running, "COMPLETED", message);
+        } catch (InterruptedException e) {
+            complete(running, shuttingDown ? "INTERRUPTED" : "CANCELLED",
+                    shuttingDown ? "Interrupted by application shutdown." : "Process was interrupted by user.");
+        } catch (Exception e) {
+            logger.error("Exception in {} job {}", job.getJobType(), job.getId(), e);
+            complete(running, "FAILED", "Error: " + e.getMessage());
+        } finally {
+            runningJobs.remove(job.getJobType(), running);
+            eventPublisher.publishEvent(new JobStatusChangedEvent(job.getJobType()));
+        }
+    }
+
+    private void complete(RunningJob running, String state, String message) {
+        synchronized (running) {
+            if (!running.forceStopped) {
+                finish(running, state, message);
+            }
+        }
+        logger.info("{} job {} finished: {} - {}", running.job.getJobType(), running.job.getId(), state, message);
+    }
+
+    private void finish(RunningJob running, String state, String message) {
+        BackgroundJob job = running.job;
+        job.setState(state);
+        job.setMessage(message);
+        job.setFinishedAt(LocalDateTime.now());
+        persist(running);
+    }
+
+    private void persist(RunningJob running) {
+        running.job.setUpdatedAt(LocalDateTime.now());
+        running.lastFlushNanos = System.nanoTime();
+        backgroundJobRepository.save(running.job);
+        eventPublisher.publishEvent(new JobStatusChangedEvent(running.job.getJobType()));
+    }
+
+    private boolean isWithinResumeWindow(BackgroundJob job) {
+        LocalDateTime lastActivity = job.getUpdatedAt() != null ? job.getUpdatedAt() : job.getCreatedAt();
+        return lastActivity.isAfter(LocalDateTime.now().minus(resumeWindow));
+    }
+
+    private JobHandler requireHandler(String jobType) {
+        JobHandler handler = handlers.get(jobType);
+        if (handler == null) {
+            throw new IllegalArgumentException("Unknown job type: " + jobType);
+        }
+        return handler;
+    }
+
+    private JobStatusDto toStatus(RunningJob running) {
+        synchronized (running) {
+            long elapsedNanos = running.startNanos == 0 ? 0 : System.nanoTime() - running.startNanos;
+            return toStatus(running.job, running.job.getStepsDone() - running.stepsAtStart, elapsedNanos);
+        }
+    }
+
+    /**
+     * @param stepsThisRun 이번 실행에서 처리한 단계 수 (처리량/남은 시간 계산용)
+     * @param elapsedNanos 이번 실행의 경과 시간
+     */
+    private static JobStatusDto toStatus(BackgroundJob job, long stepsThisRun, long elapsedNanos) {
+        double throughputPerMinute = 0;
+        Long etaSeconds = null;
+        if (stepsThisRun > 0 && elapsedNanos > 0) {
+            double stepsPerSecond = stepsThisRun / (elapsedNanos / 1_000_000_000.0);
+            throughputPerMinute = stepsPerSecond * 60;
+            if (job.getStepsTotal() > job.getStepsDone()) {
+                etaSeconds = Math.round((job.getStepsTotal() - job.getStepsDone()) / stepsPerSecond);
+            }
+        }
+        return new JobStatusDto(job.getId(), job.getJobType(), job.getState(), job.getStepsDone(), job.getStepsTotal(),
+                job.getCurrentStep(), throughputPerMinute, etaSeconds, job.getMessage(), job.getAttempts(),
+                job.getStartedAt(), job.getUpdatedAt(), job.getFinishedAt());
+    }
+
+    private final class Context implements JobHandler.JobContext {
+        private final RunningJob running;
+
+        private Context(RunningJob running) {
+            this.running = running;
+        }
+
+        @Override
+        public String checkpoint() {
+            synchronized (running) {
+                return running.job.getCheckpoint();
+            }
+        }
+
+        @Override
+        public void saveCheckpoint(String checkpoint) {
+            synchronized (running) {
+                running.job.setCheckpoint(checkpoint);
+                if (!running.forceStopped) {
+                    persist(running);
+                }
+            }
+        }
+
+        @Override
+        public void progress(long stepsDone, long stepsTotal, String currentStep) {
+            synchronized (running) {
+                BackgroundJob job = running.job;
+                job.setStepsDone(stepsDone);
+                job.setStepsTotal(stepsTotal);
+                job.setCurrentStep(currentStep != null && currentStep.length() > 512 ? currentStep.substring(0, 512) : currentStep);
+                if (!running.forceStopped && System.nanoTime() - running.lastFlushNanos >= PROGRESS_FLUSH_NANOS) {
+                    persist(running);
+                } else {
+                    eventPublisher.publishEvent(new JobStatusChangedEvent(job.getJobType()));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.fortify.analyzer.service;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * 크기와 TTL(유효 시간)로 항목을 제거하는 간단한 LRU 캐시입니다.
+ * <p>
+ * 최대 개수를 넘으면 가장 오래 사용되지 않은 항목부터 제거하고, TTL 이 지난 항목은 조회 시점에 제거합니다.
+ * {@link #invalidateAll()} 이 호출되면 세대(generation) 번호가 바뀌므로, 무효화 이전에 계산을 시작한 값은
+ * 캐시에 저장되지 않습니다. 적중/미스/제거 횟수를 {@link Stats} 로 제공합니다.
+ */
+public class BoundedCache<K, V> {
+
+    /**
+     * 캐시 통계입니다.
+     * @param hits 적중 횟수
+     * @param misses 미스 횟수
+     * @param evictions 크기 초과 또는 TTL 만료로 제거된 항목 수
+     * @param size 현재 항목 수
+     * @param maxSize 최대 항목 수
+     */
+    public record Stats(long hits, long misses, long evictions, int size, int maxSize) {}
+
+    private record Entry<V>(V value, long createdAtNanos) {}
+
+    private final int maxSize;
+    private final long ttlNanos;
+    private final LinkedHashMap<K, Entry<V>> entries;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long generation;
+
+    /**
+     * @param maxSize 최대 항목 수
+     * @param ttl 항목 유효 시간, 0 이하이면 만료되지 않음
+     */
+    public BoundedCache(int maxSize, Duration ttl) {
+        this.maxSize = Math.max(1, maxSize);
+        this.ttlNanos = ttl.isNegative() || ttl.isZero() ? 0 : ttl.toNanos();
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    /**
+     * 캐시에서 값을 찾고, 없으면 loader 로 계산하여 저장한 뒤 반환합니다.
+     * 계산은 잠금 밖에서 수행하므로 같은 키를 동시에 요청하면 중복 계산될 수 있습니다.
+     */
+    public V get(K key, Function<K, V> loader) {
+        long loadGeneration;
+        synchronized (this) {
+            Entry<V> entry = entries.get(key);
+            if (entry != null && !isExpired(entry)) {
+                hits++;
+                return entry.value();
+            }
+            if (entry != null) {
+                entries.remove(key);
+                evictions++;
+            }
+            misses++;
+            loadGeneration = generation;
+        }
+
+        V value = loader.apply(key);
+
+        synchronized (this) {
+            if (loadGeneration == generation) {
+                entries.put(key, new Entry<>(value, System.nanoTime()));
+                evictOverflow();
+            }
+        }
+        return value;
+    }
+
+    /**
+     * 모든 항목을 제거합니다. 진행 중인 계산 결과도 저장되지 않습니다.
+     */
+    public synchronized void invalidateAll() {
+        entries.clear();
+        generation++;
+    }
+
+    public synchronized Stats stats() {
+        return new Stats(hits, misses, evictions, entries.size(), maxSize);
+    }
+
+    private boolean isExpired(Entry<V> entry) {
+        return ttlNanos > 0 && System.nanoTime() - entry.createdAtNanos() > ttlNanos;
+    }
+
+    private void evictOverflow() {
+        Iterator<Map.Entry<K, Entry<V>>> iterator = entries.entrySet().iterator();
+        while (entries.size() > maxSize && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+            evictions++;
+        }
+    }
+}
@@ -0,0 +1,491 @@
+package com.fortify.analyzer.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fortify.analyzer.dto.ComparisonJobPageDto;
+import com.fortify.analyzer.dto.ComparisonJobStatusDto;
+import com.fortify.analyzer.dto.RuleDiffEntry;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * 두 externalmetadata.xml 비교를 백그라운드 작업으로 실행하고, 결과를 버킷별 NDJSON 파일로 보관하는 서비스입니다.
+ * <p>
+ * 업로드된 파일은 작업 디렉터리로 옮긴 뒤 즉시 작업 ID 를 반환하고, 비교는 전용 스레드 풀에서 실행됩니다.
+ * {@link MetadataDiffEngine} 이 분류한 규칙은 메모리에 모으지 않고 바로 버킷별 파일에 한 줄씩 기록하며,
+ * 페이지 조회를 위해 일정 줄마다 파일 위치를 기억해 둡니다. 조회/내보내기는 이 파일을 읽어 응답 스트림에 바로 씁니다.
+ * <p>
+ * 끝난 작업은 {@code analyzer.jobs.retention} 이 지나면 {@code analyzer.jobs.purge-interval} 마다 실행되는 정리 작업에서
+ * 디렉터리와 함께 삭제됩니다. 페이지 조회나 내보내기로 결과 파일을 읽고 있는 작업은 다음 정리 때까지 남겨 둡니다.
+ */
+@Service
+public class ComparisonJobService implements MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(ComparisonJobService.class);
+
+    // 페이지 조회 시 건너뛰기 비용을 줄이기 위해 이 줄 수마다 파일 위치를 기록합니다.
+    private static final int LINE_INDEX_INTERVAL = 256;
+
+    public enum JobState { QUEUED, RUNNING, COMPLETED, FAILED }
+
+    public enum ExportFormat { CSV, NDJSON }
+
+    private final MetadataDiffEngine metadataDiffEngine;
+    private final ObjectMapper objectMapper;
+    private final Path workDirectory;
+    private final Duration retention;
+    private final ExecutorService executor;
+    private final AnalyzerMetrics analyzerMetrics;
+
+    private final Map<String, ComparisonJob> jobs = new ConcurrentHashMap<>();
+
+    public ComparisonJobService(MetadataDiffEngine metadataDiffEngine, ObjectMapper objectMapper, AnalyzerMetrics analyzerMetrics,
+                                @Value("${analyzer.jobs.work-dir:${java.io.tmpdir}/analyzer-jobs}") String workDirectory,
+                                @Value("${analyzer.jobs.retention:1h}") Duration retention,
+                                @Value("${analyzer.jobs.parallelism:2}") int parallelism) {
+        this.metadataDiffEngine = metadataDiffEngine;
+        this.objectMapper = objectMapper;
+        this.analyzerMetrics = analyzerMetrics;
+        this.workDirectory = Paths.get(workDirectory);
+        this.retention = retention;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(Math.max(1, parallelism), runnable -> {
+            Thread thread = new Thread(runnable, "comparison-job-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (JobState state : List.of(JobState.QUEUED, JobState.RUNNING)) {
+            Gauge.builder("fortify.compare.jobs", jobs, all -> all.values().stream().filter(job -> job.state == state).count())
+                    .description("대기 중/실행 중인 비교 작업 수")
+                    .tag("state", state.name().toLowerCase(Locale.ROOT))
+                    .register(registry);
+        }
+    }
+
+    /**
+     * 두 파일을 작업 디렉터리로 옮기고 비교 작업을 대기열에 넣습니다.
+     * @return 작업 ID
+     */
+    public String submit(MultipartFile fileA, MultipartFile fileB) throws IOException {
+        String jobId = UUID.randomUUID().toString();
+        Path jobDirectory = Files.createDirectories(workDirectory.resolve(jobId));
+        Path pathA = jobDirectory.resolve("a.xml");
+        Path pathB = jobDirectory.resolve("b.xml");
+        try {
+            fileA.transferTo(pathA);
+            fileB.transferTo(pathB);
+        } catch (IOException e) {
+            deleteDirectory(jobDirectory);
+            throw e;
+        }
+
+        ComparisonJob job = new ComparisonJob(jobId, jobDirectory, fileA.getOriginalFilename(), fileB.getOriginalFilename(),
+                Files.size(pathA) + Files.size(pathB));
+        jobs.put(jobId, job);
+        executor.execute(() -> run(job, pathA, pathB));
+        logger.info("Comparison job {} queued ({} bytes)", jobId, job.totalBytes);
+        return jobId;
+    }
+
+    public Optional<ComparisonJobStatusDto> getStatus(String jobId) {
+        return Optional.ofNullable(jobs.get(jobId)).map(ComparisonJob::toStatus);
+    }
+
+    /**
+     * 완료된 작업의 한 버킷에서 offset 번째부터 최대 limit 건을 읽습니다.
+     * @throws IllegalArgumentException 작업이 없거나 버킷 이름이 잘못된 경우
+     * @throws IllegalStateException 작업이 아직 완료되지 않은 경우
+     */
+    public ComparisonJobPageDto getPage(String jobId, String bucketName, long offset, int limit) throws IOException {
+        MetadataDiffEngine.DiffBucket bucket = parseBucket(bucketName);
+        ComparisonJob job = acquireCompleted(jobId);
+        try {
+            return readPage(job, bucket, offset, limit);
+        } finally {
+            job.release();
+        }
+    }
+
+    private ComparisonJobPageDto readPage(ComparisonJob job, MetadataDiffEngine.DiffBucket bucket, long offset, int limit) throws IOException {
+        BucketFile bucketFile = job.buckets.get(bucket);
+        long start = Math.max(0, offset);
+        List<RuleDiffEntry> items = new ArrayList<>(Math.min(limit, 1024));
+        if (start < bucketFile.lineCount) {
+            try (FileChannel channel = FileChannel.open(bucketFile.path, StandardOpenOption.READ)) {
+                int indexSlot = (int) (start / LINE_INDEX_INTERVAL);
+                channel.position(bucketFile.lineOffsets.get(indexSlot));
+                BufferedReader reader = new BufferedReader(new InputStreamReader(Channels.newInputStream(channel), StandardCharsets.UTF_8));
+                for (long skip = start - (long) indexSlot * LINE_INDEX_INTERVAL; skip > 0; skip--) {
+                    reader.readLine();
+                }
+                String line;
+                while (items.size() < limit && (line = reader.readLine()) != null) {
+                    items.add(objectMapper.readValue(line, RuleDiffEntry.class));
+                }
+            }
+        }
+        return new ComparisonJobPageDto(bucketName(bucket), start, bucketFile.lineCount, items);
+    }
+
+    /**
+     * 완료된 작업의 결과를 CSV 또는 NDJSON 으로 출력 스트림에 바로 씁니다.
+     * @param bucketName 내보낼 버킷, null 이면 모든 버킷
+     * @throws IllegalArgumentException 작업이 없거나 버킷 이름이 잘못된 경우
+     * @throws IllegalStateException 작업이 아직 완료되지 않은 경우
+     */
+    public void export(String jobId, String bucketName, ExportFormat format, OutputStream outputStream) throws IOException {
+        List<MetadataDiffEngine.DiffBucket> buckets = bucketName == null
+                ? List.of(MetadataDiffEngine.DiffBucket.values())
+                : List.of(parseBucket(bucketName));
+        ComparisonJob job = acquireCompleted(jobId);
+        try {
+            writeExport(job, buckets, format, outputStream);
+        } finally {
+            job.release();
+        }
+    }
+
+    private void writeExport(ComparisonJob job, List<MetadataDiffEngine.DiffBucket> buckets, ExportFormat format,
+                             OutputStream outputStream) throws IOException {
+        Writer writer = new OutputStreamWriter(outputStream, StandardCharsets.UTF_8);
+        if (format == ExportFormat.CSV) {
+            writer.write("bucket,ruleId,categories,previousCategories\n");
+        }
+        for (MetadataDiffEngine.DiffBucket bucket : buckets) {
+            String name = bucketName(bucket);
+            try (BufferedReader reader = Files.newBufferedReader(job.buckets.get(bucket).path, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    RuleDiffEntry entry = objectMapper.readValue(line, RuleDiffEntry.class);
+                    if (format == ExportFormat.CSV) {
+                        writer.write(csv(name) + "," + csv(entry.ruleId()) + "," + csv(join(entry.categories())) + ","
+                                + csv(join(entry.previousCategories())) + "\n");
+                    } else {
+                        Map<String, Object> row = new LinkedHashMap<>();
+                        row.put("bucket", name);
+                        row.put("ruleId", entry.ruleId());
+                        row.put("categories", entry.categories());
+                        row.put("previousCategories", entry.previousCategories());
+                        writer.write(objectMapper.writeValueAsString(row));
+                        writer.write('\n');
+                    }
+                }
+            }
+        }
+        writer.flush();
+    }
+
+    /**
+     * 버킷 이름(common, modified, only-in-a, only-in-b)
+     */
+    public static String bucketName(MetadataDiffEngine.DiffBucket bucket) {
+        return bucket.name().toLowerCase(Locale.ROOT).replace('_', '-');
+    }
+
+    public static boolean isBucketName(String bucketName) {
+        for (MetadataDiffEngine.DiffBucket bucket : MetadataDiffEngine.DiffBucket.values()) {
+            if (bucketName(bucket).equals(bucketName)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static MetadataDiffEngine.DiffBucket parseBucket(String bucketName) {
+        try {
+            return MetadataDiffEngine.DiffBucket.valueOf(bucketName.toUpperCase(Locale.ROOT).replace('-', '_'));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("알 수 없는 결과 구분입니다: " + bucketName);
+        }
+    }
+
+    /**
+     * 완료된 작업의 결과 파일을 읽기 시작합니다. 다 읽은 뒤 {@link ComparisonJob#release()} 를 호출해야 정리 대상이 됩니다.
+     */
+    private ComparisonJob acquireCompleted(String jobId) {
+        ComparisonJob job = jobs.get(jobId);
+        if (job == null || !job.acquire()) {
+            throw new IllegalArgumentException("비교 작업을 찾을 수 없습니다: " + jobId);
+        }
+        if (job.state != JobState.COMPLETED) {
+            job.release();
+            throw new IllegalStateException("비교 작업이 아직 완료되지 않았습니다. (상태: " + job.state + ")");
+        }
+        return job;
+    }
+
+    private void run(ComparisonJob job, Path pathA, Path pathB) {
+        job.state = JobState.RUNNING;
+        job.phase = "파일 읽는 중";
+        long start = System.nanoTime();
+        try (InputStream inputA = new CountingInputStream(Files.newInputStream(pathA), job.bytesRead);
+             InputStream inputB = new CountingInputStream(Files.newInputStream(pathB), job.bytesRead);
+             BucketWriters writers = new BucketWriters(job)) {
+            MetadataDiffEngine.DiffCounts counts = analyzerMetrics.compare(false)
+                    .recordCallable(() -> metadataDiffEngine.compare(inputA, inputB, writers::write));
+            job.phase = "완료";
+            job.state = JobState.COMPLETED;
+            logger.info("Comparison job {} complete in {} ms. Common: {}, Modified: {}, Only in A: {}, Only in B: {}",
+                    job.id, (System.nanoTime() - start) / 1_000_000,
+                    counts.common(), counts.modified(), counts.onlyInA(), counts.onlyInB());
+        } catch (Exception e) {
+            job.phase = "실패";
+            job.message = e.getMessage();
+            job.state = JobState.FAILED;
+            logger.error("Comparison job {} failed", job.id, e);
+        } finally {
+            job.finishedAtNanos = System.nanoTime();
+            try {
+                Files.deleteIfExists(pathA);
+                Files.deleteIfExists(pathB);
+            } catch (IOException e) {
+                logger.warn("Could not delete uploaded files of comparison job {}: {}", job.id, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 보관 기간이 지난 끝난 작업을 디렉터리와 함께 삭제합니다. 결과 파일을 읽고 있는 작업은 다음 정리 때까지 남겨 둡니다.
+     */
+    @Scheduled(fixedDelayString = "${analyzer.jobs.purge-interval:PT1M}")
+    public void purgeExpiredJobs() {
+        long now = System.nanoTime();
+        jobs.values().removeIf(job -> {
+            boolean expired = job.finishedAtNanos != 0 && now - job.finishedAtNanos > retention.toNanos();
+            if (!expired || !job.markRemoved()) {
+                return false;
+            }
+            deleteDirectory(job.directory);
+            logger.info("Comparison job {} expired and was removed", job.id);
+            return true;
+        });
+    }
+
+    private static void deleteDirectory(Path directory) {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> {
+                try {
+                    Files.deleteIfExists(path);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (IOException | UncheckedIOException e) {
+            logger.warn("Could not delete comparison job directory {}: {}", directory, e.getMessage());
+        }
+    }
+
+    private static String join(List<String> values) {
+        return values == null ? "" : String.join("; ", values);
+    }
+
+    private static String csv(String value) {
+        if (value.contains(",") || value.contains("\"") || value.contains("\n") || value.contains("\r")) {
+            return "\"" + value.replace("\"", "\"\"") + "\"";
+        }
+        return value;
+    }
+
+    /**
+     * 실행 중인 작업의 상태. 진행 상황 필드는 작업 스레드가 갱신하고 요청 스레드가 읽습니다.
+     */
+    private static final class ComparisonJob {
+        private final String id;
+        private final Path directory;
+        private final String fileAName;
+        private final String fileBName;
+        private final long totalBytes;
+        private final AtomicLong bytesRead = new AtomicLong();
+        private final Map<MetadataDiffEngine.DiffBucket, BucketFile> buckets = new EnumMap<>(MetadataDiffEngine.DiffBucket.class);
+        private volatile JobState state = JobState.QUEUED;
+        private volatile String phase = "대기 중";
+        private volatile String message;
+        private volatile long finishedAtNanos;
+        // 결과 파일을 읽고 있는 요청 수와 정리 여부 (이 객체의 잠금으로 보호)
+        private int readers;
+        private boolean removed;
+
+        ComparisonJob(String id, Path directory, String fileAName, String fileBName, long totalBytes) {
+            this.id = id;
+            this.directory = directory;
+            this.fileAName = fileAName;
+            this.fileBName = fileBName;
+            this.totalBytes = totalBytes;
+            for (MetadataDiffEngine.DiffBucket bucket : MetadataDiffEngine.DiffBucket.values()) {
+                buckets.put(bucket, new BucketFile(directory.resolve(bucketName(bucket) + ".ndjson")));
+            }
+        }
+
+        synchronized boolean acquire() {
+            if (removed) {
+                return false;
+            }
+            readers++;
+            return true;
+        }
+
+        synchronized void release() {
+            readers--;
+        }
+
+        /**
+         * 읽고 있는 요청이 없으면 정리된 것으로 표시합니다. 표시한 뒤에는 새로 읽기를 시작할 수 없습니다.
+         */
+        synchronized boolean markRemoved() {
+            if (readers > 0) {
+                return false;
+            }
+            removed = true;
+            return true;
+        }
+
+        ComparisonJobStatusDto toStatus() {
+            long read = bytesRead.get();
+            int percent = totalBytes == 0 ? 100 : (int) Math.min(100, read * 100 / totalBytes);
+            Map<String, Long> counts = new LinkedHashMap<>();
+            buckets.forEach((bucket, file) -> counts.put(bucketName(bucket), file.lineCount));
+            return new ComparisonJobStatusDto(id, state.name(), phase, fileAName, fileBName, read, totalBytes, percent, counts, message);
+        }
+    }
+
+    /**
+     * 버킷 하나의 NDJSON 파일과 페이지 조회용 줄 위치 색인
+     */
+    private static final class BucketFile {
+        private final Path path;
+        // LINE_INDEX_INTERVAL 줄마다의 시작 바이트 위치
+        private final List<Long> lineOffsets = new ArrayList<>();
+        private volatile long lineCount;
+
+        BucketFile(Path path) {
+            this.path = path;
+            lineOffsets.add(0L);
+        }
+    }
+
+    /**
+     * 분류된 규칙을 버킷별 파일에 한 줄씩 기록합니다.
+     */
+    private final class BucketWriters implements AutoCloseable {
+        private final ComparisonJob job;
+        private final Map<MetadataDiffEngine.DiffBucket, OutputStream> outputs = new EnumMap<>(MetadataDiffEngine.DiffBucket.class);
+        private final Map<MetadataDiffEngine.DiffBucket, long[]> positions = new EnumMap<>(MetadataDiffEngine.DiffBucket.class);
+
+        BucketWriters(ComparisonJob job) throws IOException {
+            this.job = job;
+            for (Map.Entry<MetadataDiffEngine.DiffBucket, BucketFile> entry : job.buckets.entrySet()) {
+                outputs.put(entry.getKey(), new BufferedOutputStream(Files.newOutputStream(entry.getValue().path), 64 * 1024));
+                positions.put(entry.getKey(), new long[1]);
+            }
+        }
+
+        void write(MetadataDiffEngine.DiffBucket bucket, RuleDiffEntry entry) throws IOException {
+            job.phase = "결과 기록 중";
+            BucketFile file = job.buckets.get(bucket);
+            long[] position = positions.get(bucket);
+            if (file.lineCount > 0 && file.lineCount % LINE_INDEX_INTERVAL == 0) {
+                file.lineOffsets.add(position[0]);
+            }
+            byte[] line = objectMapper.writeValueAsBytes(entry);
+            OutputStream output = outputs.get(bucket);
+            output.write(line);
+            output.write('\n');
+            position[0] += line.length + 1;
+            file.lineCount++;
+        }
+
+        @Override
+        public void close() throws IOException {
+            for (OutputStream output : outputs.values()) {
+                output.close();
+            }
+        }
+    }
+
+    /**
+     * 읽은 바이트 수를 작업 진행률에 반영하는 스트림
+     */
+    private static final class CountingInputStream extends FilterInputStream {
+        private final AtomicLong counter;
+
+        CountingInputStream(InputStream in, AtomicLong counter) {
+            super(in);
+            this.counter = counter;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int value = super.read();
+            if (value >= 0) {
+                counter.incrementAndGet();
+            }
+            return value;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int count = super.read(buffer, offset, length);
+            if (count > 0) {
+                counter.addAndGet(count);
+            }
+            return count;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            counter.addAndGet(skipped);
+            return skipped;
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.fortify.analyzer.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fortify.analyzer.dto.KingdomCrawlProgressDto;
+import com.fortify.analyzer.entity.CategoryInfo;
+import com.fortify.analyzer.repository.CategoryInfoRepository;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 크롤링 작업: 카테고리별 새 페이지를 찾은 뒤 카테고리별 크롤러를 실행합니다.
+ * <p>
+ * 페이지 탐색이 끝난 시점과 카테고리(kingdom)별 진행 페이지/완료 여부를 체크포인트로 저장하므로,
+ * 이어서 실행하면 페이지 탐색과 이미 끝난 카테고리는 건너뜁니다.
+ * 중간에 멈춘 카테고리는 처음 페이지부터 다시 실행하지만, 증분 모드의 응답 캐시 덕분에 이미 받은 페이지는 다시 받지 않습니다.
+ * 진행 단계 수는 크롤링할 전체 목록 페이지 수입니다.
+ */
+@Component
+public class CrawlJobHandler implements JobHandler {
+
+    public static final String JOB_TYPE = "CRAWLING";
+
+    /**
+     * 크롤링 작업 체크포인트
+     * @param pagesDiscovered 새 페이지 탐색을 마쳤는지 여부
+     * @param completedKingdoms 크롤링을 마친 카테고리
+     * @param pagesDone Key: 진행 중이던 카테고리, Value: 마친 목록 페이지 수
+     */
+    record CrawlCheckpoint(boolean pagesDiscovered, Set<String> completedKingdoms, Map<String, Integer> pagesDone) {}
+
+    private final CategoryInfoRepository categoryInfoRepository;
+    private final PageDiscoveryEngine pageDiscoveryEngine;
+    private final KingdomCrawlScheduler kingdomCrawlScheduler;
+    private final ObjectMapper objectMapper;
+
+    public CrawlJobHandler(CategoryInfoRepository categoryInfoRepository, PageDiscoveryEngine pageDiscoveryEngine,
+                           KingdomCrawlScheduler kingdomCrawlScheduler, ObjectMapper objectMapper) {
+        this.categoryInfoRepository = categoryInfoRepository;
+        this.pageDiscoveryEngine = pageDiscoveryEngine;
+        this.kingdomCrawlScheduler = kingdomCrawlScheduler;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public String jobType() {
+        return JOB_TYPE;
+    }
+
+    @Override
+    public String run(JobContext context) throws Exception {
+        CrawlCheckpoint checkpoint = context.checkpoint() == null
+                ? new CrawlCheckpoint(false, new LinkedHashSet<>(), new LinkedHashMap<>())
+                : objectMapper.readValue(context.checkpoint(), CrawlCheckpoint.class);
+
+        if (!checkpoint.pagesDiscovered()) {
+            context.progress(0, 0, "Updating page numbers...");
+            discoverPages(context);
+            checkpoint = new CrawlCheckpoint(true, new LinkedHashSet<>(), new LinkedHashMap<>());
+            context.saveCheckpoint(objectMapper.writeValueAsString(checkpoint));
+        }
+
+        List<CategoryInfo> categories = categoryInfoRepository.findAll();
+        long totalPages = 0;
+        long completedPages = 0;
+        List<CategoryInfo> remaining = new ArrayList<>();
+        for (CategoryInfo category : categories) {
+            totalPages += category.getLastPage() + 1;
+            if (checkpoint.completedKingdoms().contains(category.getKingdomName())) {
+                completedPages += category.getLastPage() + 1;
+            } else {
+                remaining.add(category);
+            }
+        }
+        if (remaining.size() < categories.size()) {
+            context.progress(completedPages, totalPages, "Resuming: " + (categories.size() - remaining.size()) + " categories already crawled.");
+        }
+
+        CrawlProgress progress = new CrawlProgress(context, checkpoint, completedPages, totalPages);
+        kingdomCrawlScheduler.crawl(remaining, progress::onProgress);
+        return "Crawling Finished Successfully.";
+    }
+
+    private void discoverPages(JobContext context) throws InterruptedException {
+        List<CategoryInfo> categories = categoryInfoRepository.findAll();
+        Map<String, Integer> knownLastPages = new LinkedHashMap<>();
+        for (CategoryInfo category : categories) {
+            knownLastPages.put(category.getKingdomName(), category.getLastPage());
+        }
+        Map<String, PageDiscoveryEngine.DiscoveryResult> discovered = pageDiscoveryEngine.discoverLastPages(knownLastPages);
+        int probes = 0;
+        for (CategoryInfo category : categories) {
+            PageDiscoveryEngine.DiscoveryResult result = discovered.get(category.getKingdomName());
+            probes += result.probes();
+            if (result.lastPage() > category.getLastPage()) {
+                category.setLastPage(result.lastPage());
+                categoryInfoRepository.save(category);
+            }
+        }
+        context.progress(0, 0, "Page numbers updated for " + categories.size() + " categories (" + probes + " requests).");
+    }
+
+    /**
+     * 카테고리별 진행 상태를 받아 작업 진행률과 체크포인트로 반영합니다. (크롤러 스레드들에서 동시에 호출됨)
+     */
+    private final class CrawlProgress {
+        private final JobContext context;
+        private final CrawlCheckpoint checkpoint;
+        private final long totalPages;
+        private long completedPages;
+
+        private CrawlProgress(JobContext context, CrawlCheckpoint checkpoint, long completedPages, long totalPages) {
+            this.context = context;
+            this.checkpoint = checkpoint;
+            this.completedPages = completedPages;
+            this.totalPages = totalPages;
+        }
+
+        private synchronized void onProgress(KingdomCrawlProgressDto kingdom, String summary) {
+            boolean changed;
+            if ("COMPLETED".equals(kingdom.state())) {
+                changed = checkpoint.completedKingdoms().add(kingdom.kingdom());
+                if (changed) {
+                    checkpoint.pagesDone().remove(kingdom.kingdom());
+                    completedPages += kingdom.totalPages();
+                }
+            } else {
+                Integer previous = checkpoint.pagesDone().put(kingdom.kingdom(), kingdom.pagesDone());
+                changed = previous == null || previous != kingdom.pagesDone();
+            }
+            if (changed) {
+                try {
+                    context.saveCheckpoint(objectMapper.writeValueAsString(checkpoint));
+                } catch (JsonProcessingException e) {
+                    throw new IllegalStateException("Could not serialize crawl checkpoint", e);
+                }
+            }
+            long inProgressPages = checkpoint.pagesDone().values().stream().mapToLong(Integer::longValue).sum();
+            context.progress(completedPages + inProgressPages, totalPages, summary);
+        }
+    }
+}
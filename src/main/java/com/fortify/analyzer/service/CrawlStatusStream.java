@@ -0,0 +1,236 @@
+package com.fortify.analyzer.service;
+
+import com.fortify.analyzer.dto.TaskStatusEventDto;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 크롤링/분석 작업 상태를 Server-Sent Events 로 구독자에게 밀어주는 스트림입니다.
+ * <p>
+ * 작업 스레드는 {@link JobStatusChangedEvent} 로 바뀐 작업만 표시하고, 별도 스레드가
+ * {@code crawler.status.min-interval} 마다 바뀐 작업의 상태를 한 번만 만들어 전송합니다. (작업별 병합/전송 빈도 제한)
+ * 구독자마다 아직 보내지 못한 최신 상태만 보관하고 전송은 가상 스레드에서 하므로, 느린 구독자가 다른 구독자나
+ * 작업 스레드를 막지 않습니다. 새 구독자에게는 작업별 마지막 상태를 바로 보냅니다.
+ */
+@Component
+public class CrawlStatusStream implements MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(CrawlStatusStream.class);
+
+    static final String STATUS_EVENT = "status";
+    // 프록시/브라우저가 유휴 연결을 끊지 않도록 보내는 주석 이벤트 간격
+    private static final long HEARTBEAT_NANOS = TimeUnit.SECONDS.toNanos(15);
+
+    private final CrawlService crawlService;
+    private final long timeoutMillis;
+    private final long intervalMillis;
+    // 마지막 전송 이후 상태가 바뀐 작업
+    private final Set<String> dirtyTasks = ConcurrentHashMap.newKeySet();
+    // Key: 작업 이름, Value: 마지막으로 전송한 상태 (새 구독자 재생용)
+    private final Map<String, TaskStatusEventDto> latest = new ConcurrentHashMap<>();
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    // 마지막 상태 갱신과 구독자 전달, 새 구독자 등록과 재생을 한 단위로 묶습니다. (재생이 더 새 상태를 덮어쓰지 않도록)
+    private final Object publishLock = new Object();
+    private final AtomicLong eventId = new AtomicLong();
+    private final ScheduledExecutorService ticker;
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+    private volatile long lastSentNanos = System.nanoTime();
+
+    public CrawlStatusStream(CrawlService crawlService,
+                             @Value("${crawler.status.min-interval:250ms}") Duration minInterval,
+                             @Value("${crawler.status.stream-timeout:30m}") Duration streamTimeout) {
+        this.crawlService = crawlService;
+        this.timeoutMillis = streamTimeout.toMillis();
+        this.ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "crawl-status-stream");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.intervalMillis = Math.max(1, minInterval.toMillis());
+    }
+
+    @PostConstruct
+    public void start() {
+        ticker.scheduleWithFixedDelay(this::tick, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @EventListener
+    public void onJobStatusChanged(JobStatusChangedEvent event) {
+        dirtyTasks.add(event.jobType());
+    }
+
+    /**
+     * 상태 스트림을 구독합니다. 작업별 현재 상태를 먼저 보내고 이후 바뀐 상태를 보냅니다.
+     */
+    public SseEmitter subscribe() {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(emitter);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+        synchronized (publishLock) {
+            subscribers.add(subscriber);
+            for (String task : CrawlService.TASKS) {
+                subscriber.offer(latest.computeIfAbsent(task, crawlService::getTaskStatusSnapshot));
+            }
+        }
+        return emitter;
+    }
+
+    int subscriberCount() {
+        return subscribers.size();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("fortify.crawler.status.subscribers", this, CrawlStatusStream::subscriberCount)
+                .description("상태 스트림(SSE) 구독자 수")
+                .register(registry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        ticker.shutdownNow();
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        subscribers.clear();
+        senders.shutdownNow();
+    }
+
+    /**
+     * 바뀐 작업의 상태를 한 번씩만 만들어 모든 구독자에게 전달합니다.
+     */
+    void tick() {
+        try {
+            boolean sent = false;
+            synchronized (publishLock) {
+                List<TaskStatusEventDto> changed = new ArrayList<>();
+                for (String task : CrawlService.TASKS) {
+                    if (dirtyTasks.remove(task)) {
+                        TaskStatusEventDto snapshot = crawlService.getTaskStatusSnapshot(task);
+                        // 같은 상태를 다시 보내지 않습니다. (e.g., 진행률 변화 없이 저장만 된 경우)
+                        if (!snapshot.equals(latest.put(task, snapshot))) {
+                            changed.add(snapshot);
+                        }
+                    }
+                }
+                if (!changed.isEmpty()) {
+                    subscribers.forEach(subscriber -> changed.forEach(subscriber::offer));
+                    sent = true;
+                }
+            }
+            if (sent) {
+                lastSentNanos = System.nanoTime();
+            } else if (System.nanoTime() - lastSentNanos >= HEARTBEAT_NANOS) {
+                subscribers.forEach(Subscriber::heartbeat);
+                lastSentNanos = System.nanoTime();
+            }
+        } catch (RuntimeException e) {
+            // 스케줄러는 예외가 나면 다음 실행을 멈추므로 기록만 합니다.
+            logger.warn("Failed to publish task status", e);
+        }
+    }
+
+    /**
+     * 구독자 하나. 보내지 못한 상태는 작업별 최신 값만 남기고, 전송은 한 번에 하나의 가상 스레드에서만 합니다.
+     */
+    private final class Subscriber {
+        private final SseEmitter emitter;
+        private final Map<String, TaskStatusEventDto> pending = new LinkedHashMap<>();
+        private final AtomicBoolean sending = new AtomicBoolean();
+        private volatile boolean heartbeatPending;
+
+        private Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        private void offer(TaskStatusEventDto status) {
+            synchronized (pending) {
+                pending.put(status.task(), status);
+            }
+            scheduleSend();
+        }
+
+        private void heartbeat() {
+            heartbeatPending = true;
+            scheduleSend();
+        }
+
+        private void scheduleSend() {
+            if (sending.compareAndSet(false, true)) {
+                try {
+                    senders.execute(this::drain);
+                } catch (RuntimeException e) {
+                    // 종료 중
+                    sending.set(false);
+                }
+            }
+        }
+
+        private void drain() {
+            try {
+                while (true) {
+                    List<TaskStatusEventDto> batch;
+                    synchronized (pending) {
+                        batch = new ArrayList<>(pending.values());
+                        pending.clear();
+                    }
+                    boolean beat = heartbeatPending;
+                    heartbeatPending = false;
+                    if (batch.isEmpty() && !beat) {
+                        break;
+                    }
+                    for (TaskStatusEventDto status : batch) {
+                        emitter.send(SseEmitter.event()
+                                .name(STATUS_EVENT)
+                                .id(Long.toString(eventId.incrementAndGet()))
+                                .data(status, MediaType.APPLICATION_JSON));
+                    }
+                    if (batch.isEmpty()) {
+                        emitter.send(SseEmitter.event().comment("heartbeat"));
+                    }
+                }
+            } catch (IOException | IllegalStateException e) {
+                // 연결이 끊긴 구독자
+                subscribers.remove(this);
+                emitter.completeWithError(e);
+                return;
+            } finally {
+                sending.set(false);
+            }
+            // drain 을 마친 직후 들어온 상태가 있으면 다시 보냅니다.
+            boolean hasPending;
+            synchronized (pending) {
+                hasPending = !pending.isEmpty();
+            }
+            if (hasPending || heartbeatPending) {
+                scheduleSend();
+            }
+        }
+    }
+}
@@ -0,0 +1,235 @@
+package com.fortify.analyzer.service;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * (규칙 ID, 외부 표준) 매핑 레코드를 메모리 한도 안에서 정렬하는 외부 정렬기입니다.
+ * <p>
+ * 레코드를 최대 {@code maxInMemoryRecords} 건까지 메모리에 모았다가, 한도를 넘으면 정렬하여 임시 파일(run)로 내려씁니다.
+ * 모든 레코드를 추가한 뒤 {@link #sorted()} 를 호출하면 각 run 과 메모리에 남은 레코드를 k-way 병합하여
+ * 정렬 순서대로(중복 제거) 하나씩 돌려줍니다. 따라서 입력 크기와 관계없이 힙 사용량은 버퍼 크기로 제한됩니다.
+ * <p>
+ * 임시 파일은 {@link #close()} 에서 삭제됩니다.
+ */
+public class ExternalMappingSorter implements AutoCloseable {
+
+    /**
+     * 규칙 ID 와 외부 표준 한 쌍. 규칙 ID, 외부 표준 순으로 정렬됩니다.
+     */
+    public record MappingRecord(String ruleId, String category) implements Comparable<MappingRecord> {
+
+        private static final Comparator<MappingRecord> ORDER =
+                Comparator.comparing(MappingRecord::ruleId).thenComparing(MappingRecord::category);
+
+        @Override
+        public int compareTo(MappingRecord other) {
+            return ORDER.compare(this, other);
+        }
+    }
+
+    /**
+     * 정렬된 레코드를 하나씩 읽는 커서입니다.
+     */
+    public interface SortedRecords extends AutoCloseable {
+        /**
+         * @return 다음 레코드, 더 이상 없으면 null
+         */
+        MappingRecord next() throws IOException;
+
+        @Override
+        void close() throws IOException;
+    }
+
+    private final int maxInMemoryRecords;
+    private final Path spillDirectory;
+    private final List<MappingRecord> buffer = new ArrayList<>();
+    private final List<Path> runs = new ArrayList<>();
+
+    public ExternalMappingSorter(int maxInMemoryRecords, Path spillDirectory) {
+        this.maxInMemoryRecords = Math.max(1, maxInMemoryRecords);
+        this.spillDirectory = spillDirectory;
+    }
+
+    public void add(MappingRecord record) throws IOException {
+        buffer.add(record);
+        if (buffer.size() >= maxInMemoryRecords) {
+            spill();
+        }
+    }
+
+    /**
+     * 디스크로 내려쓴 run 의 개수
+     */
+    public int spilledRunCount() {
+        return runs.size();
+    }
+
+    /**
+     * 지금까지 추가한 모든 레코드를 정렬 순서대로 읽는 커서를 반환합니다. 같은 레코드는 한 번만 반환됩니다.
+     */
+    public SortedRecords sorted() throws IOException {
+        buffer.sort(null);
+        List<SortedRecords> sources = new ArrayList<>(runs.size() + 1);
+        try {
+            for (Path run : runs) {
+                sources.add(new RunReader(run));
+            }
+        } catch (IOException e) {
+            for (SortedRecords source : sources) {
+                source.close();
+            }
+            throw e;
+        }
+        sources.add(new BufferReader(buffer));
+        return new MergingReader(sources);
+    }
+
+    @Override
+    public void close() throws IOException {
+        buffer.clear();
+        IOException failure = null;
+        for (Path run : runs) {
+            try {
+                Files.deleteIfExists(run);
+            } catch (IOException e) {
+                failure = e;
+            }
+        }
+        runs.clear();
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private void spill() throws IOException {
+        buffer.sort(null);
+        Path run = Files.createTempFile(spillDirectory, "mapping-run-", ".bin");
+        runs.add(run);
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(run), 64 * 1024))) {
+            for (MappingRecord record : buffer) {
+                writeString(out, record.ruleId());
+                writeString(out, record.category());
+            }
+        }
+        buffer.clear();
+    }
+
+    // writeUTF 는 64KB 로 길이가 제한되므로 길이(int) + UTF-8 바이트로 기록합니다.
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static final class RunReader implements SortedRecords {
+        private final DataInputStream in;
+
+        RunReader(Path run) throws IOException {
+            this.in = new DataInputStream(new BufferedInputStream(Files.newInputStream(run), 64 * 1024));
+        }
+
+        @Override
+        public MappingRecord next() throws IOException {
+            String ruleId;
+            try {
+                ruleId = readString(in);
+            } catch (EOFException e) {
+                return null;
+            }
+            return new MappingRecord(ruleId, readString(in));
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+
+    private static final class BufferReader implements SortedRecords {
+        private final List<MappingRecord> records;
+        private int position;
+
+        BufferReader(List<MappingRecord> records) {
+            this.records = records;
+        }
+
+        @Override
+        public MappingRecord next() {
+            return position < records.size() ? records.get(position++) : null;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    /**
+     * 여러 정렬된 소스를 우선순위 큐로 병합하고, 연속된 중복 레코드를 건너뜁니다.
+     */
+    private static final class MergingReader implements SortedRecords {
+        private record Head(MappingRecord record, SortedRecords source) {}
+
+        private final List<SortedRecords> sources;
+        private final PriorityQueue<Head> heads = new PriorityQueue<>(Comparator.comparing(Head::record));
+        private MappingRecord last;
+
+        MergingReader(List<SortedRecords> sources) throws IOException {
+            this.sources = sources;
+            for (SortedRecords source : sources) {
+                MappingRecord first = source.next();
+                if (first != null) {
+                    heads.add(new Head(first, source));
+                }
+            }
+        }
+
+        @Override
+        public MappingRecord next() throws IOException {
+            while (!heads.isEmpty()) {
+                Head head = heads.poll();
+                MappingRecord following = head.source().next();
+                if (following != null) {
+                    heads.add(new Head(following, head.source()));
+                }
+                if (!head.record().equals(last)) {
+                    last = head.record();
+                    return last;
+                }
+            }
+            return null;
+        }
+
+        @Override
+        public void close() throws IOException {
+            IOException failure = null;
+            for (SortedRecords source : sources) {
+                try {
+                    source.close();
+                } catch (IOException e) {
+                    failure = e;
+                }
+            }
+            if (failure != null) {
+                throw failure;
+            }
+        }
+    }
+}
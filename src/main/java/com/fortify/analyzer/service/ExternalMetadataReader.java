@@ -0,0 +1,114 @@
+package com.fortify.analyzer.service;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.InputStream;
+
+/**
+ * externalmetadata.xml 을 StAX(pull parser)로 순차적으로 읽는 리더입니다.
+ * DOM 트리를 만들지 않고 <PackInfo> 를 먼저 읽은 뒤 <Mapping> 을 하나씩 꺼내므로,
+ * 파일 크기와 관계없이 파싱에 필요한 메모리가 일정하게 유지됩니다.
+ * <p>
+ * Fortify 룰팩은 항상 <PackInfo> 가 <Mapping> 들보다 앞에 오므로, {@link #readPackInfo()} 를
+ * 먼저 호출한 뒤 {@link #nextMapping()} 을 반복 호출하는 순서로 사용합니다.
+ */
+public class ExternalMetadataReader implements AutoCloseable {
+
+    private static final XMLInputFactory XML_INPUT_FACTORY = createInputFactory();
+
+    public record PackInfo(String name, String packId, String version) {}
+
+    public record Mapping(String internalCategory, String externalCategory) {}
+
+    private final XMLStreamReader reader;
+
+    public ExternalMetadataReader(InputStream inputStream) throws XMLStreamException {
+        this.reader = XML_INPUT_FACTORY.createXMLStreamReader(inputStream);
+    }
+
+    /**
+     * 문서에서 첫 번째 <PackInfo> 요소를 찾아 이름/ID/버전을 읽습니다.
+     * @return PackInfo 정보, 문서에 <PackInfo> 가 없으면 null
+     */
+    public PackInfo readPackInfo() throws XMLStreamException {
+        if (!advanceTo("PackInfo")) {
+            return null;
+        }
+        String name = null;
+        String packId = null;
+        String version = null;
+        int depth = 1;
+        while (depth > 0 && reader.hasNext()) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                String localName = reader.getLocalName();
+                if (name == null && "Name".equals(localName)) {
+                    name = reader.getElementText();
+                } else if (packId == null && "PackID".equals(localName)) {
+                    packId = reader.getElementText();
+                } else if (version == null && "Version".equals(localName)) {
+                    version = reader.getElementText();
+                } else {
+                    depth++;
+                }
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            }
+        }
+        return new PackInfo(name, packId, version);
+    }
+
+    /**
+     * 다음 <Mapping> 요소를 읽습니다.
+     * @return 다음 매핑 정보, 더 이상 매핑이 없으면 null
+     */
+    public Mapping nextMapping() throws XMLStreamException {
+        if (!advanceTo("Mapping")) {
+            return null;
+        }
+        String internalCategory = null;
+        String externalCategory = null;
+        int depth = 1;
+        while (depth > 0 && reader.hasNext()) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                String localName = reader.getLocalName();
+                if (internalCategory == null && "InternalCategory".equals(localName)) {
+                    internalCategory = reader.getElementText();
+                } else if (externalCategory == null && "ExternalCategory".equals(localName)) {
+                    externalCategory = reader.getElementText();
+                } else {
+                    depth++;
+                }
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            }
+        }
+        return new Mapping(internalCategory, externalCategory);
+    }
+
+    @Override
+    public void close() throws XMLStreamException {
+        reader.close();
+    }
+
+    private boolean advanceTo(String localName) throws XMLStreamException {
+        while (reader.hasNext()) {
+            if (reader.next() == XMLStreamConstants.START_ELEMENT && localName.equals(reader.getLocalName())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static XMLInputFactory createInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        // 업로드된 파일이므로 DTD 및 외부 엔티티(XXE)를 처리하지 않습니다.
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+        return factory;
+    }
+}
@@ -0,0 +1,46 @@
+package com.fortify.analyzer.service;
+
+/**
+ * {@link BackgroundJobService} 가 실행하는 작업 종류 하나의 실제 로직입니다.
+ * <p>
+ * 구현체는 진행 상황과 체크포인트를 {@link JobContext} 로 보고하며,
+ * 이어서 실행될 때는 {@link JobContext#checkpoint()} 에 마지막으로 저장한 체크포인트가 들어 있습니다.
+ * 작업 중지는 스레드 인터럽트로 전달되므로, 오래 걸리는 단계는 {@link InterruptedException} 을 던져야 합니다.
+ */
+public interface JobHandler {
+
+    /**
+     * 작업 종류 (e.g., "CRAWLING"). 작업 종류별로 실행기를 따로 둡니다. (jobs.executor.&lt;종류&gt;.threads)
+     */
+    String jobType();
+
+    /**
+     * 작업을 실행합니다.
+     * @return 완료 메시지
+     */
+    String run(JobContext context) throws Exception;
+
+    /**
+     * 실행 중인 작업 하나에 전달되는 진행 보고/체크포인트 저장 창구입니다.
+     */
+    interface JobContext {
+
+        /**
+         * 마지막으로 저장한 체크포인트, 처음 실행이면 null
+         */
+        String checkpoint();
+
+        /**
+         * 체크포인트를 DB 에 즉시 저장합니다.
+         */
+        void saveCheckpoint(String checkpoint);
+
+        /**
+         * 진행 상황을 보고합니다. (DB 에는 일정 간격으로만 반영)
+         * @param stepsDone 완료한 단계 수
+         * @param stepsTotal 전체 단계 수 (모르면 0)
+         * @param currentStep 현재 단계 설명
+         */
+        void progress(long stepsDone, long stepsTotal, String currentStep);
+    }
+}
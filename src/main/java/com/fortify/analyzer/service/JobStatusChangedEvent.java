@@ -0,0 +1,8 @@
+package com.fortify.analyzer.service;
+
+/**
+ * 백그라운드 작업의 상태나 진행 상황이 바뀌었을 때 발행되는 이벤트입니다.
+ * 작업 스레드에서 동기적으로 전달되므로, 받는 쪽은 표시만 해 두고 실제 처리는 다른 스레드에서 해야 합니다.
+ * @param jobType 바뀐 작업 종류 (e.g., "CRAWLING")
+ */
+public record JobStatusChangedEvent(String jobType) {}
@@ -0,0 +1,317 @@
+package com.fortify.analyzer.service;
+
+import com.fortify.analyzer.dto.KingdomCrawlProgressDto;
+import com.fortify.analyzer.entity.CategoryInfo;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 카테고리(kingdom)별 크롤러(scripts/crawler.py) 실행을 병렬로 스케줄링합니다.
+ * <p>
+ * 카테고리는 서로 다른 파일에 결과를 쓰므로 최대 {@code crawler.parallelism} 개까지 동시에 실행합니다.
+ * 모든 크롤러가 같은 호스트에 요청하므로, 호스트 전체의 초당 요청 수({@code crawler.host.requests-per-second})를
+ * 동시에 실행되는 크롤러 수로 나누어 각 프로세스의 최소 요청 간격으로 전달합니다.
+ * 각 프로세스의 출력은 카테고리별 진행 상태로 반영되며, 작업이 중지되면 실행 중인 자식 프로세스를 모두 종료합니다.
+ * 증분 모드({@code crawler.incremental})에서는 크롤러가 응답 캐시와 조건부 요청을 사용하며,
+ * 새로 받은/변경 없는/캐시를 사용한 페이지 수를 함께 보고합니다.
+ */
+@Component
+public class KingdomCrawlScheduler implements MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(KingdomCrawlScheduler.class);
+
+    private static final String CRAWLER_SCRIPT = "scripts/crawler.py";
+    // crawler.py 가 목록 페이지 하나를 마칠 때마다 출력하는 줄
+    // e.g., "PROGRESS 3/20", 증분 모드: "PROGRESS 3/20 fetched=5 unchanged=2 cached=40"
+    private static final Pattern PROGRESS_LINE = Pattern.compile("^PROGRESS (\\d+)/(\\d+)(?: fetched=(\\d+) unchanged=(\\d+) cached=(\\d+))?$");
+    // 종료 요청 후 강제 종료까지 기다리는 시간
+    private static final long TERMINATE_GRACE_SECONDS = 5;
+
+    private final String resultsDirectoryPath;
+    private final int parallelism;
+    private final double hostRequestsPerSecond;
+    private final boolean incremental;
+    private final AnalyzerMetrics analyzerMetrics;
+
+    // 실행 중인 크롤러 프로세스 (중지 시 모두 종료)
+    private final Set<Process> runningProcesses = ConcurrentHashMap.newKeySet();
+    // Key: kingdom 이름, Value: 진행 상태 (마지막 실행 기준)
+    private final Map<String, KingdomCrawlProgressDto> progress = new ConcurrentHashMap<>();
+    private volatile List<String> kingdomOrder = List.of();
+    // 중지 요청으로 프로세스를 종료하는 중인지 여부 (비정상 종료 코드를 실패가 아닌 취소로 기록)
+    private volatile boolean terminating;
+
+    public KingdomCrawlScheduler(@Value("${crawler.results.path}") String resultsDirectoryPath,
+                                 @Value("${crawler.parallelism:3}") int parallelism,
+                                 @Value("${crawler.host.requests-per-second:4}") double hostRequestsPerSecond,
+                                 @Value("${crawler.incremental:true}") boolean incremental,
+                                 AnalyzerMetrics analyzerMetrics) {
+        this.resultsDirectoryPath = resultsDirectoryPath;
+        this.parallelism = Math.max(1, parallelism);
+        this.hostRequestsPerSecond = hostRequestsPerSecond;
+        this.incremental = incremental;
+        this.analyzerMetrics = analyzerMetrics;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("fortify.crawler.processes.running", runningProcesses, Set::size)
+                .description("실행 중인 크롤러 프로세스 수")
+                .register(registry);
+    }
+
+    /**
+     * 카테고리 진행 상태가 바뀔 때마다 호출되는 콜백입니다. (여러 크롤러 스레드에서 동시에 호출될 수 있음)
+     */
+    @FunctionalInterface
+    public interface ProgressListener {
+        /**
+         * @param kingdom 바뀐 카테고리의 진행 상태
+         * @param summary 전체 진행 요약 (e.g., "Crawling: 3/12 categories finished (running: ...)")
+         */
+        void onProgress(KingdomCrawlProgressDto kingdom, String summary);
+    }
+
+    /**
+     * 모든 카테고리의 크롤러를 실행하고 끝날 때까지 기다립니다.
+     * 한 카테고리가 실패해도 나머지는 계속 실행하며, 실패한 카테고리가 있으면 모두 끝난 뒤 예외를 던집니다.
+     * @param categories 크롤링할 카테고리 (lastPage + 1 페이지를 크롤링)
+     * @param progressListener 카테고리가 시작/진행/종료될 때마다 진행 상태를 전달받을 콜백
+     * @throws InterruptedException 작업이 중지된 경우 (실행 중인 크롤러는 모두 종료된 상태)
+     * @throws IllegalStateException 크롤러가 실패했거나 진행 상태 전달에 실패한 경우 (후자는 실행 중인 크롤러를 모두 종료한 상태)
+     */
+    public void crawl(List<CategoryInfo> categories, ProgressListener progressListener) throws InterruptedException {
+        progress.clear();
+        terminating = false;
+        List<String> order = new ArrayList<>(categories.size());
+        for (CategoryInfo category : categories) {
+            order.add(category.getKingdomName());
+            progress.put(category.getKingdomName(),
+                    new KingdomCrawlProgressDto(category.getKingdomName(), "QUEUED", 0, category.getLastPage() + 1, 0, 0, 0, null));
+        }
+        kingdomOrder = List.copyOf(order);
+
+        int concurrentCrawlers = Math.max(1, Math.min(parallelism, categories.size()));
+        double requestInterval = hostRequestsPerSecond > 0 ? concurrentCrawlers / hostRequestsPerSecond : 0;
+        logger.info("Crawling {} categories with {} crawlers ({}s between requests per crawler)",
+                categories.size(), concurrentCrawlers, String.format("%.2f", requestInterval));
+
+        ExecutorService executor = Executors.newFixedThreadPool(concurrentCrawlers, Thread.ofVirtual().name("kingdom-crawler-", 0).factory());
+        List<Future<?>> futures = new ArrayList<>(categories.size());
+        try {
+            for (CategoryInfo category : categories) {
+                futures.add(executor.submit(() -> {
+                    runCrawler(category.getKingdomName(), category.getLastPage() + 1, requestInterval, progressListener);
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            terminateAll();
+            throw e;
+        } catch (ExecutionException e) {
+            // 가상 스레드는 shutdownNow() 로도 프로세스 출력 읽기에서 깨어나지 않으므로, 남은 크롤러 프로세스를 직접 종료합니다.
+            terminateAll();
+            throw new IllegalStateException("Crawler scheduling failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        List<String> failed = kingdomOrder.stream().filter(kingdom -> "FAILED".equals(progress.get(kingdom).state())).toList();
+        if (!failed.isEmpty()) {
+            throw new IllegalStateException("Crawler failed for " + failed.size() + " categories: " + String.join(", ", failed));
+        }
+    }
+
+    /**
+     * 마지막 크롤링 실행의 카테고리별 진행 상태를 반환합니다. (카테고리 순서 유지)
+     */
+    public List<KingdomCrawlProgressDto> getProgress() {
+        return kingdomOrder.stream().map(progress::get).toList();
+    }
+
+    /**
+     * 실행 중인 모든 크롤러 프로세스(와 그 자식 프로세스)를 종료합니다.
+     */
+    @PreDestroy
+    public void terminateAll() {
+        terminating = true;
+        List<Process> processes = new ArrayList<>(runningProcesses);
+        for (Process process : processes) {
+            process.descendants().forEach(ProcessHandle::destroy);
+            process.destroy();
+        }
+        for (Process process : processes) {
+            try {
+                if (!process.waitFor(TERMINATE_GRACE_SECONDS, TimeUnit.SECONDS)) {
+                    process.descendants().forEach(ProcessHandle::destroyForcibly);
+                    process.destroyForcibly();
+                }
+            } catch (InterruptedException e) {
+                process.destroyForcibly();
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (!processes.isEmpty()) {
+            logger.warn("Terminated {} running crawler processes.", processes.size());
+        }
+    }
+
+    private void runCrawler(String kingdom, int totalPages, double requestInterval, ProgressListener progressListener) {
+        KingdomCrawlProgressDto current = new KingdomCrawlProgressDto(kingdom, "RUNNING", 0, totalPages, 0, 0, 0, null);
+        publish(current, progressListener);
+
+        Process process = null;
+        String state = "FAILED";
+        long startedAt = System.nanoTime();
+        try {
+            List<String> command = new ArrayList<>(List.of("python3", resolveScript().getAbsolutePath(),
+                    "--output-dir", resultsDirectoryPath,
+                    "--kingdom", kingdom,
+                    "--pages", String.valueOf(totalPages),
+                    "--request-interval", String.valueOf(requestInterval)));
+            if (incremental) {
+                command.add("--incremental");
+            }
+            ProcessBuilder processBuilder = new ProcessBuilder(command);
+            processBuilder.redirectErrorStream(true);
+            processBuilder.environment().put("PYTHONIOENCODING", "utf-8");
+            logger.info("Executing command: {}", String.join(" ", processBuilder.command()));
+            process = processBuilder.start();
+            runningProcesses.add(process);
+            if (terminating) {
+                // 종료 요청과 프로세스 시작이 겹친 경우
+                process.destroy();
+            }
+
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    current = applyOutputLine(current, line);
+                    publish(current, progressListener);
+                }
+            }
+            int exitCode = process.waitFor();
+            logger.info("Crawler for {} exited with code {}", kingdom, exitCode);
+            state = exitCode == 0 ? "COMPLETED" : terminating ? "CANCELLED" : "FAILED";
+        } catch (InterruptedException e) {
+            state = "CANCELLED";
+            Thread.currentThread().interrupt();
+        } catch (IOException | RuntimeException e) {
+            // 프로세스가 종료되면서 출력 스트림이 닫힌 경우도 여기로 옵니다.
+            state = terminating ? "CANCELLED" : "FAILED";
+            current = withLastMessage(current, e.getMessage());
+            logger.error("Crawler for {} failed", kingdom, e);
+        } finally {
+            if (process != null) {
+                runningProcesses.remove(process);
+                if (process.isAlive()) {
+                    process.descendants().forEach(ProcessHandle::destroyForcibly);
+                    process.destroyForcibly();
+                }
+            }
+            analyzerMetrics.scriptExecution("crawler.py", scriptOutcome(state))
+                    .record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+            publish(new KingdomCrawlProgressDto(kingdom, state, current.pagesDone(), totalPages,
+                    current.fetchedPages(), current.unchangedPages(), current.cachedPages(), current.lastMessage()), progressListener);
+        }
+    }
+
+    // 진행 상태를 스크립트 실행 지표의 outcome 태그 값으로 바꿉니다. (AnalyzerMetrics.scriptExecution 참고)
+    private static String scriptOutcome(String state) {
+        return switch (state) {
+            case "COMPLETED" -> "success";
+            case "CANCELLED" -> "cancelled";
+            default -> "failure";
+        };
+    }
+
+    private void publish(KingdomCrawlProgressDto kingdomProgress, ProgressListener progressListener) {
+        progress.put(kingdomProgress.kingdom(), kingdomProgress);
+        progressListener.onProgress(kingdomProgress, summarize());
+    }
+
+    /**
+     * 크롤러 출력 한 줄을 진행 상태에 반영합니다. PROGRESS 줄이 아니면 로그로 남기고 마지막 출력으로 기록합니다.
+     */
+    private static KingdomCrawlProgressDto applyOutputLine(KingdomCrawlProgressDto current, String line) {
+        Matcher matcher = PROGRESS_LINE.matcher(line);
+        if (!matcher.matches()) {
+            logger.info("[Python:{}] {}", current.kingdom(), line);
+            return withLastMessage(current, line);
+        }
+        int pagesDone = Integer.parseInt(matcher.group(1));
+        if (matcher.group(3) == null) {
+            return new KingdomCrawlProgressDto(current.kingdom(), current.state(), pagesDone, current.totalPages(),
+                    current.fetchedPages(), current.unchangedPages(), current.cachedPages(), current.lastMessage());
+        }
+        return new KingdomCrawlProgressDto(current.kingdom(), current.state(), pagesDone, current.totalPages(),
+                Integer.parseInt(matcher.group(3)), Integer.parseInt(matcher.group(4)), Integer.parseInt(matcher.group(5)),
+                current.lastMessage());
+    }
+
+    private static KingdomCrawlProgressDto withLastMessage(KingdomCrawlProgressDto current, String message) {
+        return new KingdomCrawlProgressDto(current.kingdom(), current.state(), current.pagesDone(), current.totalPages(),
+                current.fetchedPages(), current.unchangedPages(), current.cachedPages(), message);
+    }
+
+    /**
+     * e.g., "Crawling: 3/12 categories finished (running: API Abuse 5/20, Errors 2/7), pages fetched 40, unchanged 3, cached 512"
+     */
+    private String summarize() {
+        List<KingdomCrawlProgressDto> snapshot = getProgress();
+        long finished = snapshot.stream().filter(p -> !"QUEUED".equals(p.state()) && !"RUNNING".equals(p.state())).count();
+        List<String> running = snapshot.stream().filter(p -> "RUNNING".equals(p.state()))
+                .map(p -> p.kingdom() + " " + p.pagesDone() + "/" + p.totalPages()).toList();
+        String summary = "Crawling: " + finished + "/" + snapshot.size() + " categories finished";
+        if (!running.isEmpty()) {
+            summary += " (running: " + String.join(", ", running) + ")";
+        }
+        if (incremental) {
+            summary += ", pages fetched " + snapshot.stream().mapToInt(KingdomCrawlProgressDto::fetchedPages).sum()
+                    + ", unchanged " + snapshot.stream().mapToInt(KingdomCrawlProgressDto::unchangedPages).sum()
+                    + ", cached " + snapshot.stream().mapToInt(KingdomCrawlProgressDto::cachedPages).sum();
+        }
+        return summary;
+    }
+
+    private File resolveScript() {
+        URL scriptUrl = getClass().getClassLoader().getResource(CRAWLER_SCRIPT);
+        if (scriptUrl == null) {
+            throw new IllegalStateException("Script not found: " + CRAWLER_SCRIPT);
+        }
+        try {
+            return new File(scriptUrl.toURI());
+        } catch (URISyntaxException e) {
+            throw new IllegalStateException("Invalid script location: " + scriptUrl, e);
+        }
+    }
+}
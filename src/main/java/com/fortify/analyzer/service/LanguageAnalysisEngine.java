@@ -0,0 +1,400 @@
+package com.fortify.analyzer.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * 크롤링된 kingdom JSON 파일(json/*.json)을 언어별로 집계하는 분석 엔진입니다. (기존 scripts/languge.py 대체)
+ * <p>
+ * 각 kingdom 파일은 Jackson 스트리밍 파서로 읽으며, 문서 전체가 아니라 취약점 하나씩만 트리로 만들어 집계합니다.
+ * 변경된 파일은 fork/join 풀에서 파일 단위로 병렬 처리하고, 파일별 결과는 수정 시각/크기와 함께 기억해 두어
+ * 다음 실행 때 바뀌지 않은 kingdom 은 다시 읽지 않습니다. 어떤 파일도 바뀌지 않았으면 결과 파일을 다시 쓰지 않습니다.
+ * <p>
+ * 출력(summary_by_language.json / .xml, detail_by_language/detail_by_language.json)은 languge.py 와 바이트 단위로 같습니다.
+ * 파일 순서는 os.listdir 과 같은 디렉터리 순서를, 언어/kingdom 순서는 처음 나온 순서를 따릅니다.
+ */
+@Component
+public class LanguageAnalysisEngine {
+
+    private static final Logger logger = LoggerFactory.getLogger(LanguageAnalysisEngine.class);
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    // 상세 결과에서 취약점 객체가 놓이는 들여쓰기 깊이: {"by_language": {lang: [ v, ... ]}}
+    private static final int DETAIL_VULNERABILITY_DEPTH = 3;
+
+    /**
+     * 실행 결과 요약
+     * @param kingdomFiles 집계한 kingdom 파일 수
+     * @param reparsedFiles 이번 실행에서 새로 읽은 파일 수
+     * @param written 결과 파일을 다시 썼는지 여부 (변경이 없으면 false)
+     */
+    public record AnalysisRun(int kingdomFiles, int reparsedFiles, boolean written) {}
+
+    /**
+     * kingdom 파일 하나의 집계 결과
+     * @param kingdom 요약에 쓰는 kingdom 이름 (파일명에서 확장자를 뺀 값)
+     * @param hitLanguages 취약점-언어 쌍마다의 언어 이름 (출현 순서)
+     * @param hitVulnerabilities 같은 위치의 쌍이 가리키는 renderedVulnerabilities 인덱스
+     * @param renderedVulnerabilities 상세 결과용으로 미리 직렬화한 취약점 JSON
+     */
+    private record KingdomResult(String kingdom, List<String> hitLanguages, int[] hitVulnerabilities,
+                                 List<String> renderedVulnerabilities) {}
+
+    private record CachedKingdom(long lastModifiedMillis, long size, KingdomResult result) {}
+
+    private final ForkJoinPool pool;
+    private final Map<Path, CachedKingdom> cache = new ConcurrentHashMap<>();
+    // 마지막으로 결과를 쓸 때 사용한 파일 목록 (순서 포함)
+    private List<Path> lastWrittenFiles = List.of();
+
+    public LanguageAnalysisEngine(@Value("${analysis.parallelism:0}") int parallelism) {
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * baseDir/json 의 kingdom 파일을 집계하여 baseDir/analysis 에 결과를 씁니다.
+     * @param baseDir 크롤링 결과 기본 디렉터리 (crawler.results.path)
+     */
+    public synchronized AnalysisRun analyze(Path baseDir) throws IOException, InterruptedException {
+        Path jsonDir = baseDir.resolve("json");
+        Path outDir = baseDir.resolve("analysis");
+        Path detailDir = outDir.resolve("detail_by_language");
+        Files.createDirectories(outDir);
+        Files.createDirectories(detailDir);
+
+        if (!Files.isDirectory(jsonDir)) {
+            logger.warn("Analysis input directory not found at {}", jsonDir);
+            return new AnalysisRun(0, 0, false);
+        }
+
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(jsonDir)) {
+            for (Path entry : entries) {
+                if (entry.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".json") && Files.isRegularFile(entry)) {
+                    files.add(entry);
+                }
+            }
+        }
+
+        List<Path> changed = new ArrayList<>();
+        Map<Path, long[]> stats = new LinkedHashMap<>();
+        for (Path file : files) {
+            long lastModified = Files.getLastModifiedTime(file).toMillis();
+            long size = Files.size(file);
+            stats.put(file, new long[]{lastModified, size});
+            CachedKingdom cached = cache.get(file);
+            if (cached == null || cached.lastModifiedMillis() != lastModified || cached.size() != size) {
+                changed.add(file);
+            }
+        }
+        cache.keySet().retainAll(new HashSet<>(files));
+
+        parseChanged(changed, stats);
+
+        Path summaryJson = outDir.resolve("summary_by_language.json");
+        Path summaryXml = outDir.resolve("summary_by_language.xml");
+        Path detailJson = detailDir.resolve("detail_by_language.json");
+        boolean outputsExist = Files.exists(summaryJson) && Files.exists(summaryXml) && Files.exists(detailJson);
+        if (changed.isEmpty() && files.equals(lastWrittenFiles) && outputsExist) {
+            logger.info("Language analysis skipped: none of {} kingdom files changed", files.size());
+            return new AnalysisRun(files.size(), 0, false);
+        }
+
+        List<KingdomResult> results = new ArrayList<>(files.size());
+        for (Path file : files) {
+            results.add(cache.get(file).result());
+        }
+        writeAtomically(summaryJson, writer -> writer.write(renderSummaryJson(results)));
+        writeAtomically(summaryXml, writer -> writer.write(renderSummaryXml(results)));
+        writeAtomically(detailJson, writer -> writeDetailJson(results, writer));
+        lastWrittenFiles = List.copyOf(files);
+
+        logger.info("Language analysis complete: {} kingdom files ({} re-read), results written to {}",
+                files.size(), changed.size(), outDir);
+        return new AnalysisRun(files.size(), changed.size(), true);
+    }
+
+    private void parseChanged(List<Path> changed, Map<Path, long[]> stats) throws IOException, InterruptedException {
+        List<ForkJoinTask<KingdomResult>> tasks = new ArrayList<>(changed.size());
+        for (Path file : changed) {
+            tasks.add(pool.submit(() -> {
+                try {
+                    return parseKingdom(file);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }));
+        }
+        try {
+            for (int i = 0; i < changed.size(); i++) {
+                Path file = changed.get(i);
+                long[] stat = stats.get(file);
+                cache.put(file, new CachedKingdom(stat[0], stat[1], tasks.get(i).get()));
+            }
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause() instanceof UncheckedIOException unchecked ? unchecked.getCause() : e.getCause();
+            if (cause instanceof IOException io) {
+                throw io;
+            }
+            throw new IllegalStateException("Language analysis failed", cause);
+        } catch (InterruptedException e) {
+            tasks.forEach(task -> task.cancel(true));
+            throw e;
+        }
+    }
+
+    /**
+     * fortify_report.vulnerabilities.vulnerability 의 각 취약점을 읽어 languages.language 별로 집계합니다.
+     */
+    private KingdomResult parseKingdom(Path file) throws IOException {
+        String fileName = file.getFileName().toString();
+        int dot = fileName.lastIndexOf('.');
+        String kingdom = (dot >= 0 ? fileName.substring(0, dot) : fileName).replace(' ', '_');
+
+        List<String> hitLanguages = new ArrayList<>();
+        List<Integer> hitVulnerabilities = new ArrayList<>();
+        List<String> rendered = new ArrayList<>();
+
+        try (JsonParser parser = JSON_FACTORY.createParser(file.toFile())) {
+            if (parser.nextToken() == JsonToken.START_OBJECT
+                    && moveToField(parser, "fortify_report") && parser.nextToken() == JsonToken.START_OBJECT
+                    && moveToField(parser, "vulnerabilities") && parser.nextToken() == JsonToken.START_OBJECT
+                    && moveToField(parser, "vulnerability")) {
+                JsonToken token = parser.nextToken();
+                if (token == JsonToken.START_ARRAY) {
+                    while (parser.nextToken() != JsonToken.END_ARRAY) {
+                        collectVulnerability(readValue(parser), hitLanguages, hitVulnerabilities, rendered);
+                    }
+                } else {
+                    // 취약점이 하나뿐이면 배열이 아닌 단일 객체로 저장됩니다.
+                    collectVulnerability(readValue(parser), hitLanguages, hitVulnerabilities, rendered);
+                }
+            }
+        }
+
+        int[] hits = hitVulnerabilities.stream().mapToInt(Integer::intValue).toArray();
+        return new KingdomResult(kingdom, hitLanguages, hits, rendered);
+    }
+
+    private static void collectVulnerability(Object vulnerability, List<String> hitLanguages,
+                                             List<Integer> hitVulnerabilities, List<String> rendered) {
+        if (!(vulnerability instanceof Map<?, ?> fields)) {
+            return;
+        }
+        List<String> languages = new ArrayList<>();
+        if (fields.get("languages") instanceof Map<?, ?> languageField) {
+            Object language = languageField.get("language");
+            if (language instanceof String single) {
+                languages.add(single);
+            } else if (language instanceof List<?> list) {
+                list.stream().filter(String.class::isInstance).map(String.class::cast).forEach(languages::add);
+            }
+        }
+        if (languages.isEmpty()) {
+            return;
+        }
+
+        StringBuilder json = new StringBuilder();
+        PythonCompatibleJson.write(json, vulnerability, DETAIL_VULNERABILITY_DEPTH);
+        int index = rendered.size();
+        rendered.add(json.toString());
+        for (String language : languages) {
+            hitLanguages.add(language.replace('/', '_').replace(' ', '_'));
+            hitVulnerabilities.add(index);
+        }
+    }
+
+    /**
+     * 현재 객체 안에서 이름이 fieldName 인 필드까지 이동합니다. 다른 필드의 값은 건너뜁니다.
+     * @return 필드를 찾았으면 true (파서는 필드 이름 위치)
+     */
+    private static boolean moveToField(JsonParser parser, String fieldName) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            if (fieldName.equals(parser.currentName())) {
+                return true;
+            }
+            parser.nextToken();
+            parser.skipChildren();
+        }
+        return false;
+    }
+
+    /**
+     * 현재 토큰에서 시작하는 값을 Map(삽입 순서)/List/String/Number/Boolean/null 로 읽습니다.
+     */
+    private static Object readValue(JsonParser parser) throws IOException {
+        JsonToken token = parser.currentToken();
+        switch (token) {
+            case START_OBJECT -> {
+                Map<String, Object> map = new LinkedHashMap<>();
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String name = parser.currentName();
+                    parser.nextToken();
+                    // Python dict 와 같이 중복 키는 처음 위치에 마지막 값이 남습니다.
+                    map.put(name, readValue(parser));
+                }
+                return map;
+            }
+            case START_ARRAY -> {
+                List<Object> list = new ArrayList<>();
+                while (parser.nextToken() != JsonToken.END_ARRAY) {
+                    list.add(readValue(parser));
+                }
+                return list;
+            }
+            case VALUE_STRING -> {
+                return parser.getText();
+            }
+            case VALUE_NUMBER_INT -> {
+                return parser.getBigIntegerValue();
+            }
+            case VALUE_NUMBER_FLOAT -> {
+                return parser.getDoubleValue();
+            }
+            case VALUE_TRUE -> {
+                return Boolean.TRUE;
+            }
+            case VALUE_FALSE -> {
+                return Boolean.FALSE;
+            }
+            default -> {
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Key: 언어, Value: (Key: kingdom, Value: 취약점 수). 처음 나온 순서를 유지합니다.
+     */
+    private static Map<String, Map<String, Integer>> countByLanguage(List<KingdomResult> results) {
+        Map<String, Map<String, Integer>> byLanguage = new LinkedHashMap<>();
+        for (KingdomResult result : results) {
+            for (String language : result.hitLanguages()) {
+                byLanguage.computeIfAbsent(language, key -> new LinkedHashMap<>()).merge(result.kingdom(), 1, Integer::sum);
+            }
+        }
+        return byLanguage;
+    }
+
+    private static String renderSummaryJson(List<KingdomResult> results) {
+        Map<String, Object> root = new LinkedHashMap<>();
+        root.put("by_language", countByLanguage(results));
+        StringBuilder out = new StringBuilder();
+        PythonCompatibleJson.write(out, root, 0);
+        return out.toString();
+    }
+
+    /**
+     * xml.dom.minidom 의 toprettyxml(indent="  ") 과 같은 형식으로 요약 XML 을 만듭니다.
+     */
+    private static String renderSummaryXml(List<KingdomResult> results) {
+        Map<String, Map<String, Integer>> byLanguage = countByLanguage(results);
+        StringBuilder out = new StringBuilder("<?xml version=\"1.0\" ?>\n<analysis>\n");
+        if (byLanguage.isEmpty()) {
+            out.append("  <by_language/>\n");
+        } else {
+            out.append("  <by_language>\n");
+            byLanguage.forEach((language, kingdoms) -> {
+                out.append("    <language name=\"").append(escapeXml(language)).append("\">\n");
+                kingdoms.forEach((kingdom, count) -> out.append("      <kingdom name=\"").append(escapeXml(kingdom)).append("\">")
+                        .append(count).append("</kingdom>\n"));
+                out.append("    </language>\n");
+            });
+            out.append("  </by_language>\n");
+        }
+        out.append("</analysis>\n");
+        return out.toString();
+    }
+
+    // minidom 의 _write_data 와 같은 이스케이프
+    private static String escapeXml(String text) {
+        return text.replace("&", "&amp;").replace("<", "&lt;").replace("\"", "&quot;").replace(">", "&gt;");
+    }
+
+    /**
+     * 미리 직렬화해 둔 취약점 JSON 을 이어 붙여 상세 결과를 씁니다. (전체 트리를 다시 만들지 않음)
+     */
+    private static void writeDetailJson(List<KingdomResult> results, Writer writer) throws IOException {
+        Map<String, List<String>> detailByLanguage = new LinkedHashMap<>();
+        for (KingdomResult result : results) {
+            for (int i = 0; i < result.hitLanguages().size(); i++) {
+                detailByLanguage.computeIfAbsent(result.hitLanguages().get(i), key -> new ArrayList<>())
+                        .add(result.renderedVulnerabilities().get(result.hitVulnerabilities()[i]));
+            }
+        }
+
+        if (detailByLanguage.isEmpty()) {
+            writer.write("{\n  \"by_language\": {}\n}");
+            return;
+        }
+        writer.write("{\n  \"by_language\": {");
+        boolean firstLanguage = true;
+        for (Map.Entry<String, List<String>> entry : detailByLanguage.entrySet()) {
+            StringBuilder key = new StringBuilder(firstLanguage ? "\n    " : ",\n    ");
+            PythonCompatibleJson.quote(key, entry.getKey());
+            writer.write(key.append(": [").toString());
+            boolean firstVulnerability = true;
+            for (String vulnerability : entry.getValue()) {
+                writer.write(firstVulnerability ? "\n      " : ",\n      ");
+                writer.write(vulnerability);
+                firstVulnerability = false;
+            }
+            writer.write("\n    ]");
+            firstLanguage = false;
+        }
+        writer.write("\n  }\n}");
+    }
+
+    @FunctionalInterface
+    private interface WriterCallback {
+        void write(Writer writer) throws IOException;
+    }
+
+    /**
+     * 같은 디렉터리의 임시 파일에 쓴 뒤 교체하여, 읽는 쪽이 쓰다 만 파일을 보지 않도록 합니다.
+     */
+    private static void writeAtomically(Path target, WriterCallback callback) throws IOException {
+        Path temp = Files.createTempFile(target.getParent(), "." + target.getFileName(), ".tmp");
+        try {
+            try (BufferedWriter writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                callback.write(writer);
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package com.fortify.analyzer.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 감사 로그(logs) 보관 작업입니다. {@code audit.log.retention.cron} 일정으로 실행합니다.
+ * <ol>
+ *     <li>이전 방식으로 로그마다 저장된 스택 트레이스를 {@link LogTracebackStore} 로 옮깁니다. (압축/중복 제거)</li>
+ *     <li>보관 기간({@code audit.log.retention.period})이 지난 로그를 삭제합니다.
+ *     {@code audit.log.retention.mode=rollup} 이면 삭제 전에 일별/상태별 건수를 log_daily_counts 에 더합니다.</li>
+ *     <li>어떤 로그도 참조하지 않는 스택 트레이스를 삭제합니다.</li>
+ * </ol>
+ * 모든 단계는 최대 {@code audit.log.retention.batch-size} 행씩 짧은 트랜잭션으로 나누어 처리하고 배치 사이에 잠시 쉬므로,
+ * 테이블을 오래 잠그지 않고 로그 기록과 함께 실행할 수 있습니다.
+ */
+@Service
+public class LogRetentionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(LogRetentionService.class);
+
+    private static final String SELECT_INLINE_TRACEBACKS_SQL =
+            "SELECT id, traceback FROM logs WHERE id > ? AND traceback IS NOT NULL ORDER BY id LIMIT ?";
+    private static final String MOVE_TRACEBACK_SQL = "UPDATE logs SET traceback_hash = ?, traceback = NULL WHERE id = ?";
+    // idx_logs_timestamp_id 인덱스를 오래된 순으로 읽습니다.
+    private static final String SELECT_EXPIRED_SQL =
+            "SELECT id, timestamp, status FROM logs WHERE timestamp < ? ORDER BY timestamp, id LIMIT ?";
+    private static final String ADD_DAILY_COUNT_SQL =
+            "UPDATE log_daily_counts SET entry_count = entry_count + ? WHERE log_date = ? AND status = ?";
+    private static final String INSERT_DAILY_COUNT_SQL =
+            "INSERT INTO log_daily_counts (log_date, status, entry_count) VALUES (?, ?, ?)";
+
+    /**
+     * 보관 작업 결과
+     * @param compactedLogs 스택 트레이스를 log_tracebacks 로 옮긴 로그 수
+     * @param deletedLogs 보관 기간이 지나 삭제한 로그 수
+     * @param deletedTracebacks 삭제한 (참조되지 않는) 스택 트레이스 수
+     */
+    public record RetentionResult(int compactedLogs, int deletedLogs, int deletedTracebacks) {}
+
+    private record ExpiredLog(long id, LocalDate date, String status) {}
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final LogTracebackStore tracebackStore;
+    private final LogService logService;
+    private final Duration period;
+    private final boolean rollup;
+    private final int batchSize;
+    private final long batchPauseMillis;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public LogRetentionService(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                               LogTracebackStore tracebackStore, LogService logService,
+                               @Value("${audit.log.retention.period:90d}") Duration period,
+                               @Value("${audit.log.retention.mode:delete}") String mode,
+                               @Value("${audit.log.retention.batch-size:1000}") int batchSize,
+                               @Value("${audit.log.retention.batch-pause:100ms}") Duration batchPause) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.tracebackStore = tracebackStore;
+        this.logService = logService;
+        this.period = period;
+        this.rollup = "rollup".equals(mode.trim().toLowerCase(Locale.ROOT));
+        this.batchSize = Math.max(1, batchSize);
+        this.batchPauseMillis = Math.max(0, batchPause.toMillis());
+    }
+
+    @Scheduled(cron = "${audit.log.retention.cron:0 30 3 * * *}")
+    public void runScheduled() {
+        try {
+            run();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            logger.error("Log retention failed", e);
+        }
+    }
+
+    /**
+     * 보관 작업을 한 번 실행합니다. 이미 실행 중이면 아무것도 하지 않습니다.
+     */
+    public RetentionResult run() throws InterruptedException {
+        if (!running.compareAndSet(false, true)) {
+            logger.info("Log retention is already running.");
+            return new RetentionResult(0, 0, 0);
+        }
+        try {
+            LocalDateTime cutoff = LocalDateTime.now().minus(period);
+            int compacted = compactInlineTracebacks();
+            int deleted = deleteExpiredLogs(cutoff);
+            int deletedTracebacks = 0;
+            int removed;
+            do {
+                removed = transactionTemplate.execute(status -> tracebackStore.deleteOrphans(cutoff, batchSize));
+                deletedTracebacks += removed;
+                pause(removed);
+            } while (removed == batchSize);
+
+            RetentionResult result = new RetentionResult(compacted, deleted, deletedTracebacks);
+            if (compacted + deleted + deletedTracebacks > 0) {
+                logService.log("System", String.format("로그 보관 작업: %d건 삭제%s, 스택 트레이스 %d건 압축 이동, %d건 삭제 (보관 기간 %d일)",
+                        deleted, rollup ? "(일별 집계 보존)" : "", compacted, deletedTracebacks, period.toDays()));
+            }
+            logger.info("Log retention finished: {}", result);
+            return result;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private int compactInlineTracebacks() throws InterruptedException {
+        int total = 0;
+        long lastId = 0;
+        while (true) {
+            long afterId = lastId;
+            Map<Long, String> batch = new LinkedHashMap<>();
+            jdbcTemplate.query(SELECT_INLINE_TRACEBACKS_SQL,
+                    rs -> { batch.put(rs.getLong("id"), rs.getString("traceback")); },
+                    afterId, batchSize);
+            if (batch.isEmpty()) {
+                return total;
+            }
+            transactionTemplate.executeWithoutResult(status -> {
+                Map<String, String> hashes = tracebackStore.store(batch.values());
+                List<Object[]> rows = new ArrayList<>(batch.size());
+                batch.forEach((id, traceback) -> rows.add(new Object[]{hashes.get(traceback), id}));
+                jdbcTemplate.batchUpdate(MOVE_TRACEBACK_SQL, rows);
+            });
+            total += batch.size();
+            lastId = batch.keySet().stream().mapToLong(Long::longValue).max().orElse(lastId);
+            pause(batch.size());
+        }
+    }
+
+    private int deleteExpiredLogs(LocalDateTime cutoff) throws InterruptedException {
+        int total = 0;
+        while (true) {
+            List<ExpiredLog> batch = jdbcTemplate.query(SELECT_EXPIRED_SQL,
+                    (rs, rowNum) -> new ExpiredLog(rs.getLong("id"), rs.getTimestamp("timestamp").toLocalDateTime().toLocalDate(),
+                            rs.getString("status")),
+                    Timestamp.valueOf(cutoff), batchSize);
+            if (batch.isEmpty()) {
+                return total;
+            }
+            transactionTemplate.executeWithoutResult(status -> {
+                if (rollup) {
+                    addDailyCounts(batch);
+                }
+                jdbcTemplate.update("DELETE FROM logs WHERE id IN (" + LogTracebackStore.placeholders(batch.size()) + ")",
+                        batch.stream().map(ExpiredLog::id).toArray());
+            });
+            total += batch.size();
+            if (batch.size() < batchSize) {
+                return total;
+            }
+            pause(batch.size());
+        }
+    }
+
+    private void addDailyCounts(List<ExpiredLog> batch) {
+        Map<LocalDate, Map<String, Long>> counts = new LinkedHashMap<>();
+        for (ExpiredLog log : batch) {
+            counts.computeIfAbsent(log.date(), date -> new LinkedHashMap<>()).merge(log.status(), 1L, Long::sum);
+        }
+        counts.forEach((date, byStatus) -> byStatus.forEach((status, count) -> {
+            Date day = Date.valueOf(date);
+            if (jdbcTemplate.update(ADD_DAILY_COUNT_SQL, count, day, status) == 0) {
+                jdbcTemplate.update(INSERT_DAILY_COUNT_SQL, day, status, count);
+            }
+        }));
+    }
+
+    private void pause(int processed) throws InterruptedException {
+        if (processed > 0 && batchPauseMillis > 0) {
+            Thread.sleep(batchPauseMillis);
+        }
+    }
+}
@@ -1,32 +1,155 @@
 // src/main/java/com/fortify/analyzer/service/LogService.java
 package com.fortify.analyzer.service;
 
-import com.fortify.analyzer.entity.Log;
+import com.fortify.analyzer.dto.LogPageDto;
+import com.fortify.analyzer.dto.LogSummaryDto;
 import com.fortify.analyzer.repository.LogRepository;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.io.PrintWriter;
 import java.io.StringWriter;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * 감사 로그(logs 테이블)를 기록하는 서비스입니다.
+ * <p>
+ * 호출한 스레드는 고정 크기 링 버퍼({@code audit.log.capacity})에 로그를 넣고 바로 돌아가며,
+ * 별도의 기록 스레드가 버퍼에서 최대 {@code audit.log.batch-size} 건씩 꺼내 여러 행을 INSERT 한 번으로 저장합니다.
+ * 버퍼가 가득 찼을 때의 동작은 {@code audit.log.overflow} 로 정합니다. ({@link OverflowPolicy})
+ * 종료 시에는 버퍼에 남은 로그를 모두 저장한 뒤 멈춥니다.
+ * <p>
+ * 로그는 호출 시점의 시각으로 저장되지만, 저장은 잠시 늦게 일어나므로 바로 조회해야 하면 {@link #flush()} 를 호출합니다.
+ * <p>
+ * 스택 트레이스는 {@link LogTracebackStore} 에 내용별로 한 번만 저장하고 로그에는 지문만 남깁니다.
+ * 로그 목록은 (timestamp, id) 키셋으로 한 페이지씩 최신순 조회하며, 스택 트레이스는 상세 보기 요청 시에만 읽습니다.
+ */
 @Service
-@RequiredArgsConstructor
-public class LogService {
+public class LogService implements MeterBinder {
 
+    private static final Logger logger = LoggerFactory.getLogger(LogService.class);
+
+    // Log 엔티티의 컬럼 길이
+    private static final int STATUS_MAX_LENGTH = 50;
+    private static final int MESSAGE_MAX_LENGTH = 1024;
+    private static final String INSERT_PREFIX = "INSERT INTO logs (status, message, timestamp, traceback_hash) VALUES ";
+    private static final String ROW_PLACEHOLDER = "(?, ?, ?, ?)";
+    // 버린 로그 수를 경고로 남기는 최소 간격
+    private static final long DROP_WARNING_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(10);
+    // 로그 목록 조회 범위의 기본값 (필터가 없을 때)
+    private static final LocalDateTime MIN_TIMESTAMP = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final LocalDateTime MAX_TIMESTAMP = LocalDateTime.of(9999, 12, 31, 0, 0);
+
+    /**
+     * 버퍼가 가득 찼을 때의 동작
+     */
+    public enum OverflowPolicy {
+        /** 자리가 날 때까지 최대 {@code audit.log.offer-timeout} 동안 기다린 뒤, 그래도 가득 차 있으면 새 로그를 버림 */
+        BLOCK,
+        /** 가장 오래된 로그를 버리고 새 로그를 넣음 */
+        DROP_OLDEST,
+        /** 새 로그를 버림 */
+        DROP_NEWEST,
+        /** 호출한 스레드에서 바로 저장 (버퍼를 거치지 않음) */
+        CALLER_RUNS
+    }
+
+    private record PendingLog(String status, String message, LocalDateTime timestamp, String traceback) {}
+
+    private final JdbcTemplate jdbcTemplate;
     private final LogRepository logRepository;
+    private final LogTracebackStore tracebackStore;
+    private final boolean async;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final long offerTimeoutNanos;
+    private final long shutdownTimeoutMillis;
+    private final OverflowPolicy overflowPolicy;
+    private final BlockingQueue<PendingLog> buffer;
+
+    // 버퍼에 들어간 로그 수와 처리(저장/실패/버림)를 마친 로그 수. flush() 가 기다릴 기준입니다.
+    private final AtomicLong accepted = new AtomicLong();
+    private final AtomicLong processed = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final Object progressMonitor = new Object();
+    private long reportedDrops;
+    private long lastDropWarningNanos;
+
+    private volatile Thread writer;
+    private volatile boolean closed;
+
+    public LogService(JdbcTemplate jdbcTemplate, LogRepository logRepository, LogTracebackStore tracebackStore,
+                      @Value("${audit.log.async:true}") boolean async,
+                      @Value("${audit.log.capacity:8192}") int capacity,
+                      @Value("${audit.log.batch-size:500}") int batchSize,
+                      @Value("${audit.log.flush-interval:200ms}") Duration flushInterval,
+                      @Value("${audit.log.overflow:BLOCK}") String overflowPolicy,
+                      @Value("${audit.log.offer-timeout:100ms}") Duration offerTimeout,
+                      @Value("${audit.log.shutdown-timeout:10s}") Duration shutdownTimeout) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.logRepository = logRepository;
+        this.tracebackStore = tracebackStore;
+        this.async = async;
+        this.batchSize = Math.max(1, batchSize);
+        this.flushIntervalNanos = Math.max(1, flushInterval.toNanos());
+        this.offerTimeoutNanos = Math.max(0, offerTimeout.toNanos());
+        this.shutdownTimeoutMillis = Math.max(0, shutdownTimeout.toMillis());
+        this.overflowPolicy = OverflowPolicy.valueOf(overflowPolicy.trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+        this.buffer = new ArrayBlockingQueue<>(Math.max(1, capacity));
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("fortify.audit.log.queue.size", buffer, BlockingQueue::size)
+                .description("저장을 기다리는 감사 로그 수")
+                .register(registry);
+        FunctionCounter.builder("fortify.audit.log.dropped", dropped, AtomicLong::get)
+                .description("버퍼가 가득 차 버린 감사 로그 수")
+                .register(registry);
+    }
+
+    @PostConstruct
+    public synchronized void start() {
+        if (!async || writer != null) {
+            return;
+        }
+        writer = new Thread(this::runWriter, "audit-log-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
 
     /**
      * 일반 정보 로그를 기록합니다.
      * @param status 로그의 상태/카테고리 (e.g., "Upload", "Analyzer")
      * @param message 로그 메시지
      */
-    @Transactional
     public void log(String status, String message) {
-        Log logEntry = new Log();
-        logEntry.setStatus(status);
-        logEntry.setMessage(message);
-        logRepository.save(logEntry);
+        enqueue(new PendingLog(status, message, LocalDateTime.now(), null));
     }
 
     /**
@@ -35,17 +158,256 @@ public class LogService {
      * @param message 에러 메시지
      * @param ex 발생한 예외 객체
      */
-    @Transactional
     public void logError(String status, String message, Throwable ex) {
-        Log logEntry = new Log();
-        logEntry.setStatus(status);
-        logEntry.setMessage(message);
-
         // 예외의 전체 스택 트레이스를 문자열로 변환하여 저장합니다.
         StringWriter sw = new StringWriter();
         ex.printStackTrace(new PrintWriter(sw));
-        logEntry.setTraceback(sw.toString());
-        
-        logRepository.save(logEntry);
+        enqueue(new PendingLog(status, message, LocalDateTime.now(), sw.toString()));
+    }
+
+    /**
+     * 로그 목록의 한 페이지를 최신순으로 조회합니다. (스택 트레이스 제외)
+     * @param status 상태 필터 (null 또는 빈 문자열이면 전체)
+     * @param from 이 시각 이후의 로그만 (포함, null 이면 제한 없음)
+     * @param to 이 시각 이전의 로그만 (제외, null 이면 제한 없음)
+     * @param cursor 이전 페이지의 nextCursor (첫 페이지는 null)
+     * @throws IllegalArgumentException cursor 형식이 잘못된 경우
+     */
+    @Transactional(readOnly = true)
+    public LogPageDto getLogPage(String status, LocalDateTime from, LocalDateTime to, String cursor, int limit) {
+        LocalDateTime cursorTime = MAX_TIMESTAMP;
+        long cursorId = Long.MAX_VALUE;
+        if (cursor != null && !cursor.isBlank()) {
+            int separator = cursor.lastIndexOf(',');
+            try {
+                cursorTime = LocalDateTime.parse(cursor.substring(0, Math.max(separator, 0)));
+                cursorId = Long.parseLong(cursor.substring(separator + 1));
+            } catch (DateTimeParseException | NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid log cursor: " + cursor, e);
+            }
+        }
+        LocalDateTime lower = from != null ? from : MIN_TIMESTAMP;
+        LocalDateTime upper = to != null ? to : MAX_TIMESTAMP;
+        // 다음 페이지가 있는지 알기 위해 한 건 더 조회합니다.
+        PageRequest pageRequest = PageRequest.of(0, limit + 1);
+        List<LogSummaryDto> rows = status == null || status.isBlank()
+                ? logRepository.findPage(lower, upper, cursorTime, cursorId, pageRequest)
+                : logRepository.findPageByStatus(status, lower, upper, cursorTime, cursorId, pageRequest);
+        if (rows.size() <= limit) {
+            return new LogPageDto(rows, null);
+        }
+        List<LogSummaryDto> items = rows.subList(0, limit);
+        LogSummaryDto last = items.get(items.size() - 1);
+        return new LogPageDto(items, last.timestamp() + "," + last.id());
+    }
+
+    /**
+     * 로그 한 건의 스택 트레이스를 조회합니다.
+     */
+    @Transactional(readOnly = true)
+    public Optional<String> getTraceback(Long id) {
+        return logRepository.findTracebackById(id).flatMap(view -> view.getTraceback() != null
+                ? Optional.of(view.getTraceback())
+                : Optional.ofNullable(view.getTracebackHash()).flatMap(tracebackStore::load));
+    }
+
+    @Transactional(readOnly = true)
+    public List<String> getStatuses() {
+        return logRepository.findDistinctStatuses();
+    }
+
+    /**
+     * 이 메서드를 호출하기 전에 기록한 로그가 모두 처리될 때까지 기다립니다.
+     * @return 제한 시간 안에 모두 처리되었으면 true
+     */
+    public boolean flush(Duration timeout) throws InterruptedException {
+        long target = accepted.get();
+        long deadline = System.nanoTime() + timeout.toNanos();
+        synchronized (progressMonitor) {
+            while (processed.get() < target) {
+                long remainingMillis = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                if (remainingMillis <= 0 || writer == null || !writer.isAlive()) {
+                    return processed.get() >= target;
+                }
+                progressMonitor.wait(Math.min(remainingMillis, 50));
+            }
+        }
+        return true;
+    }
+
+    public boolean flush() throws InterruptedException {
+        return flush(Duration.ofMillis(Math.max(shutdownTimeoutMillis, 1000)));
+    }
+
+    /**
+     * 버퍼가 가득 차서 버린 로그 수
+     */
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    /**
+     * 기록 스레드를 멈추기 전에 버퍼에 남은 로그를 모두 저장합니다. 이후의 로그는 호출한 스레드에서 바로 저장합니다.
+     */
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        Thread current;
+        synchronized (this) {
+            closed = true;
+            current = writer;
+        }
+        if (current == null) {
+            return;
+        }
+        // 기록 스레드는 버퍼가 빈 것을 확인하면 스스로 멈춥니다.
+        current.join(shutdownTimeoutMillis);
+        if (current.isAlive()) {
+            logger.warn("Audit log writer did not finish within {} ms; {} entries may be lost.", shutdownTimeoutMillis, buffer.size());
+            return;
+        }
+        // 기록 스레드가 멈춘 직후 버퍼에 들어온 로그
+        List<PendingLog> remaining = new ArrayList<>();
+        buffer.drainTo(remaining);
+        if (!remaining.isEmpty()) {
+            write(remaining);
+            markProcessed(remaining.size());
+        }
+    }
+
+    private void enqueue(PendingLog entry) {
+        if (!async || closed || writer == null) {
+            write(List.of(entry));
+            return;
+        }
+        boolean queued = switch (overflowPolicy) {
+            case BLOCK -> offerWithTimeout(entry);
+            case DROP_OLDEST -> {
+                while (!buffer.offer(entry)) {
+                    if (buffer.poll() != null) {
+                        markProcessed(1);
+                        recordDrop();
+                    }
+                }
+                yield true;
+            }
+            case DROP_NEWEST -> buffer.offer(entry);
+            case CALLER_RUNS -> {
+                if (buffer.offer(entry)) {
+                    yield true;
+                }
+                write(List.of(entry));
+                yield false;
+            }
+        };
+        if (queued) {
+            accepted.incrementAndGet();
+        } else if (overflowPolicy != OverflowPolicy.CALLER_RUNS) {
+            recordDrop();
+        }
+    }
+
+    private boolean offerWithTimeout(PendingLog entry) {
+        try {
+            return buffer.offer(entry, offerTimeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return buffer.offer(entry);
+        }
+    }
+
+    private void runWriter() {
+        List<PendingLog> batch = new ArrayList<>(batchSize);
+        while (true) {
+            try {
+                PendingLog first = buffer.poll(flushIntervalNanos, TimeUnit.NANOSECONDS);
+                if (first == null) {
+                    if (closed && buffer.isEmpty()) {
+                        break;
+                    }
+                    continue;
+                }
+                batch.add(first);
+                buffer.drainTo(batch, batchSize - 1);
+                write(batch);
+                markProcessed(batch.size());
+                batch.clear();
+                reportDrops();
+            } catch (InterruptedException e) {
+                // 종료 요청은 closed 로만 받습니다. 남은 로그를 저장해야 하므로 계속 진행합니다.
+            } catch (RuntimeException e) {
+                logger.error("Audit log writer failed to persist {} entries.", batch.size(), e);
+                markProcessed(batch.size());
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * 여러 행을 INSERT 한 번으로 저장합니다. 실패하면 문제가 된 행만 버리도록 한 건씩 다시 저장합니다.
+     */
+    private void write(List<PendingLog> entries) {
+        try {
+            insert(entries);
+        } catch (DataAccessException e) {
+            if (entries.size() == 1) {
+                logger.error("Could not persist audit log [{}] {}", entries.get(0).status(), entries.get(0).message(), e);
+                return;
+            }
+            logger.warn("Batched audit log insert of {} rows failed; retrying row by row.", entries.size(), e);
+            for (PendingLog entry : entries) {
+                write(List.of(entry));
+            }
+        }
+    }
+
+    private void insert(List<PendingLog> entries) {
+        List<String> tracebacks = entries.stream().map(PendingLog::traceback).filter(Objects::nonNull).toList();
+        Map<String, String> tracebackHashes = tracebacks.isEmpty() ? Map.of() : tracebackStore.store(tracebacks);
+        StringBuilder sql = new StringBuilder(INSERT_PREFIX.length() + entries.size() * (ROW_PLACEHOLDER.length() + 2))
+                .append(INSERT_PREFIX);
+        Object[] args = new Object[entries.size() * 4];
+        int i = 0;
+        for (PendingLog entry : entries) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append(ROW_PLACEHOLDER);
+            args[i++] = truncate(entry.status(), STATUS_MAX_LENGTH);
+            args[i++] = truncate(entry.message(), MESSAGE_MAX_LENGTH);
+            args[i++] = Timestamp.valueOf(entry.timestamp());
+            args[i++] = entry.traceback() == null ? null : tracebackHashes.get(entry.traceback());
+        }
+        jdbcTemplate.update(sql.toString(), args);
+    }
+
+    private static String truncate(String value, int maxLength) {
+        if (value == null) {
+            return "";
+        }
+        return value.length() > maxLength ? value.substring(0, maxLength) : value;
+    }
+
+    private void markProcessed(int count) {
+        processed.addAndGet(count);
+        synchronized (progressMonitor) {
+            progressMonitor.notifyAll();
+        }
+    }
+
+    private void recordDrop() {
+        dropped.incrementAndGet();
+    }
+
+    /**
+     * 버린 로그가 있으면 일정 간격으로 한 번씩 경고를 남깁니다. (로그마다 남기면 경고가 또 다른 병목이 됨)
+     */
+    private synchronized void reportDrops() {
+        long total = dropped.get();
+        long now = System.nanoTime();
+        if (total > reportedDrops && now - lastDropWarningNanos >= DROP_WARNING_INTERVAL_NANOS) {
+            logger.warn("Audit log buffer full ({} policy): dropped {} entries ({} in total).", overflowPolicy, total - reportedDrops, total);
+            reportedDrops = total;
+            lastDropWarningNanos = now;
+        }
     }
-}
\ No newline at end of file
+}
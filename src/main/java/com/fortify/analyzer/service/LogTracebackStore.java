@@ -0,0 +1,170 @@
+package com.fortify.analyzer.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 로그의 스택 트레이스를 내용별로 한 번만 저장하는 저장소입니다. (log_tracebacks 테이블)
+ * <p>
+ * 스택 트레이스는 UTF-8 내용의 SHA-256 지문으로 식별하며, {@code audit.log.traceback.compression=gzip} 이면 압축해서 저장합니다.
+ * 같은 오류가 반복되면 로그 행에는 지문만 저장되므로 스택 트레이스 크기와 무관하게 로그 한 건의 크기가 일정합니다.
+ * <p>
+ * 이미 있는 스택 트레이스를 다시 사용할 때는 created_at 을 현재 시각으로 갱신하고, 참조되지 않는 스택 트레이스는
+ * 삭제하는 순간에 created_at 과 참조 여부를 다시 확인합니다. 따라서 보관 작업이 고른 삭제 대상을 로그 기록이
+ * 먼저 다시 사용했다면 삭제되지 않고, 먼저 삭제되었다면 갱신된 행이 없으므로 로그 기록 쪽에서 다시 저장합니다.
+ */
+@Component
+public class LogTracebackStore {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO log_tracebacks (hash, content, compressed, original_length, created_at) VALUES (?, ?, ?, ?, ?)";
+    private static final String SELECT_CONTENT_SQL = "SELECT content, compressed FROM log_tracebacks WHERE hash = ?";
+    // 어떤 로그도 참조하지 않는 스택 트레이스 (idx_logs_traceback_hash 인덱스 사용)
+    private static final String ORPHAN_CONDITION = "created_at < ? " +
+            "AND NOT EXISTS (SELECT 1 FROM logs l WHERE l.traceback_hash = log_tracebacks.hash)";
+    private static final String SELECT_ORPHANS_SQL = "SELECT hash FROM log_tracebacks WHERE " + ORPHAN_CONDITION + " LIMIT ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean compress;
+
+    public LogTracebackStore(JdbcTemplate jdbcTemplate,
+                             @Value("${audit.log.traceback.compression:gzip}") String compression) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.compress = "gzip".equals(compression.trim().toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * 스택 트레이스들을 저장하고 (이미 있으면 created_at 만 갱신) 지문을 반환합니다.
+     * 반환된 지문은 이 호출이 끝난 시점에 log_tracebacks 에 있으며, 보관 기간이 지나기 전에는 삭제되지 않습니다.
+     * @return Key: 스택 트레이스, Value: 지문
+     */
+    public Map<String, String> store(Collection<String> tracebacks) {
+        Map<String, String> hashes = new LinkedHashMap<>();
+        for (String traceback : tracebacks) {
+            hashes.computeIfAbsent(traceback, LogTracebackStore::sha256);
+        }
+        if (hashes.isEmpty()) {
+            return hashes;
+        }
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object> touchArgs = new ArrayList<>(hashes.size() + 1);
+        touchArgs.add(now);
+        touchArgs.addAll(hashes.values());
+        int touched = jdbcTemplate.update("UPDATE log_tracebacks SET created_at = ? WHERE hash IN ("
+                + placeholders(hashes.size()) + ")", touchArgs.toArray());
+        if (touched == hashes.size()) {
+            return hashes;
+        }
+
+        Set<String> existing = new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT hash FROM log_tracebacks WHERE hash IN (" + placeholders(hashes.size()) + ")",
+                String.class, hashes.values().toArray()));
+        List<Object[]> rows = new ArrayList<>();
+        for (Map.Entry<String, String> entry : hashes.entrySet()) {
+            if (!existing.contains(entry.getValue())) {
+                byte[] raw = entry.getKey().getBytes(StandardCharsets.UTF_8);
+                rows.add(new Object[]{entry.getValue(), compress ? gzip(raw) : raw, compress, raw.length, now});
+            }
+        }
+        if (!rows.isEmpty()) {
+            try {
+                jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+            } catch (DuplicateKeyException e) {
+                // 다른 스레드가 같은 스택 트레이스를 먼저 저장한 경우: 한 건씩 다시 저장하고 중복은 무시합니다.
+                for (Object[] row : rows) {
+                    try {
+                        jdbcTemplate.update(INSERT_SQL, row);
+                    } catch (DuplicateKeyException ignored) {
+                        // 이미 저장됨
+                    }
+                }
+            }
+        }
+        return hashes;
+    }
+
+    public Optional<String> load(String hash) {
+        return jdbcTemplate.query(SELECT_CONTENT_SQL, rs -> {
+            if (!rs.next()) {
+                return Optional.empty();
+            }
+            byte[] content = rs.getBytes("content");
+            byte[] raw = rs.getBoolean("compressed") ? gunzip(content) : content;
+            return Optional.of(new String(raw, StandardCharsets.UTF_8));
+        }, hash);
+    }
+
+    /**
+     * createdBefore 이전에 저장(또는 마지막으로 사용)되었고 어떤 로그도 참조하지 않는 스택 트레이스를 최대 limit 건 삭제합니다.
+     * 고른 뒤 그 사이에 다시 사용된 스택 트레이스는 삭제하지 않습니다.
+     * @return 삭제한 건수
+     */
+    public int deleteOrphans(LocalDateTime createdBefore, int limit) {
+        Timestamp cutoff = Timestamp.valueOf(createdBefore);
+        List<String> orphans = jdbcTemplate.queryForList(SELECT_ORPHANS_SQL, String.class, cutoff, limit);
+        if (orphans.isEmpty()) {
+            return 0;
+        }
+        List<Object> args = new ArrayList<>(orphans);
+        args.add(cutoff);
+        return jdbcTemplate.update("DELETE FROM log_tracebacks WHERE hash IN (" + placeholders(orphans.size()) + ") AND "
+                + ORPHAN_CONDITION, args.toArray());
+    }
+
+    static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+
+    static String sha256(String text) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(text.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static byte[] gzip(byte[] raw) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, raw.length / 4));
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(raw);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] gunzip(byte[] compressed) {
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            return gzip.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package com.fortify.analyzer.service;
+
+import com.fortify.analyzer.dto.RuleDiffEntry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.xml.stream.XMLStreamException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 두 externalmetadata.xml 의 매핑을 정렬-병합(sorted merge) 방식으로 비교하는 엔진입니다.
+ * <p>
+ * 각 파일을 {@link ExternalMetadataReader} 로 스트리밍하면서 (규칙 ID, 외부 표준) 레코드만 뽑아
+ * {@link ExternalMappingSorter} 로 정렬합니다(버퍼를 넘으면 디스크로 내려씀). 그런 다음 두 정렬된 스트림을
+ * 규칙 ID 단위로 나란히 읽으며 공통/변경/원본에만/새로운 쪽에만 있는 규칙으로 분류하여 {@link DiffSink} 로 넘깁니다.
+ * 규칙마다 Map 을 만들지 않으므로 힙 사용량은 정렬 버퍼 크기와 결과를 받는 쪽에 의해서만 결정됩니다.
+ */
+@Component
+public class MetadataDiffEngine {
+
+    public enum DiffBucket { COMMON, MODIFIED, ONLY_IN_A, ONLY_IN_B }
+
+    /**
+     * 분류된 규칙을 받는 쪽. 규칙 ID 오름차순으로 호출됩니다.
+     */
+    @FunctionalInterface
+    public interface DiffSink {
+        void accept(DiffBucket bucket, RuleDiffEntry entry) throws IOException;
+    }
+
+    /**
+     * 버킷별 규칙 수와 디스크로 내려쓴 정렬 run 수
+     */
+    public record DiffCounts(long common, long modified, long onlyInA, long onlyInB, int spilledRuns) {}
+
+    /**
+     * 비교할 한쪽의 매핑 레코드를 정렬기에 채우는 공급자 (XML 파일, DB 조회 결과 등)
+     */
+    @FunctionalInterface
+    public interface RecordSource {
+        void feed(ExternalMappingSorter sorter) throws IOException, XMLStreamException;
+    }
+
+    private final int sortBufferRecords;
+    private final Path spillDirectory;
+
+    public MetadataDiffEngine(@Value("${analyzer.compare.sort-buffer-records:100000}") int sortBufferRecords,
+                              @Value("${analyzer.compare.spill-dir:${java.io.tmpdir}}") String spillDirectory) {
+        this.sortBufferRecords = sortBufferRecords;
+        this.spillDirectory = Paths.get(spillDirectory);
+    }
+
+    /**
+     * 원본(A)과 새로운(B) externalmetadata.xml 을 비교합니다.
+     */
+    public DiffCounts compare(InputStream inputA, InputStream inputB, DiffSink sink) throws IOException, XMLStreamException {
+        return compare(sorter -> collect(inputA, sorter), sorter -> collect(inputB, sorter), sink);
+    }
+
+    /**
+     * 원본(A)과 새로운(B) 쪽의 매핑 레코드를 각각 정렬한 뒤 비교합니다.
+     */
+    public DiffCounts compare(RecordSource sourceA, RecordSource sourceB, DiffSink sink) throws IOException, XMLStreamException {
+        try (ExternalMappingSorter sorterA = new ExternalMappingSorter(sortBufferRecords, spillDirectory);
+             ExternalMappingSorter sorterB = new ExternalMappingSorter(sortBufferRecords, spillDirectory)) {
+            sourceA.feed(sorterA);
+            sourceB.feed(sorterB);
+            int spilledRuns = sorterA.spilledRunCount() + sorterB.spilledRunCount();
+            try (ExternalMappingSorter.SortedRecords sortedA = sorterA.sorted();
+                 ExternalMappingSorter.SortedRecords sortedB = sorterB.sorted()) {
+                DiffCounts counts = merge(sortedA, sortedB, sink);
+                return new DiffCounts(counts.common(), counts.modified(), counts.onlyInA(), counts.onlyInB(), spilledRuns);
+            }
+        }
+    }
+
+    /**
+     * 규칙 ID, 외부 표준 순으로 이미 정렬된 두 레코드 스트림을 비교합니다.
+     */
+    public DiffCounts merge(ExternalMappingSorter.SortedRecords sortedA, ExternalMappingSorter.SortedRecords sortedB,
+                            DiffSink sink) throws IOException {
+        RuleGroupReader groupsA = new RuleGroupReader(sortedA);
+        RuleGroupReader groupsB = new RuleGroupReader(sortedB);
+        long common = 0;
+        long modified = 0;
+        long onlyInA = 0;
+        long onlyInB = 0;
+
+        RuleGroup a = groupsA.next();
+        RuleGroup b = groupsB.next();
+        while (a != null || b != null) {
+            int order = a == null ? 1 : b == null ? -1 : a.ruleId().compareTo(b.ruleId());
+            if (order < 0) {
+                sink.accept(DiffBucket.ONLY_IN_A, new RuleDiffEntry(a.ruleId(), a.categories(), null));
+                onlyInA++;
+                a = groupsA.next();
+            } else if (order > 0) {
+                sink.accept(DiffBucket.ONLY_IN_B, new RuleDiffEntry(b.ruleId(), b.categories(), null));
+                onlyInB++;
+                b = groupsB.next();
+            } else {
+                if (a.categories().equals(b.categories())) {
+                    sink.accept(DiffBucket.COMMON, new RuleDiffEntry(b.ruleId(), b.categories(), null));
+                    common++;
+                } else {
+                    sink.accept(DiffBucket.MODIFIED, new RuleDiffEntry(b.ruleId(), b.categories(), a.categories()));
+                    modified++;
+                }
+                a = groupsA.next();
+                b = groupsB.next();
+            }
+        }
+        return new DiffCounts(common, modified, onlyInA, onlyInB, 0);
+    }
+
+    private static void collect(InputStream inputStream, ExternalMappingSorter sorter) throws IOException, XMLStreamException {
+        try (ExternalMetadataReader reader = new ExternalMetadataReader(inputStream)) {
+            ExternalMetadataReader.Mapping mapping;
+            while ((mapping = reader.nextMapping()) != null) {
+                String internalCategory = mapping.internalCategory();
+                // InternalCategory 를 규칙 ID 로 사용하므로, 값이 없는 매핑은 비교 대상에서 제외합니다.
+                if (internalCategory == null || internalCategory.isEmpty()) {
+                    continue;
+                }
+                String externalCategory = mapping.externalCategory() == null ? "" : mapping.externalCategory();
+                sorter.add(new ExternalMappingSorter.MappingRecord(internalCategory, externalCategory));
+            }
+        }
+    }
+
+    private record RuleGroup(String ruleId, List<String> categories) {}
+
+    /**
+     * 정렬된 레코드 스트림을 규칙 ID 단위로 묶어 읽습니다. (한 레코드 미리 읽기)
+     */
+    private static final class RuleGroupReader {
+        private final ExternalMappingSorter.SortedRecords records;
+        private ExternalMappingSorter.MappingRecord pending;
+        private boolean started;
+
+        RuleGroupReader(ExternalMappingSorter.SortedRecords records) {
+            this.records = records;
+        }
+
+        RuleGroup next() throws IOException {
+            if (!started) {
+                pending = records.next();
+                started = true;
+            }
+            if (pending == null) {
+                return null;
+            }
+            String ruleId = pending.ruleId();
+            List<String> categories = new ArrayList<>(4);
+            while (pending != null && pending.ruleId().equals(ruleId)) {
+                categories.add(pending.category());
+                pending = records.next();
+            }
+            return new RuleGroup(ruleId, categories);
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package com.fortify.analyzer.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 크롤링 카테고리(kingdom)별 마지막 페이지를 찾는 엔진입니다.
+ * <p>
+ * 알려진 마지막 페이지에서 1, 2, 4, 8... 칸씩 건너뛰며 없는 페이지를 찾은 뒤(지수 탐색),
+ * 그 사이를 이진 탐색하여 새 페이지가 n 개일 때 O(log n) 번의 요청으로 마지막 페이지를 찾습니다.
+ * 모든 kingdom 은 가상 스레드에서 동시에 탐색하며, 동시에 보내는 요청 수는 전체 기준으로 제한합니다.
+ * 페이지 본문은 표식("weaknessCell")을 찾는 즉시 읽기를 멈춥니다.
+ */
+@Component
+public class PageDiscoveryEngine {
+
+    private static final Logger logger = LoggerFactory.getLogger(PageDiscoveryEngine.class);
+
+    // 결과 목록이 있는 페이지에만 나타나는 표식
+    private static final byte[] PAGE_MARKER = "weaknessCell".getBytes(StandardCharsets.US_ASCII);
+    private static final int[] MARKER_FAILURE = failureTable(PAGE_MARKER);
+    // 서버가 모든 페이지에 표식을 돌려주는 경우에도 탐색이 끝나도록 하는 상한
+    private static final int MAX_PAGE = 1 << 20;
+
+    /**
+     * kingdom 하나의 탐색 결과
+     * @param lastPage 존재하는 마지막 페이지 번호
+     * @param probes 보낸 요청 수
+     */
+    public record DiscoveryResult(int lastPage, int probes) {}
+
+    private final RestTemplate restTemplate;
+    private final String pageUrl;
+    private final Semaphore permits;
+    private final AnalyzerMetrics analyzerMetrics;
+
+    public PageDiscoveryEngine(RestTemplate restTemplate, AnalyzerMetrics analyzerMetrics,
+                               @Value("${crawler.discovery.page-url}") String pageUrl,
+                               @Value("${crawler.discovery.max-concurrency:4}") int maxConcurrency) {
+        this.restTemplate = restTemplate;
+        this.analyzerMetrics = analyzerMetrics;
+        this.pageUrl = pageUrl;
+        this.permits = new Semaphore(Math.max(1, maxConcurrency));
+    }
+
+    /**
+     * 모든 kingdom 의 마지막 페이지를 동시에 탐색합니다.
+     * @param knownLastPages Key: kingdom 이름, Value: 존재한다고 알려진 마지막 페이지
+     * @return Key: kingdom 이름, Value: 탐색 결과 (입력 순서 유지)
+     */
+    public Map<String, DiscoveryResult> discoverLastPages(Map<String, Integer> knownLastPages) throws InterruptedException {
+        List<String> kingdoms = new ArrayList<>(knownLastPages.keySet());
+        List<Future<DiscoveryResult>> futures = new ArrayList<>(kingdoms.size());
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        try {
+            for (String kingdom : kingdoms) {
+                int knownLastPage = knownLastPages.get(kingdom);
+                futures.add(executor.submit(() -> findLastPage(kingdom, knownLastPage)));
+            }
+            Map<String, DiscoveryResult> results = new LinkedHashMap<>();
+            for (int i = 0; i < kingdoms.size(); i++) {
+                results.put(kingdoms.get(i), futures.get(i).get());
+            }
+            return results;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Page discovery failed", e.getCause());
+        } finally {
+            // 중지 요청으로 인터럽트된 경우 진행 중인 탐색도 함께 중단합니다.
+            executor.shutdownNow();
+        }
+    }
+
+    private DiscoveryResult findLastPage(String kingdom, int knownLastPage) throws InterruptedException {
+        int probes = 0;
+        int low = knownLastPage; // 존재하는 것으로 알려진 페이지
+        int high;                // 존재하지 않는 것으로 확인된 페이지
+        int step = 1;
+        while (true) {
+            int candidate = (int) Math.min((long) low + step, MAX_PAGE);
+            probes++;
+            if (candidate == low || !pageExists(kingdom, candidate)) {
+                high = candidate;
+                break;
+            }
+            low = candidate;
+            step *= 2;
+        }
+        while (high - low > 1) {
+            int middle = low + (high - low) / 2;
+            probes++;
+            if (pageExists(kingdom, middle)) {
+                low = middle;
+            } else {
+                high = middle;
+            }
+        }
+        if (low > knownLastPage) {
+            logger.info("New pages found for {}: last page {} -> {} ({} probes)", kingdom, knownLastPage, low, probes);
+        }
+        return new DiscoveryResult(low, probes);
+    }
+
+    private boolean pageExists(String kingdomName, int pageNumber) throws InterruptedException {
+        permits.acquire();
+        // 동시 요청 제한으로 기다린 시간은 빼고 요청 시간만 기록합니다.
+        long startedAt = System.nanoTime();
+        boolean exists = false;
+        try {
+            Boolean found = restTemplate.execute(pageUrl, HttpMethod.GET, null,
+                    response -> {
+                        if (!response.getStatusCode().is2xxSuccessful()) {
+                            return false;
+                        }
+                        // 응답을 닫을 때 남은 본문을 끝까지 읽지 않도록 스트림을 먼저 닫습니다.
+                        try (InputStream body = response.getBody()) {
+                            return containsMarker(body);
+                        }
+                    },
+                    kingdomName, pageNumber);
+            exists = Boolean.TRUE.equals(found);
+            return exists;
+        } catch (Exception e) {
+            if (Thread.currentThread().isInterrupted()) {
+                throw new InterruptedException("Page discovery interrupted");
+            }
+            logger.warn("Could not check page {} for {}: {}", pageNumber, kingdomName, e.getMessage());
+            return false;
+        } finally {
+            analyzerMetrics.pageProbe(exists).record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+            permits.release();
+        }
+    }
+
+    /**
+     * 본문에서 표식을 찾습니다. 찾으면 나머지 본문은 읽지 않습니다. (KMP 검색으로 버퍼 경계에 걸친 표식도 찾음)
+     */
+    static boolean containsMarker(InputStream body) throws IOException {
+        byte[] buffer = new byte[8192];
+        int matched = 0;
+        int read;
+        while ((read = body.read(buffer)) != -1) {
+            for (int i = 0; i < read; i++) {
+                while (matched > 0 && buffer[i] != PAGE_MARKER[matched]) {
+                    matched = MARKER_FAILURE[matched - 1];
+                }
+                if (buffer[i] == PAGE_MARKER[matched] && ++matched == PAGE_MARKER.length) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static int[] failureTable(byte[] pattern) {
+        int[] failure = new int[pattern.length];
+        for (int i = 1, k = 0; i < pattern.length; i++) {
+            while (k > 0 && pattern[i] != pattern[k]) {
+                k = failure[k - 1];
+            }
+            if (pattern[i] == pattern[k]) {
+                k++;
+            }
+            failure[i] = k;
+        }
+        return failure;
+    }
+}
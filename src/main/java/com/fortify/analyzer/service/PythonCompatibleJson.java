@@ -0,0 +1,150 @@
+package com.fortify.analyzer.service;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Python 의 {@code json.dump(obj, f, indent=2, ensure_ascii=False)} 와 같은 바이트를 만드는 JSON 직렬화 도우미입니다.
+ * <p>
+ * 기존 languge.py 가 만든 분석 결과 파일과 출력이 완전히 같아야 하므로, 들여쓰기/구분자/문자열 이스케이프와
+ * float 의 repr 표기(e.g., {@code 1e-05}, {@code 1e+16})를 Python 규칙대로 따릅니다.
+ * 값은 Map(삽입 순서 유지), List, String, Number, Boolean, null 만 지원합니다.
+ */
+final class PythonCompatibleJson {
+
+    private static final int INDENT = 2;
+
+    private PythonCompatibleJson() {
+    }
+
+    /**
+     * 값을 주어진 들여쓰기 깊이에서 시작하는 것으로 보고 직렬화합니다. (첫 줄 앞의 들여쓰기는 쓰지 않음)
+     */
+    static void write(StringBuilder out, Object value, int depth) {
+        if (value == null) {
+            out.append("null");
+        } else if (value instanceof String text) {
+            quote(out, text);
+        } else if (value instanceof Boolean bool) {
+            out.append(bool ? "true" : "false");
+        } else if (value instanceof Double number) {
+            out.append(floatRepr(number));
+        } else if (value instanceof Number number) {
+            out.append(number);
+        } else if (value instanceof Map<?, ?> map) {
+            if (map.isEmpty()) {
+                out.append("{}");
+                return;
+            }
+            out.append('{');
+            boolean first = true;
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                out.append(first ? "\n" : ",\n");
+                indent(out, depth + 1);
+                quote(out, String.valueOf(entry.getKey()));
+                out.append(": ");
+                write(out, entry.getValue(), depth + 1);
+                first = false;
+            }
+            out.append('\n');
+            indent(out, depth);
+            out.append('}');
+        } else if (value instanceof List<?> list) {
+            if (list.isEmpty()) {
+                out.append("[]");
+                return;
+            }
+            out.append('[');
+            boolean first = true;
+            for (Object item : list) {
+                out.append(first ? "\n" : ",\n");
+                indent(out, depth + 1);
+                write(out, item, depth + 1);
+                first = false;
+            }
+            out.append('\n');
+            indent(out, depth);
+            out.append(']');
+        } else {
+            throw new IllegalArgumentException("Unsupported JSON value type: " + value.getClass());
+        }
+    }
+
+    static void indent(StringBuilder out, int depth) {
+        out.append(" ".repeat(depth * INDENT));
+    }
+
+    /**
+     * ensure_ascii=False 일 때의 문자열 이스케이프: 따옴표, 역슬래시, 0x20 미만 제어 문자만 이스케이프합니다.
+     */
+    static void quote(StringBuilder out, String text) {
+        out.append('"');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '"' -> out.append("\\\"");
+                case '\\' -> out.append("\\\\");
+                case '\n' -> out.append("\\n");
+                case '\r' -> out.append("\\r");
+                case '\t' -> out.append("\\t");
+                case '\b' -> out.append("\\b");
+                case '\f' -> out.append("\\f");
+                default -> {
+                    if (c < 0x20) {
+                        out.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.append(c);
+                    }
+                }
+            }
+        }
+        out.append('"');
+    }
+
+    /**
+     * Python 의 float repr 과 같은 표기를 반환합니다.
+     * 가장 짧은 왕복(round-trip) 자릿수를 사용하고, 지수가 -4 미만이거나 16 이상이면 과학적 표기를 사용합니다.
+     */
+    static String floatRepr(double value) {
+        if (Double.isNaN(value)) {
+            return "NaN";
+        }
+        if (Double.isInfinite(value)) {
+            return value > 0 ? "Infinity" : "-Infinity";
+        }
+        String sign = (value < 0 || (value == 0 && 1 / value < 0)) ? "-" : "";
+        if (value == 0) {
+            return sign + "0.0";
+        }
+        // JDK 19 이상의 Double.toString 은 가장 짧은 왕복 자릿수를 반환합니다.
+        BigDecimal decimal = new BigDecimal(Double.toString(Math.abs(value))).stripTrailingZeros();
+        String digits = decimal.unscaledValue().toString();
+        // value = 0.d1d2... x 10^decimalPoint
+        int decimalPoint = digits.length() - decimal.scale();
+
+        StringBuilder out = new StringBuilder(sign);
+        if (decimalPoint > -4 && decimalPoint <= 16) {
+            if (decimalPoint <= 0) {
+                out.append("0.").append("0".repeat(-decimalPoint)).append(digits);
+            } else if (decimalPoint >= digits.length()) {
+                out.append(digits).append("0".repeat(decimalPoint - digits.length())).append(".0");
+            } else {
+                out.append(digits, 0, decimalPoint).append('.').append(digits, decimalPoint, digits.length());
+            }
+        } else {
+            out.append(digits.charAt(0));
+            if (digits.length() > 1) {
+                out.append('.').append(digits, 1, digits.length());
+            }
+            int exponent = decimalPoint - 1;
+            out.append('e').append(exponent < 0 ? '-' : '+');
+            String exponentDigits = String.valueOf(Math.abs(exponent));
+            if (exponentDigits.length() < 2) {
+                out.append('0');
+            }
+            out.append(exponentDigits);
+        }
+        return out.toString();
+    }
+}
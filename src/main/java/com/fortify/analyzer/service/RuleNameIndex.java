@@ -0,0 +1,245 @@
+package com.fortify.analyzer.service;
+
+import com.fortify.analyzer.repository.RuleRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 규칙 이름에 대한 메모리 내 트라이그램(3-gram) 역색인입니다.
+ * <p>
+ * 규칙 이름을 소문자로 바꾼 뒤 연속된 3글자 조각마다 해당 규칙의 문서 번호 목록(posting list)을 유지합니다.
+ * 부분 문자열 검색 시 검색어의 모든 트라이그램 목록을 교집합하여 후보를 좁히고, 후보만 실제 문자열 비교로 확인합니다.
+ * 따라서 DB 의 LIKE '%keyword%' 전체 스캔 없이 일치하는 규칙 ID 를 찾을 수 있고, DB 는 결과 ID 를 조회할 때만 사용합니다.
+ * <p>
+ * 애플리케이션 시작 시 {@link RuleRepository} 에서 전체 규칙 이름을 읽어 색인을 만들고,
+ * 이후에는 룰팩이 추가될 때마다 {@link #onRulePackChanged(RulePackChangedEvent)} 로 갱신합니다.
+ * 전체 규칙을 읽는 동안 커밋된 변경은 따로 모아 두었다가 색인을 다시 만든 뒤 다시 적용하므로, 읽은 목록에 빠졌거나
+ * 이미 포함된 변경도 한 번씩만 반영됩니다.
+ */
+@Component
+public class RuleNameIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(RuleNameIndex.class);
+
+    private static final int GRAM_SIZE = 3;
+
+    private final RuleRepository ruleRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // 문서 번호(doc) -> 규칙 ID / 소문자 규칙 이름
+    private long[] ruleIds = new long[0];
+    private String[] lowerNames = new String[0];
+    private int size;
+    // 규칙 ID -> 문서 번호
+    private final Map<Long, Integer> docByRuleId = new HashMap<>();
+    // 트라이그램 -> 문서 번호 목록 (항상 오름차순)
+    private final Map<Long, PostingList> postings = new HashMap<>();
+
+    // 색인을 다시 만드는 동안 반영된 변경 (다시 만들고 있지 않으면 null, 쓰기 잠금으로 보호)
+    private List<RulePackChangedEvent> eventsDuringRebuild;
+
+    private volatile boolean ready;
+
+    public RuleNameIndex(RuleRepository ruleRepository) {
+        this.ruleRepository = ruleRepository;
+    }
+
+    /**
+     * 애플리케이션이 준비되면 DB 의 모든 규칙 이름으로 색인을 다시 만듭니다.
+     * 실패하더라도 애플리케이션은 계속 동작하며, 이 경우 검색은 DB 쿼리로 대체됩니다.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.nanoTime();
+        lock.writeLock().lock();
+        try {
+            eventsDuringRebuild = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        try {
+            List<RuleRepository.RuleNameView> rules = ruleRepository.findAllRuleNames();
+            int trigramCount;
+            lock.writeLock().lock();
+            try {
+                clear();
+                for (RuleRepository.RuleNameView rule : rules) {
+                    addInternal(rule.getId(), rule.getRuleName());
+                }
+                // 목록을 읽는 동안 커밋된 변경을 순서대로 다시 적용합니다. (이미 있는 규칙은 건너뜀)
+                eventsDuringRebuild.forEach(event -> event.addedRules().forEach(this::addInternal));
+                trigramCount = postings.size();
+                ready = true;
+            } finally {
+                eventsDuringRebuild = null;
+                lock.writeLock().unlock();
+            }
+            logger.info("Rule name index built: {} rules, {} trigrams in {} ms",
+                    rules.size(), trigramCount, (System.nanoTime() - start) / 1_000_000);
+        } catch (Exception e) {
+            lock.writeLock().lock();
+            try {
+                eventsDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            ready = false;
+            logger.warn("Could not build rule name index, falling back to database search: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 색인이 만들어져 검색에 사용할 수 있는지 여부
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * 룰팩 저장 트랜잭션이 커밋된 뒤에 새 규칙을 색인에 추가합니다. (롤백되면 반영하지 않음)
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(RulePackChangedEvent.INDEX_LISTENER_ORDER)
+    public void onRulePackChanged(RulePackChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            event.addedRules().forEach(this::addInternal);
+            if (eventsDuringRebuild != null) {
+                eventsDuringRebuild.add(event);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 규칙 이름에 검색어가 포함된(대소문자 무시) 규칙의 ID 를 찾습니다.
+     * @return 규칙 ID 목록 (오름차순)
+     */
+    public List<Long> search(String keyword) {
+        String query = keyword.toLowerCase(Locale.ROOT);
+        lock.readLock().lock();
+        try {
+            List<Long> result = new ArrayList<>();
+            if (query.length() < GRAM_SIZE) {
+                // 트라이그램을 만들 수 없는 짧은 검색어는 메모리에서 직접 비교합니다.
+                for (int doc = 0; doc < size; doc++) {
+                    if (lowerNames[doc].contains(query)) {
+                        result.add(ruleIds[doc]);
+                    }
+                }
+            } else {
+                int[] candidates = intersectPostings(query);
+                for (int doc : candidates) {
+                    if (lowerNames[doc].contains(query)) {
+                        result.add(ruleIds[doc]);
+                    }
+                }
+            }
+            result.sort(Comparator.naturalOrder());
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private int[] intersectPostings(String query) {
+        List<PostingList> lists = new ArrayList<>();
+        for (int i = 0; i + GRAM_SIZE <= query.length(); i++) {
+            PostingList list = postings.get(trigram(query, i));
+            if (list == null) {
+                return new int[0];
+            }
+            lists.add(list);
+        }
+        // 가장 짧은 목록부터 교집합하여 후보 수를 빠르게 줄입니다.
+        lists.sort(Comparator.comparingInt(list -> list.size));
+        int[] current = Arrays.copyOf(lists.get(0).docs, lists.get(0).size);
+        int currentSize = current.length;
+        for (int l = 1; l < lists.size() && currentSize > 0; l++) {
+            PostingList other = lists.get(l);
+            int i = 0;
+            int j = 0;
+            int k = 0;
+            while (i < currentSize && j < other.size) {
+                if (current[i] == other.docs[j]) {
+                    current[k++] = current[i];
+                    i++;
+                    j++;
+                } else if (current[i] < other.docs[j]) {
+                    i++;
+                } else {
+                    j++;
+                }
+            }
+            currentSize = k;
+        }
+        return Arrays.copyOf(current, currentSize);
+    }
+
+    private void addInternal(Long ruleId, String ruleName) {
+        if (ruleId == null || ruleName == null || docByRuleId.containsKey(ruleId)) {
+            return;
+        }
+        if (size == ruleIds.length) {
+            int capacity = Math.max(16, size * 2);
+            ruleIds = Arrays.copyOf(ruleIds, capacity);
+            lowerNames = Arrays.copyOf(lowerNames, capacity);
+        }
+        int doc = size++;
+        String lowerName = ruleName.toLowerCase(Locale.ROOT);
+        ruleIds[doc] = ruleId;
+        lowerNames[doc] = lowerName;
+        docByRuleId.put(ruleId, doc);
+        for (int i = 0; i + GRAM_SIZE <= lowerName.length(); i++) {
+            postings.computeIfAbsent(trigram(lowerName, i), k -> new PostingList()).add(doc);
+        }
+    }
+
+    private void clear() {
+        ruleIds = new long[0];
+        lowerNames = new String[0];
+        size = 0;
+        docByRuleId.clear();
+        postings.clear();
+    }
+
+    private static long trigram(String text, int offset) {
+        return ((long) text.charAt(offset) << 32) | ((long) text.charAt(offset + 1) << 16) | text.charAt(offset + 2);
+    }
+
+    /**
+     * 오름차순으로만 추가되는 문서 번호 목록입니다.
+     */
+    private static final class PostingList {
+        private int[] docs = new int[4];
+        private int size;
+
+        void add(int doc) {
+            // 같은 이름 안에서 트라이그램이 반복되면 한 번만 기록합니다.
+            if (size > 0 && docs[size - 1] == doc) {
+                return;
+            }
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+            }
+            docs[size++] = doc;
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.fortify.analyzer.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 룰팩의 규칙(rules)과 외부 매핑(external_mappings)을 JDBC 배치로 저장하는 컴포넌트입니다.
+ * <p>
+ * Rule / ExternalMapping 은 IDENTITY 전략을 사용하므로 Hibernate 는 INSERT 를 한 건씩 실행합니다.
+ * 이 클래스는 규칙을 배치 INSERT 한 뒤, 룰팩 ID 와 마지막으로 조회한 규칙 ID 로 새 규칙의 ID 를 다시 조회하여
+ * 매핑 INSERT 에 필요한 외래 키를 채웁니다. 따라서 행마다 생성 키를 돌려받을 필요 없이
+ * 두 테이블 모두 배치로 저장할 수 있습니다.
+ * <p>
+ * 매핑은 {@link Session} 으로 파싱하면서 바로 넘기며, batchSize 개가 모일 때마다 저장합니다.
+ * 세션은 규칙 이름별 ID 와 규칙별로 이미 저장한 외부 표준을 메모리에 유지하여, 저장한 행을 DB 에서 다시 읽지 않고
+ * 묶음을 넘는 중복 매핑을 거릅니다. 메모리 사용량은 룰팩의 서로 다른 (규칙, 외부 표준) 쌍 수와 batchSize 로 제한됩니다.
+ * <p>
+ * 호출하는 쪽의 트랜잭션(JPA 트랜잭션 포함)에 참여하므로, 반드시 트랜잭션 안에서 호출해야 합니다.
+ */
+@Component
+public class RulePackBatchWriter {
+
+    private static final String INSERT_RULE_SQL = "INSERT INTO rules (rule_name, rule_pack_id) VALUES (?, ?)";
+    // 같은 트랜잭션에서 앞서 저장한 규칙보다 나중에 저장한 규칙만 조회합니다. (IDENTITY 값은 저장 순서대로 증가)
+    private static final String SELECT_NEW_RULE_IDS_SQL = "SELECT id, rule_name FROM rules WHERE rule_pack_id = ? AND id > ?";
+    private static final String INSERT_MAPPING_SQL = "INSERT INTO external_mappings (standard_info, rule_id) VALUES (?, ?)";
+
+    /**
+     * 저장 결과 통계입니다.
+     * @param ruleCount 저장된 규칙 수
+     * @param mappingCount 저장된 매핑 수
+     * @param elapsedNanos 저장에 걸린 시간(ns)
+     * @param ruleIds Key: 규칙 이름, Value: 저장된 규칙 ID
+     */
+    public record WriteResult(int ruleCount, int mappingCount, long elapsedNanos, Map<String, Long> ruleIds) {
+
+        public long rowsPerSecond() {
+            if (elapsedNanos <= 0) {
+                return 0;
+            }
+            return (long) ((ruleCount + mappingCount) * 1_000_000_000.0 / elapsedNanos);
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final int batchSize;
+
+    public RulePackBatchWriter(JdbcTemplate jdbcTemplate, @Value("${upload.persist.batch-size:1000}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    /**
+     * 한 룰팩에 속한 규칙과 매핑을 저장하는 세션을 엽니다.
+     * @param rulePackId 이미 저장된 RulePack 의 ID
+     */
+    public Session open(Long rulePackId) {
+        return new Session(rulePackId);
+    }
+
+    /**
+     * 매핑을 받은 순서대로 모아 batchSize 개마다 저장합니다.
+     * 처음 나온 규칙은 그 묶음을 저장할 때 함께 저장하고, 같은 규칙의 같은 외부 표준은 한 번만 저장합니다.
+     * 모든 매핑을 넘긴 뒤 {@link #finish()} 를 호출해야 남은 묶음이 저장됩니다.
+     */
+    public final class Session {
+
+        private final Long rulePackId;
+        // 규칙 이름 -> 저장된 규칙 ID
+        private final Map<String, Long> ruleIds = new HashMap<>();
+        // 규칙 ID -> 이미 저장한 외부 표준 (묶음을 넘어 같은 매핑을 다시 저장하지 않도록 DB 를 다시 읽지 않고 확인)
+        private final Map<Long, Set<String>> storedStandards = new HashMap<>();
+        // 아직 저장하지 않은 (규칙 이름, 외부 표준) 목록
+        private final List<String[]> pending = new ArrayList<>();
+        private long lastRuleId;
+        private int mappingCount;
+        private long elapsedNanos;
+
+        private Session(Long rulePackId) {
+            this.rulePackId = rulePackId;
+        }
+
+        public void add(String ruleName, String standardInfo) {
+            pending.add(new String[]{ruleName, standardInfo});
+            if (pending.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        /**
+         * 남은 매핑을 저장하고 통계를 반환합니다.
+         */
+        public WriteResult finish() {
+            flush();
+            return new WriteResult(ruleIds.size(), mappingCount, elapsedNanos, ruleIds);
+        }
+
+        private void flush() {
+            if (pending.isEmpty()) {
+                return;
+            }
+            long start = System.nanoTime();
+
+            // 이 묶음에서 처음 나온 규칙을 저장하고 ID 를 조회합니다.
+            Set<String> newRuleNames = new LinkedHashSet<>();
+            for (String[] mapping : pending) {
+                if (!ruleIds.containsKey(mapping[0])) {
+                    newRuleNames.add(mapping[0]);
+                }
+            }
+            if (!newRuleNames.isEmpty()) {
+                List<Object[]> ruleRows = new ArrayList<>(newRuleNames.size());
+                for (String ruleName : newRuleNames) {
+                    ruleRows.add(new Object[]{ruleName, rulePackId});
+                }
+                jdbcTemplate.batchUpdate(INSERT_RULE_SQL, ruleRows);
+                jdbcTemplate.query(SELECT_NEW_RULE_IDS_SQL, rs -> {
+                    long ruleId = rs.getLong("id");
+                    ruleIds.put(rs.getString("rule_name"), ruleId);
+                    lastRuleId = Math.max(lastRuleId, ruleId);
+                }, rulePackId, lastRuleId);
+            }
+
+            List<Object[]> mappingRows = new ArrayList<>(pending.size());
+            for (String[] mapping : pending) {
+                Long ruleId = ruleIds.get(mapping[0]);
+                if (ruleId == null) {
+                    throw new IllegalStateException("저장된 규칙의 ID를 찾을 수 없습니다: " + mapping[0]);
+                }
+                if (storedStandards.computeIfAbsent(ruleId, k -> new HashSet<>()).add(mapping[1])) {
+                    mappingRows.add(new Object[]{mapping[1], ruleId});
+                }
+            }
+            if (!mappingRows.isEmpty()) {
+                jdbcTemplate.batchUpdate(INSERT_MAPPING_SQL, mappingRows);
+            }
+            mappingCount += mappingRows.size();
+            pending.clear();
+            elapsedNanos += System.nanoTime() - start;
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.fortify.analyzer.service;
+
+import java.util.Map;
+
+/**
+ * 룰팩이 새로 저장되었을 때 발행되는 이벤트입니다.
+ * 검색 색인, 표준 개수 집계, 검색 결과 캐시가 이 이벤트를 받아 트랜잭션 커밋 이후에 갱신됩니다.
+ * 새 규칙의 외부 표준 매핑은 담지 않으므로, 필요한 쪽에서 커밋된 뒤 룰팩 ID 로 조회합니다.
+ * @param rulePackId 저장된 룰팩 ID
+ * @param addedRules Key: 새로 추가된 규칙 ID, Value: 규칙 이름
+ */
+public record RulePackChangedEvent(Long rulePackId, Map<Long, String> addedRules) {
+
+    // 리스너 실행 순서. 색인/집계를 먼저 갱신한 뒤 검색 결과 캐시를 비워야, 그 사이에 이전 색인으로 계산한 검색 결과가
+    // 캐시에 남지 않습니다. (무효화 이전에 시작한 계산은 캐시가 저장하지 않음)
+    public static final int INDEX_LISTENER_ORDER = 0;
+    public static final int CACHE_LISTENER_ORDER = 100;
+}
@@ -0,0 +1,161 @@
+package com.fortify.analyzer.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.stream.XMLStreamException;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+
+/**
+ * 룰팩 XML(externalmetadata.xml)에서 <PackInfo> 를 먼저 읽고 <Mapping> 을 하나씩 꺼내는 파서입니다.
+ * <p>
+ * upload.xml.parser 가 stax(기본값)이면 {@link ExternalMetadataReader} 로 스트리밍하며 읽고,
+ * dom 이면 기존 DOM 파서로 파일 전체를 읽는 폴백 경로를 사용합니다.
+ * 업로드 경로와 파싱 벤치마크가 같은 코드를 사용하도록 분리한 컴포넌트입니다. (DB 저장 제외)
+ */
+@Component
+public class RulePackParser {
+
+    private final boolean useDom;
+
+    public RulePackParser(@Value("${upload.xml.parser:stax}") String xmlParserMode) {
+        this.useDom = "dom".equalsIgnoreCase(xmlParserMode);
+    }
+
+    /**
+     * 파싱한 매핑을 하나씩 받는 쪽입니다. (저장 세션 또는 ZIP 엔트리 큐)
+     */
+    @FunctionalInterface
+    public interface MappingConsumer {
+        void accept(String ruleName, String standardInfo) throws InterruptedException;
+    }
+
+    /**
+     * <PackInfo> 를 읽은 상태로 열린 룰팩입니다. 남은 <Mapping> 은 {@link #nextMapping()} 으로 하나씩 꺼냅니다.
+     */
+    public interface RulePackReader extends AutoCloseable {
+
+        ExternalMetadataReader.PackInfo packInfo();
+
+        /**
+         * @return 다음 매핑, 더 이상 매핑이 없으면 null
+         */
+        ExternalMetadataReader.Mapping nextMapping() throws Exception;
+
+        @Override
+        void close() throws XMLStreamException;
+    }
+
+    /**
+     * 룰팩 XML 을 열고 <PackInfo> 를 읽습니다. 이후 매핑은 {@link #readMappings} 로 읽습니다.
+     * @param location 오류 메시지에 표시할 파일 위치
+     */
+    public RulePackReader open(InputStream inputStream, String location) throws Exception {
+        if (useDom) {
+            return openWithDom(inputStream, location);
+        }
+
+        // StAX 스트리밍 파서로 <PackInfo> 를 먼저 읽고, <Mapping> 은 하나씩 처리합니다.
+        ExternalMetadataReader reader = new ExternalMetadataReader(inputStream);
+        ExternalMetadataReader.PackInfo packInfo = reader.readPackInfo();
+        if (packInfo == null) {
+            reader.close();
+            throw new Exception("파일 '" + location + "'에서 <PackInfo>를 찾을 수 없습니다.");
+        }
+        return new RulePackReader() {
+            @Override
+            public ExternalMetadataReader.PackInfo packInfo() {
+                return packInfo;
+            }
+
+            @Override
+            public ExternalMetadataReader.Mapping nextMapping() throws Exception {
+                ExternalMetadataReader.Mapping mapping;
+                while ((mapping = reader.nextMapping()) != null) {
+                    if (mapping.internalCategory() != null && mapping.externalCategory() != null) {
+                        return mapping;
+                    }
+                }
+                return null;
+            }
+
+            @Override
+            public void close() throws XMLStreamException {
+                reader.close();
+            }
+        };
+    }
+
+    /**
+     * 남은 <Mapping> 을 순서대로 consumer 에 넘깁니다.
+     * @return XML 을 읽는 데 걸린 시간(ns, consumer 처리 시간 제외)
+     */
+    public long readMappings(RulePackReader reader, MappingConsumer consumer) throws Exception {
+        long parseNanos = 0;
+        long start = System.nanoTime();
+        ExternalMetadataReader.Mapping mapping;
+        while ((mapping = reader.nextMapping()) != null) {
+            parseNanos += System.nanoTime() - start;
+            consumer.accept(mapping.internalCategory(), mapping.externalCategory());
+            start = System.nanoTime();
+        }
+        return parseNanos + System.nanoTime() - start;
+    }
+
+    /**
+     * 기존 DOM 기반 파싱 경로입니다. upload.xml.parser=dom 으로 설정한 경우에만 사용되는 폴백입니다.
+     * 파일 전체를 메모리에 올리므로 큰 룰팩에는 사용하지 않는 것이 좋습니다.
+     */
+    private RulePackReader openWithDom(InputStream inputStream, String location) throws Exception {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        inputStream.transferTo(baos);
+        byte[] bytes = baos.toByteArray();
+
+        DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+        DocumentBuilder builder = factory.newDocumentBuilder();
+        Document doc = builder.parse(new ByteArrayInputStream(bytes));
+        Element root = doc.getDocumentElement();
+
+        NodeList packInfoNodes = root.getElementsByTagName("PackInfo");
+        if (packInfoNodes.getLength() == 0) {
+            throw new Exception("파일 '" + location + "'에서 <PackInfo>를 찾을 수 없습니다.");
+        }
+        Element packInfoElement = (Element) packInfoNodes.item(0);
+        String packName = packInfoElement.getElementsByTagName("Name").item(0).getTextContent();
+        String packId = packInfoElement.getElementsByTagName("PackID").item(0).getTextContent();
+        String packVersion = packInfoElement.getElementsByTagName("Version").item(0).getTextContent();
+        ExternalMetadataReader.PackInfo packInfo = new ExternalMetadataReader.PackInfo(packName, packId, packVersion);
+        NodeList mappingNodes = root.getElementsByTagName("Mapping");
+
+        return new RulePackReader() {
+            private int next;
+
+            @Override
+            public ExternalMetadataReader.PackInfo packInfo() {
+                return packInfo;
+            }
+
+            @Override
+            public ExternalMetadataReader.Mapping nextMapping() {
+                if (next == mappingNodes.getLength()) {
+                    return null;
+                }
+                Element mappingElement = (Element) mappingNodes.item(next++);
+                String ruleName = mappingElement.getElementsByTagName("InternalCategory").item(0).getTextContent();
+                String standardInfo = mappingElement.getElementsByTagName("ExternalCategory").item(0).getTextContent();
+                return new ExternalMetadataReader.Mapping(ruleName, standardInfo);
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+    }
+}
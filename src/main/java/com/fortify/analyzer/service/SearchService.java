@@ -1,14 +1,25 @@
 package com.fortify.analyzer.service;
 
+import com.fortify.analyzer.dto.CacheStatsDto;
+import com.fortify.analyzer.dto.RuleSearchPageDto;
+import com.fortify.analyzer.dto.RuleSearchSummaryDto;
+import com.fortify.analyzer.dto.RuleSummaryDto;
 import com.fortify.analyzer.dto.SearchResultDto;
+import com.fortify.analyzer.dto.StandardCountDto;
 import com.fortify.analyzer.entity.ExternalMapping;
 import com.fortify.analyzer.entity.Rule;
 import com.fortify.analyzer.repository.ExternalMappingRepository;
 import com.fortify.analyzer.repository.RuleRepository;
+import jakarta.annotation.PostConstruct;
+import org.hibernate.Hibernate;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
 
+import java.time.Duration;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -21,24 +32,233 @@ public class SearchService {
     @Autowired
     private RuleRepository ruleRepository;
 
+    @Autowired
+    private RuleNameIndex ruleNameIndex;
+
+    @Autowired
+    private StandardCountIndex standardCountIndex;
+
+    @Autowired
+    private AnalyzerMetrics analyzerMetrics;
+
+    @Value("${search.cache.max-size:500}")
+    private int cacheMaxSize;
+
+    @Value("${search.cache.ttl:10m}")
+    private Duration cacheTtl;
+
+    // 정규화된 검색어 -> 일치한 규칙 ID 와 표준 개수. 룰팩이 추가되면 전체 무효화됩니다.
+    // 엔티티는 요청(영속성 컨텍스트)마다 다시 조회해야 하므로 캐시에는 ID 만 보관합니다.
+    private BoundedCache<String, CachedSearchResult> searchResultCache;
+
+    private record CachedSearchResult(List<Long> ruleIds, Map<String, Long> externalStandardCounts) {}
+
+    // IN 절 하나에 넣을 규칙 ID 최대 개수
+    private static final int ID_CHUNK_SIZE = 1000;
+
+    @PostConstruct
+    public void initializeCache() {
+        searchResultCache = new BoundedCache<>(cacheMaxSize, cacheTtl);
+    }
+
+    /**
+     * 키워드로 규칙을 검색하고 외부 표준별 개수를 집계합니다.
+     * 일치한 규칙 ID 와 표준 개수는 앞뒤 공백을 제거하고 소문자로 바꾼 검색어를 키로 캐시되며,
+     * 규칙 엔티티는 캐시 적중 여부와 관계없이 현재 트랜잭션에서 다시 조회합니다. 응답에는 요청한 검색어를 그대로 표시합니다.
+     */
     @Transactional(readOnly = true)
     public SearchResultDto searchRulesAndAnalyze(String keyword) {
-        List<ExternalMapping> allMappings = externalMappingRepository.findByRule_RuleNameContainingIgnoreCase(keyword);
+        String normalizedKeyword = keyword.trim().toLowerCase(Locale.ROOT);
+        return analyzerMetrics.search().record(() -> {
+            // 캐시 미스이면 계산 중에 조회한 규칙을 그대로 사용하고, 적중이면 ID 로 다시 조회합니다.
+            List<Rule> loadedRules = new ArrayList<>();
+            CachedSearchResult cached = searchResultCache.get(normalizedKeyword,
+                    key -> computeSearchResult(key, loadedRules));
+            List<Rule> foundRules = loadedRules.isEmpty() ? findRulesInOrder(cached.ruleIds()) : loadedRules;
+            return new SearchResultDto(foundRules, keyword, cached.externalStandardCounts());
+        });
+    }
+
+    /**
+     * 검색 결과 캐시의 적중/미스/제거 통계를 반환합니다.
+     */
+    public CacheStatsDto getSearchCacheStats() {
+        BoundedCache.Stats stats = searchResultCache.stats();
+        return new CacheStatsDto(stats.hits(), stats.misses(), stats.evictions(), stats.size(), stats.maxSize());
+    }
+
+    /**
+     * 룰팩 저장 트랜잭션이 커밋된 뒤에 검색 결과 캐시를 비웁니다.
+     * 규칙 이름 색인과 표준 개수 집계가 새 룰팩을 반영한 다음에 실행됩니다.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(RulePackChangedEvent.CACHE_LISTENER_ORDER)
+    public void onRulePackChanged(RulePackChangedEvent event) {
+        searchResultCache.invalidateAll();
+    }
+
+    /**
+     * 색인과 표준 개수 집계가 모두 준비되어 있으면 매핑 행을 읽지 않고,
+     * 일치한 규칙(룰팩 포함)만 조회한 뒤 미리 집계된 표준 개수를 합산합니다.
+     * 조회한 규칙은 foundRules 에 담고, 캐시에는 규칙 ID 만 남깁니다.
+     */
+    private CachedSearchResult computeSearchResult(String keyword, List<Rule> foundRules) {
+        if (!ruleNameIndex.isReady() || !standardCountIndex.isReady()) {
+            return computeSearchResultFromMappings(keyword, foundRules);
+        }
+        List<Long> ruleIds = ruleNameIndex.search(keyword);
+        Map<String, Rule> distinctRulesMap = new LinkedHashMap<>();
+        for (int from = 0; from < ruleIds.size(); from += ID_CHUNK_SIZE) {
+            List<Long> chunk = ruleIds.subList(from, Math.min(from + ID_CHUNK_SIZE, ruleIds.size()));
+            for (Rule rule : ruleRepository.findByIdInOrderByIdAsc(chunk)) {
+                distinctRulesMap.putIfAbsent(rule.getRuleName(), rule);
+            }
+        }
+        foundRules.addAll(distinctRulesMap.values());
+        Map<String, Long> externalStandardCounts = standardCountIndex.aggregate(ruleIds);
+        return new CachedSearchResult(ruleIdsOf(foundRules), externalStandardCounts);
+    }
+
+    private CachedSearchResult computeSearchResultFromMappings(String keyword, List<Rule> foundRules) {
+        List<ExternalMapping> allMappings = findMappingsByRuleName(keyword);
 
         Map<String, Rule> distinctRulesMap = new LinkedHashMap<>();
         for (ExternalMapping mapping : allMappings) {
             distinctRulesMap.putIfAbsent(mapping.getRule().getRuleName(), mapping.getRule());
         }
-        List<Rule> distinctRules = new ArrayList<>(distinctRulesMap.values());
+        foundRules.addAll(distinctRulesMap.values());
 
         Map<String, Long> externalStandardCounts = allMappings.stream()
                 .collect(Collectors.groupingBy(ExternalMapping::getStandardInfo, Collectors.counting()));
 
-        return new SearchResultDto(distinctRules, keyword, externalStandardCounts);
+        return new CachedSearchResult(ruleIdsOf(foundRules), externalStandardCounts);
+    }
+
+    private static List<Long> ruleIdsOf(List<Rule> rules) {
+        return rules.stream().map(Rule::getId).toList();
+    }
+
+    /**
+     * 캐시된 규칙 ID 의 규칙(룰팩 포함)을 현재 트랜잭션에서 ID 목록 순서대로 다시 조회합니다.
+     */
+    private List<Rule> findRulesInOrder(List<Long> ruleIds) {
+        Map<Long, Rule> rulesById = new HashMap<>();
+        for (int from = 0; from < ruleIds.size(); from += ID_CHUNK_SIZE) {
+            List<Long> chunk = ruleIds.subList(from, Math.min(from + ID_CHUNK_SIZE, ruleIds.size()));
+            for (Rule rule : ruleRepository.findByIdInOrderByIdAsc(chunk)) {
+                rulesById.put(rule.getId(), rule);
+            }
+        }
+        List<Rule> rules = new ArrayList<>(ruleIds.size());
+        for (Long ruleId : ruleIds) {
+            Rule rule = rulesById.get(ruleId);
+            if (rule != null) {
+                rules.add(rule);
+            }
+        }
+        return rules;
+    }
+
+    /**
+     * 규칙 이름 색인으로 일치하는 규칙 ID 를 찾은 뒤, 해당 ID 의 매핑만 DB 에서 조회합니다.
+     * 색인이 아직 준비되지 않았으면 기존 LIKE 검색을 사용합니다.
+     */
+    private List<ExternalMapping> findMappingsByRuleName(String keyword) {
+        if (!ruleNameIndex.isReady()) {
+            return externalMappingRepository.findByRule_RuleNameContainingIgnoreCase(keyword);
+        }
+        List<Long> ruleIds = ruleNameIndex.search(keyword);
+        List<ExternalMapping> mappings = new ArrayList<>();
+        for (int from = 0; from < ruleIds.size(); from += ID_CHUNK_SIZE) {
+            List<Long> chunk = ruleIds.subList(from, Math.min(from + ID_CHUNK_SIZE, ruleIds.size()));
+            mappings.addAll(externalMappingRepository.findByRule_IdInOrderByIdAsc(chunk));
+        }
+        return mappings;
+    }
+
+    /**
+     * 키셋(커서) 방식으로 검색 결과의 한 페이지를 프로젝션으로 조회합니다.
+     * 규칙 ID 오름차순으로 정렬되며, after 보다 큰 ID 부터 최대 limit 건을 반환합니다.
+     * @param after 이전 페이지의 nextCursor (첫 페이지는 null)
+     */
+    @Transactional(readOnly = true)
+    public RuleSearchPageDto searchRulePage(String keyword, Long after, int limit) {
+        List<Long> ruleIds = findRuleIds(keyword.trim());
+        int from = 0;
+        if (after != null) {
+            int position = Collections.binarySearch(ruleIds, after);
+            from = position >= 0 ? position + 1 : -position - 1;
+        }
+        int to = Math.min(from + limit, ruleIds.size());
+        List<Long> pageIds = ruleIds.subList(from, to);
+        List<RuleSummaryDto> items = pageIds.isEmpty() ? List.of() : ruleRepository.findSummariesByIdIn(pageIds);
+        Long nextCursor = to < ruleIds.size() ? pageIds.get(pageIds.size() - 1) : null;
+        return new RuleSearchPageDto(items, nextCursor);
+    }
+
+    /**
+     * 검색 결과 목록 없이 규칙 개수와 상위 외부 표준 통계만 계산합니다.
+     * @param top 반환할 외부 표준 개수
+     */
+    @Transactional(readOnly = true)
+    public RuleSearchSummaryDto summarizeSearch(String keyword, int top) {
+        List<Long> ruleIds = findRuleIds(keyword.trim());
+        Map<String, Long> counts = standardCountIndex.isReady()
+                ? standardCountIndex.aggregate(ruleIds)
+                : countStandardsInDatabase(ruleIds);
+        return new RuleSearchSummaryDto(keyword, ruleIds.size(), topStandards(counts, top));
+    }
+
+    /**
+     * 룰팩 하나에 속한 규칙들의 외부 표준별 매핑 개수를 많은 순으로 반환합니다. (수집 시점에 미리 집계된 값)
+     */
+    @Transactional(readOnly = true)
+    public List<StandardCountDto> getRulePackStandardCounts(Long rulePackId, int top) {
+        if (standardCountIndex.isReady()) {
+            return topStandards(standardCountIndex.getPackCounts(rulePackId), top);
+        }
+        return topStandards(countStandardsInDatabase(ruleRepository.findIdsByRulePackId(rulePackId)), top);
+    }
+
+    /**
+     * 표준 개수 집계를 사용할 수 없을 때, 규칙 ID 를 나눠 DB 에서 외부 표준별 개수를 집계합니다.
+     */
+    private Map<String, Long> countStandardsInDatabase(List<Long> ruleIds) {
+        Map<String, Long> counts = new HashMap<>();
+        for (int from = 0; from < ruleIds.size(); from += ID_CHUNK_SIZE) {
+            List<Long> chunk = ruleIds.subList(from, Math.min(from + ID_CHUNK_SIZE, ruleIds.size()));
+            for (StandardCountDto count : externalMappingRepository.countByStandardInfoForRuleIds(chunk)) {
+                counts.merge(count.standardInfo(), count.count(), Long::sum);
+            }
+        }
+        return counts;
+    }
+
+    private static List<StandardCountDto> topStandards(Map<String, Long> counts, int top) {
+        return counts.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                .limit(top)
+                .map(entry -> new StandardCountDto(entry.getKey(), entry.getValue()))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * 키워드와 일치하는 규칙 ID 를 오름차순으로 반환합니다. 색인을 사용할 수 없으면 DB 에서 ID 만 조회합니다.
+     */
+    private List<Long> findRuleIds(String keyword) {
+        return ruleNameIndex.isReady()
+                ? ruleNameIndex.search(keyword)
+                : ruleRepository.findIdsByRuleNameContaining(keyword);
     }
 
+    /**
+     * 상세 화면에 필요한 룰팩, 매핑, 언어를 모두 초기화한 규칙을 반환합니다.
+     * 룰팩/매핑은 조인 쿼리 한 번, 언어는 추가 쿼리 한 번으로 로딩하므로 매핑 수와 관계없이 쿼리 수가 일정합니다.
+     */
     @Transactional(readOnly = true)
     public Optional<Rule> getRuleDetails(Long id) {
-        return ruleRepository.findById(id);
+        Optional<Rule> rule = ruleRepository.findWithDetailsById(id);
+        rule.ifPresent(r -> Hibernate.initialize(r.getLanguages()));
+        return rule;
     }
 }
\ No newline at end of file
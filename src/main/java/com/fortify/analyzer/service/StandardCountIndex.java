@@ -0,0 +1,237 @@
+package com.fortify.analyzer.service;
+
+import com.fortify.analyzer.repository.ExternalMappingRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 규칙별/룰팩별 외부 표준 매핑 개수를 미리 집계해 두는 메모리 내 구조입니다.
+ * <p>
+ * 외부 표준 이름은 정수 ID 로 사전(dictionary) 인코딩하고, 규칙마다 매핑된 표준 ID 배열(int[])을,
+ * 룰팩마다 표준 ID 별 개수 배열을 보관합니다. 검색 시에는 매핑 행을 DB 에서 읽어 그룹핑하는 대신
+ * 일치한 규칙들의 작은 배열만 더하면 되므로, 넓은 키워드에서도 집계 비용이 일치한 규칙 수에만 비례합니다.
+ * <p>
+ * 애플리케이션 시작 시 전체 매핑을 한 번 읽어 만들고, 이후에는 {@link RulePackChangedEvent} 를 받으면
+ * 커밋된 해당 룰팩의 매핑만 읽어 갱신합니다.
+ * 전체 매핑을 읽는 동안 커밋된 변경은 따로 모아 두었다가 집계를 다시 만든 뒤 다시 적용합니다.
+ * 이미 집계된 규칙은 다시 더하지 않으므로, 읽은 매핑에 이미 포함된 변경도 한 번만 집계됩니다.
+ */
+@Component
+public class StandardCountIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(StandardCountIndex.class);
+
+    private final ExternalMappingRepository externalMappingRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // 외부 표준 이름 <-> 표준 ID
+    private final Map<String, Integer> standardIds = new HashMap<>();
+    private final List<String> standardNames = new ArrayList<>();
+    // 규칙 ID -> 매핑된 표준 ID 목록
+    private final Map<Long, int[]> standardsByRule = new HashMap<>();
+    // 룰팩 ID -> 표준 ID 별 매핑 개수 (배열 길이는 집계 당시의 사전 크기)
+    private final Map<Long, int[]> countsByPack = new HashMap<>();
+
+    // 집계를 다시 만드는 동안 반영된 새 룰팩의 매핑 행 (다시 만들고 있지 않으면 null, 쓰기 잠금으로 보호)
+    private List<List<ExternalMappingRepository.RuleStandardView>> changesDuringRebuild;
+
+    private volatile boolean ready;
+
+    public StandardCountIndex(ExternalMappingRepository externalMappingRepository) {
+        this.externalMappingRepository = externalMappingRepository;
+    }
+
+    /**
+     * 애플리케이션이 준비되면 DB 의 모든 매핑으로 집계를 다시 만듭니다.
+     * 실패하더라도 애플리케이션은 계속 동작하며, 이 경우 검색은 매핑 행을 직접 집계합니다.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.nanoTime();
+        lock.writeLock().lock();
+        try {
+            changesDuringRebuild = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        try {
+            List<ExternalMappingRepository.RuleStandardView> rows = externalMappingRepository.findAllRuleStandards();
+            int ruleCount;
+            lock.writeLock().lock();
+            try {
+                standardIds.clear();
+                standardNames.clear();
+                standardsByRule.clear();
+                countsByPack.clear();
+                addRows(rows);
+                // 매핑을 읽는 동안 커밋된 변경을 순서대로 다시 적용합니다. (이미 집계된 규칙은 건너뜀)
+                changesDuringRebuild.forEach(this::addRows);
+                ruleCount = standardsByRule.size();
+                ready = true;
+            } finally {
+                changesDuringRebuild = null;
+                lock.writeLock().unlock();
+            }
+            logger.info("Standard count index built: {} mappings, {} rules in {} ms",
+                    rows.size(), ruleCount, (System.nanoTime() - start) / 1_000_000);
+        } catch (Exception e) {
+            lock.writeLock().lock();
+            try {
+                changesDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            ready = false;
+            logger.warn("Could not build standard count index, falling back to per-search aggregation: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 집계가 만들어져 검색에 사용할 수 있는지 여부
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * 룰팩 저장 트랜잭션이 커밋된 뒤에 해당 룰팩의 매핑을 집계에 더합니다.
+     * 새로 저장된 룰팩의 매핑은 잠금 밖에서 DB 에서 읽으며, 읽지 못하면 집계를 사용하지 않습니다.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(RulePackChangedEvent.INDEX_LISTENER_ORDER)
+    public void onRulePackChanged(RulePackChangedEvent event) {
+        if (event.addedRules().isEmpty()) {
+            return;
+        }
+        List<ExternalMappingRepository.RuleStandardView> rows;
+        try {
+            rows = externalMappingRepository.findRuleStandardsByRulePackId(event.rulePackId());
+        } catch (Exception e) {
+            ready = false;
+            logger.warn("Could not load mappings of rule pack {}, falling back to per-search aggregation: {}",
+                    event.rulePackId(), e.getMessage());
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            addRows(rows);
+            if (changesDuringRebuild != null) {
+                changesDuringRebuild.add(rows);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 주어진 규칙들의 외부 표준별 매핑 개수를 합산합니다.
+     * @return Key: 외부 표준 이름, Value: 매핑 개수
+     */
+    public Map<String, Long> aggregate(Collection<Long> ruleIds) {
+        lock.readLock().lock();
+        try {
+            long[] counts = new long[standardNames.size()];
+            for (Long ruleId : ruleIds) {
+                int[] standards = standardsByRule.get(ruleId);
+                if (standards == null) continue;
+                for (int standardId : standards) {
+                    counts[standardId]++;
+                }
+            }
+            return toNamedCounts(counts);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 룰팩 하나의 외부 표준별 매핑 개수를 반환합니다.
+     * @return Key: 외부 표준 이름, Value: 매핑 개수 (룰팩이 없으면 빈 Map)
+     */
+    public Map<String, Long> getPackCounts(Long rulePackId) {
+        lock.readLock().lock();
+        try {
+            int[] packCounts = countsByPack.get(rulePackId);
+            if (packCounts == null) {
+                return Map.of();
+            }
+            long[] counts = new long[packCounts.length];
+            for (int i = 0; i < packCounts.length; i++) {
+                counts[i] = packCounts[i];
+            }
+            return toNamedCounts(counts);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Map<String, Long> toNamedCounts(long[] counts) {
+        Map<String, Long> result = new LinkedHashMap<>();
+        for (int standardId = 0; standardId < counts.length; standardId++) {
+            if (counts[standardId] > 0) {
+                result.put(standardNames.get(standardId), counts[standardId]);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 규칙 ID 순으로 정렬된 매핑 행을 규칙 단위로 묶어 추가합니다. (쓰기 잠금 안에서 호출)
+     */
+    private void addRows(List<ExternalMappingRepository.RuleStandardView> rows) {
+        int i = 0;
+        while (i < rows.size()) {
+            Long ruleId = rows.get(i).getRuleId();
+            Long rulePackId = rows.get(i).getRulePackId();
+            List<String> standards = new ArrayList<>();
+            for (; i < rows.size() && rows.get(i).getRuleId().equals(ruleId); i++) {
+                standards.add(rows.get(i).getStandardInfo());
+            }
+            addRule(ruleId, rulePackId, standards);
+        }
+    }
+
+    /**
+     * 규칙 하나의 표준 목록을 표준 ID 배열로 바꿔 저장하고 룰팩별 개수에 더합니다. (쓰기 잠금 안에서 호출)
+     * 저장된 규칙의 매핑은 바뀌지 않으므로, 이미 집계된 규칙이면 아무것도 하지 않습니다.
+     */
+    private void addRule(Long ruleId, Long rulePackId, Collection<String> standardInfos) {
+        if (standardsByRule.containsKey(ruleId)) {
+            return;
+        }
+        int[] standards = new int[standardInfos.size()];
+        int size = 0;
+        for (String standardInfo : standardInfos) {
+            standards[size++] = standardIds.computeIfAbsent(standardInfo, name -> {
+                standardNames.add(name);
+                return standardNames.size() - 1;
+            });
+        }
+        standardsByRule.put(ruleId, standards);
+
+        int[] packCounts = countsByPack.getOrDefault(rulePackId, new int[0]);
+        if (packCounts.length < standardNames.size()) {
+            packCounts = Arrays.copyOf(packCounts, standardNames.size());
+        }
+        for (int standardId : standards) {
+            packCounts[standardId]++;
+        }
+        countsByPack.put(rulePackId, packCounts);
+    }
+}
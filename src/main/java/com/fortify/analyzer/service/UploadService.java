@@ -6,152 +6,479 @@ import com.fortify.analyzer.entity.RulePack;
 import com.fortify.analyzer.repository.RulePackRepository;
 import com.fortify.analyzer.repository.RuleRepository;
 import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional; // 이 import는 유지됩니다.
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
-import org.w3c.dom.NodeList;
-
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
-import java.io.File;
+
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.StandardCopyOption;
 import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
-import java.util.zip.ZipInputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
 
 @Service
 @RequiredArgsConstructor
 public class UploadService {
 
+    private static final Logger logger = LoggerFactory.getLogger(UploadService.class);
+
     private final LogService logService;
 
     private final RulePackRepository rulePackRepository;
 
     private final RuleRepository ruleRepository;
 
+    // 룰팩 XML 파서 (upload.xml.parser 로 StAX/DOM 선택)
+    private final RulePackParser rulePackParser;
+
+    private final RulePackBatchWriter rulePackBatchWriter;
+
+    // ZIP 업로드 시 엔트리별 저장 트랜잭션에 사용합니다.
+    private final TransactionTemplate transactionTemplate;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    // 파싱/저장 단계별 처리 시간과 저장한 규칙/매핑 수
+    private final AnalyzerMetrics analyzerMetrics;
+
+    // 룰팩 저장 방식 선택 (jdbc: JDBC 배치 INSERT, jpa: 기존 JPA 단건 저장)
+    @Value("${upload.persist.mode:jdbc}")
+    private String persistMode;
+
+    // ZIP 업로드 시 동시에 파싱할 작업자 수 (0 이하이면 CPU 코어 수)
+    @Value("${upload.zip.parallelism:0}")
+    private int zipParallelism;
+
+    // ZIP 업로드 시 파싱 작업자가 저장 단계보다 앞서 메모리에 쌓아 둘 수 있는 매핑 수 (전체 엔트리 합계)
+    @Value("${upload.zip.max-buffered-mappings:100000}")
+    private int zipMaxBufferedMappings;
+
+    // ZIP 업로드 시 파싱 작업자가 저장 단계로 한 번에 넘기는 매핑 수
+    private static final int MAPPING_CHUNK_SIZE = 1000;
+
+    // 엔트리의 매핑을 모두 넘겼음을 알리는 표시 (동일 객체 비교)
+    private static final List<ExternalMetadataReader.Mapping> END_OF_ENTRY = new ArrayList<>(0);
+
     // ✨ @Transactional 어노테이션 제거. 예외 처리는 Controller에서 담당.
+    // 업로드 파일은 디스크(multipart 임시 파일)에 저장되어 있으므로 byte[] 로 복사하지 않고 스트림에서 바로 파싱합니다.
+    // 매핑은 읽는 대로 묶음 단위로 저장하므로 룰팩 전체를 메모리에 올리지 않습니다.
+    // 같은 위치에 이미 같은 내용(SHA-256)의 룰팩이 저장되어 있으면 파싱 없이 건너뜁니다.
     public String processAndSaveFile(MultipartFile file) throws Exception {
-        byte[] bytes = file.getBytes();
-        return parseAndSaveSingleXml(new ByteArrayInputStream(bytes), file.getOriginalFilename());
+        String location = file.getOriginalFilename();
+        ContentFingerprint fingerprint = ContentFingerprint.of(file::getInputStream);
+        if (rulePackRepository.existsByLocationAndContentSha256(location, fingerprint.sha256())) {
+            return skipUnchangedContent(location, fingerprint);
+        }
+        return saveUnlessStoredConcurrently(location, fingerprint,
+                () -> parseAndSave(file::getInputStream, location, fingerprint.sha256()));
     }
 
-    // ✨ @Transactional 어노테이션 제거.
+    /**
+     * ZIP 파일 안의 모든 externalmetadata.xml 을 파싱하여 저장합니다.
+     * <p>
+     * 임시 디렉터리에 압축을 풀지 않고, ZIP 파일을 {@link ZipFile} 로 열어 각 엔트리를 파서에 직접 스트리밍합니다.
+     * 파싱은 크기가 제한된 작업자 풀에서 병렬로 수행하고, DB 저장은 호출 스레드 하나에서 엔트리 순서대로
+     * 직렬로 수행합니다. 작업자는 매핑을 {@value #MAPPING_CHUNK_SIZE} 개씩 엔트리별 큐로 넘기고 큐가 차면 멈추므로,
+     * 저장을 기다리며 메모리에 쌓이는 매핑은 룰팩 크기와 관계없이 upload.zip.max-buffered-mappings 정도로 제한됩니다.
+     * 같은 위치에 내용(SHA-256)이 같은 룰팩이 이미 저장된 엔트리는 파싱하지 않고 건너뛰며, 건너뛴 개수와 절약한 바이트 수를
+     * 마지막 요약 메시지로 알려줍니다. 작업자의 확인은 앞선 엔트리가 저장되기 전에 일어날 수 있으므로,
+     * 같은 ZIP 안에 같은 위치/내용(또는 버전)의 엔트리가 여러 개 있으면 저장 단계에서 다시 확인하여 처음 것만 저장합니다.
+     * @return 엔트리 순서대로 정렬된 처리 결과 메시지 목록
+     */
     public List<String> processAndSaveZipFile(MultipartFile zipFile) throws IOException {
         List<String> results = new ArrayList<>();
-        Path tempDir = Files.createTempDirectory("unzip-");
-
-        try (ZipInputStream zis = new ZipInputStream(zipFile.getInputStream())) {
-            var zipEntry = zis.getNextEntry();
-            while (zipEntry != null) {
-                Path newPath = tempDir.resolve(zipEntry.getName());
-                if (!zipEntry.isDirectory()) {
-                    Files.createDirectories(newPath.getParent());
-                    Files.copy(zis, newPath, StandardCopyOption.REPLACE_EXISTING);
+        // ZipFile 은 임의 접근이 필요하므로 업로드된 ZIP 자체만 임시 파일로 옮깁니다. (압축 해제는 하지 않음)
+        Path tempZip = Files.createTempFile("upload-", ".zip");
+
+        try {
+            zipFile.transferTo(tempZip);
+            try (ZipFile zip = new ZipFile(tempZip.toFile())) {
+                List<? extends ZipEntry> xmlEntries = zip.stream()
+                        .filter(entry -> !entry.isDirectory() && isExternalMetadataEntry(entry))
+                        .collect(Collectors.toList());
+
+                if (xmlEntries.isEmpty()) {
+                    results.add("경고: ZIP 파일 안에 'externalmetadata.xml' 파일이 없습니다.");
+                    return results;
                 }
-                zipEntry = zis.getNextEntry();
-            }
-            zis.closeEntry();
-            
-            List<File> xmlFiles = Files.walk(tempDir)
-                    .filter(path -> path.getFileName().toString().equalsIgnoreCase("externalmetadata.xml"))
-                    .map(Path::toFile)
-                    .collect(Collectors.toList());
-
-            if (xmlFiles.isEmpty()) {
-                results.add("경고: ZIP 파일 안에 'externalmetadata.xml' 파일이 없습니다.");
-            } else {
-                for (File xmlFile : xmlFiles) {
-                    Path xmlPath = xmlFile.toPath();
-                    String location = tempDir.relativize(xmlPath).toString(); 
-                    try (InputStream is = Files.newInputStream(xmlPath)) {
-                        // 개별 파일 처리 결과와 로그를 추가
-                        String resultMessage = parseAndSaveSingleXml(is, location);
-                        results.add(resultMessage);
-                        logService.log("Upload-Zip", resultMessage);
-                    } catch (Exception e) {
-                        String errorMessage = "❌ (처리 실패) '" + location + "' 파일 처리 중 오류 발생.";
-                        results.add(errorMessage);
-                        logService.logError("Upload-Zip", errorMessage, e);
+
+                int skippedCount = 0;
+                long bytesSaved = 0;
+                int workers = Math.min(resolveZipParallelism(), xmlEntries.size());
+                // 저장 단계보다 앞서 파싱할 수 있는 엔트리 수와, 엔트리마다 큐에 쌓아 둘 수 있는 매핑 묶음 수
+                int window = workers * 2;
+                int chunksPerEntry = Math.max(1, zipMaxBufferedMappings / (window * MAPPING_CHUNK_SIZE));
+                ExecutorService parserPool = Executors.newFixedThreadPool(workers);
+                try {
+                    List<ZipEntryParse> parses = new ArrayList<>(xmlEntries.size());
+                    for (int i = 0; i < Math.min(window, xmlEntries.size()); i++) {
+                        parses.add(submitParse(parserPool, zip, xmlEntries.get(i), chunksPerEntry));
+                    }
+
+                    // 저장 단계: 엔트리 순서대로 하나씩 저장하고, 끝난 자리만큼 다음 엔트리의 파싱을 요청합니다.
+                    for (int i = 0; i < xmlEntries.size(); i++) {
+                        String location = xmlEntries.get(i).getName();
+                        ZipEntryParse parse = parses.get(i);
+                        try {
+                            EntryHeader header = parse.header.get();
+                            String resultMessage;
+                            // 작업자가 확인한 뒤에 같은 ZIP 안의 앞선 엔트리가 같은 위치에 같은 내용(또는 버전)으로
+                            // 저장되었을 수 있으므로 저장 단계에서 다시 확인합니다.
+                            if (header.contentUnchanged()
+                                    || rulePackRepository.existsByLocationAndContentSha256(location, header.fingerprint().sha256())) {
+                                skippedCount++;
+                                bytesSaved += header.fingerprint().length();
+                                resultMessage = skipUnchangedContent(location, header.fingerprint());
+                            } else if (header.alreadyStored()
+                                    || rulePackRepository.findByLocationAndPackVersion(location, header.packInfo().version()).isPresent()) {
+                                resultMessage = skipStoredVersion(location, header.packInfo());
+                            } else {
+                                resultMessage = saveUnlessStoredConcurrently(location, header.fingerprint(),
+                                        () -> saveRulePack(header.packInfo(), location, header.fingerprint().sha256(), parse::drainTo));
+                            }
+                            results.add(resultMessage);
+                            logService.log("Upload-Zip", resultMessage);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            throw new InterruptedIOException("ZIP 파일 처리가 중단되었습니다.");
+                        } catch (Exception e) {
+                            Throwable cause = e instanceof ExecutionException ? e.getCause() : e;
+                            String errorMessage = "❌ (처리 실패) '" + location + "' 파일 처리 중 오류 발생.";
+                            results.add(errorMessage);
+                            logService.logError("Upload-Zip", errorMessage, cause);
+                        }
+                        // 건너뛰거나 실패하여 매핑을 끝까지 받지 않은 엔트리의 작업자를 멈춥니다. (끝난 작업이면 아무 일도 하지 않음)
+                        parse.cancel();
+                        parses.set(i, null);
+                        if (i + window < xmlEntries.size()) {
+                            parses.add(submitParse(parserPool, zip, xmlEntries.get(i + window), chunksPerEntry));
+                        }
                     }
+                } finally {
+                    parserPool.shutdownNow();
                 }
+                results.add("요약: 전체 " + xmlEntries.size() + "개 중 내용이 동일한 " + skippedCount
+                        + "개를 파싱 없이 건너뛰었습니다. (절약 " + bytesSaved + " bytes)");
             }
         } finally {
-            Files.walk(tempDir)
-                 .sorted(Comparator.reverseOrder())
-                 .map(Path::toFile)
-                 .forEach(File::delete);
+            Files.deleteIfExists(tempZip);
         }
         return results;
     }
-    
+
     // ✨ 실제 DB 작업이 일어나는 이 메소드에 @Transactional을 붙입니다.
     @Transactional
     public String parseAndSaveSingleXml(InputStream inputStream, String location) throws Exception {
-        ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        inputStream.transferTo(baos);
-        byte[] bytes = baos.toByteArray();
-
-        DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
-        DocumentBuilder builder = factory.newDocumentBuilder();
-        Document doc = builder.parse(new ByteArrayInputStream(bytes));
-        Element root = doc.getDocumentElement();
-
-        NodeList packInfoNodes = root.getElementsByTagName("PackInfo");
-        if (packInfoNodes.getLength() == 0) {
-            throw new Exception("파일 '" + location + "'에서 <PackInfo>를 찾을 수 없습니다.");
+        return parseAndSave(() -> inputStream, location, null);
+    }
+
+    /**
+     * ZIP 엔트리 파싱 작업이 매핑보다 먼저 저장 단계로 넘기는 정보입니다.
+     * 이미 DB에 같은 위치/버전의 룰팩이 있으면 alreadyStored 가 true 이고 매핑은 읽지 않습니다.
+     * 같은 위치에 내용이 같은 룰팩이 이미 있으면 contentUnchanged 가 true 이고 파싱 자체를 하지 않았으므로 packInfo 가 null 입니다.
+     */
+    private record EntryHeader(ExternalMetadataReader.PackInfo packInfo,
+                               boolean alreadyStored,
+                               boolean contentUnchanged,
+                               ContentFingerprint fingerprint) {}
+
+    /**
+     * 파일 내용의 SHA-256 지문과 길이입니다.
+     */
+    private record ContentFingerprint(String sha256, long length) {
+
+        static ContentFingerprint of(InputStreamSource source) throws IOException {
+            MessageDigest digest;
+            try {
+                digest = MessageDigest.getInstance("SHA-256");
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-256 알고리즘을 사용할 수 없습니다.", e);
+            }
+            byte[] buffer = new byte[64 * 1024];
+            long length = 0;
+            try (InputStream inputStream = source.open()) {
+                int read;
+                while ((read = inputStream.read(buffer)) != -1) {
+                    digest.update(buffer, 0, read);
+                    length += read;
+                }
+            }
+            return new ContentFingerprint(HexFormat.of().formatHex(digest.digest()), length);
         }
-        Element packInfoElement = (Element) packInfoNodes.item(0);
-        String packName = packInfoElement.getElementsByTagName("Name").item(0).getTextContent();
-        String packId = packInfoElement.getElementsByTagName("PackID").item(0).getTextContent();
-        String packVersion = packInfoElement.getElementsByTagName("Version").item(0).getTextContent();
-
-        if (rulePackRepository.findByLocationAndPackVersion(location, packVersion).isPresent()) {
-            String warningMessage = "경고: '" + location + "' 파일의 버전 '" + packVersion + "'은(는) 이미 DB에 존재하므로 건너뜁니다.";
-            return warningMessage;
+    }
+
+    /**
+     * 같은 내용을 두 번 읽을 수 있도록 스트림을 새로 열어주는 공급자입니다. (디스크 기반 multipart, ZIP 엔트리 등)
+     */
+    @FunctionalInterface
+    private interface InputStreamSource {
+        InputStream open() throws IOException;
+    }
+
+    /**
+     * 룰팩의 매핑을 처음부터 끝까지 consumer 에 넘기는 공급자입니다.
+     */
+    @FunctionalInterface
+    private interface MappingSource {
+        void forEach(RulePackParser.MappingConsumer consumer) throws Exception;
+    }
+
+    /**
+     * ZIP 엔트리 하나를 작업자 스레드에서 파싱하여 저장 단계로 넘기는 작업입니다.
+     * 헤더(지문, PackInfo, 중복 여부)를 먼저 넘기고, 매핑은 {@value #MAPPING_CHUNK_SIZE} 개씩 크기가 제한된 큐로 넘기므로
+     * 저장 단계가 따라오지 못하면 큐가 빌 때까지 파싱을 멈춥니다.
+     */
+    private final class ZipEntryParse implements Runnable {
+
+        private final ZipFile zip;
+        private final ZipEntry entry;
+        private final CompletableFuture<EntryHeader> header = new CompletableFuture<>();
+        private final BlockingQueue<List<ExternalMetadataReader.Mapping>> chunks;
+        // 헤더를 넘긴 뒤 매핑을 읽다가 발생한 예외 (END_OF_ENTRY 보다 먼저 기록)
+        private volatile Exception failure;
+        private List<ExternalMetadataReader.Mapping> chunk = new ArrayList<>(MAPPING_CHUNK_SIZE);
+        private Future<?> task;
+
+        private ZipEntryParse(ZipFile zip, ZipEntry entry, int chunkCapacity) {
+            this.zip = zip;
+            this.entry = entry;
+            this.chunks = new ArrayBlockingQueue<>(chunkCapacity);
         }
-        
+
+        @Override
+        public void run() {
+            try {
+                ContentFingerprint fingerprint = ContentFingerprint.of(() -> zip.getInputStream(entry));
+                if (rulePackRepository.existsByLocationAndContentSha256(entry.getName(), fingerprint.sha256())) {
+                    header.complete(new EntryHeader(null, true, true, fingerprint));
+                    return;
+                }
+                try (InputStream inputStream = zip.getInputStream(entry);
+                     RulePackParser.RulePackReader reader = rulePackParser.open(inputStream, entry.getName())) {
+                    boolean alreadyStored = rulePackRepository
+                            .findByLocationAndPackVersion(entry.getName(), reader.packInfo().version()).isPresent();
+                    header.complete(new EntryHeader(reader.packInfo(), alreadyStored, false, fingerprint));
+                    if (alreadyStored) {
+                        return;
+                    }
+                    readMappings(reader, (ruleName, standardInfo) -> {
+                        chunk.add(new ExternalMetadataReader.Mapping(ruleName, standardInfo));
+                        if (chunk.size() == MAPPING_CHUNK_SIZE) {
+                            chunks.put(chunk);
+                            chunk = new ArrayList<>(MAPPING_CHUNK_SIZE);
+                        }
+                    });
+                    if (!chunk.isEmpty()) {
+                        chunks.put(chunk);
+                    }
+                    chunks.put(END_OF_ENTRY);
+                }
+            } catch (InterruptedException e) {
+                // 저장 단계에서 이 엔트리를 취소했습니다.
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                if (!header.completeExceptionally(e)) {
+                    failure = e;
+                    try {
+                        chunks.put(END_OF_ENTRY);
+                    } catch (InterruptedException interrupted) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            }
+        }
+
+        /**
+         * 작업자가 넘기는 매핑을 엔트리 끝까지 consumer 에 넘깁니다. (저장 단계에서 호출)
+         */
+        private void drainTo(RulePackParser.MappingConsumer consumer) throws Exception {
+            List<ExternalMetadataReader.Mapping> received;
+            while ((received = chunks.take()) != END_OF_ENTRY) {
+                for (ExternalMetadataReader.Mapping mapping : received) {
+                    consumer.accept(mapping.internalCategory(), mapping.externalCategory());
+                }
+            }
+            if (failure != null) {
+                throw failure;
+            }
+        }
+
+        private void cancel() {
+            task.cancel(true);
+        }
+    }
+
+    /**
+     * 스트림에서 룰팩을 읽어 저장합니다. 호출하는 쪽의 트랜잭션 안에서 실행해야 합니다.
+     * 같은 위치/버전의 룰팩이 이미 있으면 매핑을 읽지 않고 건너뜁니다.
+     * @param contentSha256 파일 내용의 SHA-256 지문 (없으면 null)
+     */
+    private String parseAndSave(InputStreamSource source, String location, String contentSha256) throws Exception {
+        try (InputStream inputStream = source.open();
+             RulePackParser.RulePackReader reader = rulePackParser.open(inputStream, location)) {
+            ExternalMetadataReader.PackInfo packInfo = reader.packInfo();
+            if (rulePackRepository.findByLocationAndPackVersion(location, packInfo.version()).isPresent()) {
+                return skipStoredVersion(location, packInfo);
+            }
+            return saveRulePack(packInfo, location, contentSha256, consumer -> readMappings(reader, consumer));
+        }
+    }
+
+    private ZipEntryParse submitParse(ExecutorService parserPool, ZipFile zip, ZipEntry entry, int chunkCapacity) {
+        ZipEntryParse parse = new ZipEntryParse(zip, entry, chunkCapacity);
+        parse.task = parserPool.submit(parse);
+        return parse;
+    }
+
+    /**
+     * work 를 트랜잭션 안에서 실행합니다. work 가 던진 검사 예외는 롤백한 뒤 그대로 다시 던집니다.
+     */
+    private <T> T executeInTransaction(Callable<T> work) throws Exception {
+        try {
+            return transactionTemplate.execute(status -> {
+                try {
+                    return work.call();
+                } catch (RuntimeException e) {
+                    throw e;
+                } catch (Exception e) {
+                    throw new UndeclaredThrowableException(e);
+                }
+            });
+        } catch (UndeclaredThrowableException e) {
+            throw (Exception) e.getUndeclaredThrowable();
+        }
+    }
+
+    /**
+     * save 를 트랜잭션 안에서 실행합니다. 확인 이후 다른 요청이 같은 위치에 같은 내용의 룰팩을 먼저 저장하여
+     * 유니크 제약조건에 걸리면, 실패 대신 내용이 동일한 룰팩으로 건너뜁니다.
+     */
+    private String saveUnlessStoredConcurrently(String location, ContentFingerprint fingerprint,
+                                                Callable<String> save) throws Exception {
+        try {
+            return executeInTransaction(save);
+        } catch (DataIntegrityViolationException e) {
+            if (rulePackRepository.existsByLocationAndContentSha256(location, fingerprint.sha256())) {
+                return skipUnchangedContent(location, fingerprint);
+            }
+            throw e;
+        }
+    }
+
+    private boolean isExternalMetadataEntry(ZipEntry entry) {
+        String name = entry.getName();
+        String fileName = name.substring(name.lastIndexOf('/') + 1);
+        return fileName.equalsIgnoreCase("externalmetadata.xml");
+    }
+
+    private int resolveZipParallelism() {
+        return zipParallelism > 0 ? zipParallelism : Runtime.getRuntime().availableProcessors();
+    }
+
+    private String skipUnchangedContent(String location, ContentFingerprint fingerprint) {
+        analyzerMetrics.recordSkippedRulePack();
+        return "경고: '" + location + "' 위치에 내용이 동일한 룰팩이 이미 DB에 존재하므로 파싱 없이 건너뜁니다. (건너뜀 1건, 절약 "
+                + fingerprint.length() + " bytes)";
+    }
+
+    private String skipStoredVersion(String location, ExternalMetadataReader.PackInfo packInfo) {
+        analyzerMetrics.recordSkippedRulePack();
+        return "경고: '" + location + "' 파일의 버전 '" + packInfo.version() + "'은(는) 이미 DB에 존재하므로 건너뜁니다.";
+    }
+
+    /**
+     * 남은 <Mapping> 을 순서대로 consumer 에 넘기고, XML 을 읽는 데 걸린 시간을 파싱 단계 시간으로 기록합니다.
+     */
+    private void readMappings(RulePackParser.RulePackReader reader, RulePackParser.MappingConsumer consumer) throws Exception {
+        analyzerMetrics.uploadParse().record(rulePackParser.readMappings(reader, consumer), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * 룰팩을 저장한 뒤, source 가 넘기는 매핑을 규칙/매핑으로 저장합니다.
+     * upload.persist.mode 가 jdbc(기본값)이면 매핑을 받는 대로 JDBC 배치 INSERT 로 나눠 저장하고,
+     * jpa 이면 기존 JPA 저장 방식을 사용합니다. (jpa 는 비교용 경로로, 룰팩 전체를 메모리에 모은 뒤 저장합니다)
+     * @param contentSha256 파일 내용의 SHA-256 지문 (없으면 null)
+     */
+    private String saveRulePack(ExternalMetadataReader.PackInfo packInfo, String location, String contentSha256,
+                                MappingSource source) throws Exception {
         RulePack newRulePack = new RulePack();
-        newRulePack.setPackName(packName);
-        newRulePack.setPackId(packId);
-        newRulePack.setPackVersion(packVersion);
+        newRulePack.setPackName(packInfo.name());
+        newRulePack.setPackId(packInfo.packId());
+        newRulePack.setPackVersion(packInfo.version());
         newRulePack.setLocation(location);
+        newRulePack.setContentSha256(contentSha256);
         rulePackRepository.save(newRulePack);
 
-        Map<String, Rule> ruleCache = new HashMap<>();
-        Set<String> addedMappings = new HashSet<>();
-        NodeList mappingNodes = root.getElementsByTagName("Mapping");
+        RulePackBatchWriter.WriteResult writeResult;
+        if ("jpa".equalsIgnoreCase(persistMode)) {
+            Map<String, Set<String>> mappingsByRule = new LinkedHashMap<>();
+            source.forEach((ruleName, standardInfo) ->
+                    mappingsByRule.computeIfAbsent(ruleName, k -> new LinkedHashSet<>()).add(standardInfo));
+            writeResult = saveRulesWithJpa(newRulePack, mappingsByRule);
+        } else {
+            RulePackBatchWriter.Session session = rulePackBatchWriter.open(newRulePack.getId());
+            source.forEach(session::add);
+            writeResult = session.finish();
+        }
+        analyzerMetrics.uploadPersist().record(writeResult.elapsedNanos(), TimeUnit.NANOSECONDS);
 
-        for (int i = 0; i < mappingNodes.getLength(); i++) {
-            Element mappingElement = (Element) mappingNodes.item(i);
-            String ruleName = mappingElement.getElementsByTagName("InternalCategory").item(0).getTextContent();
-            String standardInfo = mappingElement.getElementsByTagName("ExternalCategory").item(0).getTextContent();
+        Map<Long, String> addedRules = new HashMap<>();
+        writeResult.ruleIds().forEach((ruleName, ruleId) -> addedRules.put(ruleId, ruleName));
+        // 검색 색인/표준 개수 집계/캐시는 이 이벤트를 받아 트랜잭션 커밋 이후에 갱신됩니다.
+        eventPublisher.publishEvent(new RulePackChangedEvent(newRulePack.getId(), addedRules));
+        analyzerMetrics.recordIngested(writeResult.ruleCount(), writeResult.mappingCount());
 
-            String mappingKey = ruleName + "::" + standardInfo;
-            if (addedMappings.contains(mappingKey)) continue;
+        logger.info("Rule pack '{}' persisted in {} mode: {} rules, {} mappings, {} ms ({} rows/s)",
+                location, persistMode, writeResult.ruleCount(), writeResult.mappingCount(),
+                writeResult.elapsedNanos() / 1_000_000, writeResult.rowsPerSecond());
 
-            Rule currentRule = ruleCache.computeIfAbsent(ruleName, k -> {
-                Rule newRule = new Rule();
-                newRule.setRuleName(k);
-                newRule.setRulePack(newRulePack);
-                return ruleRepository.save(newRule);
-            });
-            
-            ExternalMapping newMapping = new ExternalMapping();
-            newMapping.setStandardInfo(standardInfo);
-            newMapping.setRule(currentRule);
-            currentRule.getMappings().add(newMapping);
-            addedMappings.add(mappingKey);
+        return "✅ (처리 완료) '" + location + "' (버전: " + packInfo.version() + ") 파일의 룰팩과 규칙들을 DB에 새로 추가했습니다. "
+                + "(규칙 " + writeResult.ruleCount() + "건, 매핑 " + writeResult.mappingCount() + "건, 초당 " + writeResult.rowsPerSecond() + "행)";
+    }
+
+    private RulePackBatchWriter.WriteResult saveRulesWithJpa(RulePack rulePack, Map<String, Set<String>> mappingsByRule) {
+        long start = System.nanoTime();
+        int mappingCount = 0;
+        List<Rule> rules = new ArrayList<>(mappingsByRule.size());
+        for (Map.Entry<String, Set<String>> entry : mappingsByRule.entrySet()) {
+            Rule newRule = new Rule();
+            newRule.setRuleName(entry.getKey());
+            newRule.setRulePack(rulePack);
+            for (String standardInfo : entry.getValue()) {
+                ExternalMapping newMapping = new ExternalMapping();
+                newMapping.setStandardInfo(standardInfo);
+                newMapping.setRule(newRule);
+                newRule.getMappings().add(newMapping);
+                mappingCount++;
+            }
+            rules.add(newRule);
         }
-        ruleRepository.saveAll(ruleCache.values());
-        
-        return "✅ (처리 완료) '" + location + "' (버전: " + packVersion + ") 파일의 룰팩과 규칙들을 DB에 새로 추가했습니다.";
+        ruleRepository.saveAll(rules);
+        ruleRepository.flush();
+        Map<String, Long> ruleIds = new HashMap<>();
+        rules.forEach(rule -> ruleIds.put(rule.getRuleName(), rule.getId()));
+        return new RulePackBatchWriter.WriteResult(rules.size(), mappingCount, System.nanoTime() - start, ruleIds);
     }
-}
\ No newline at end of file
+}
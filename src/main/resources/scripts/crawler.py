@@ -4,6 +4,7 @@ Java로부터 kingdom과 pages를 인자로 받아 단일 카테고리를 크롤
 """
 
 from datetime import datetime
+import hashlib
 import logging
 import os
 import time
@@ -23,26 +24,136 @@ logger = logging.getLogger(__name__)
 # --- 기본 URL 설정 ---
 BASE_URL = "https://vulncat.fortify.com"
 
-def get_soup(url, params=None):
-    """지정된 URL에서 BeautifulSoup 객체를 반환합니다."""
-    try:
-        response = requests.get(url, params=params, timeout=15)
+# --- 요청 간격 설정 (Java 스케줄러가 호스트 전체 요청 예산을 나누어 --request-interval 로 전달) ---
+REQUEST_INTERVAL = 0.5
+_last_request_at = 0.0
+
+def throttle():
+    """직전 요청 이후 REQUEST_INTERVAL 초가 지날 때까지 기다립니다."""
+    global _last_request_at
+    wait = _last_request_at + REQUEST_INTERVAL - time.monotonic()
+    if wait > 0:
+        time.sleep(wait)
+    _last_request_at = time.monotonic()
+
+class ResponseCache:
+    """
+    URL 별 응답 본문과 검증자(ETag, Last-Modified, 본문 해시), 파싱 결과를 디스크에 보관하는 캐시입니다.
+    저장된 검증자로 조건부 요청을 보내고, 서버가 304 를 돌려주거나 본문 해시가 같으면 저장된 파싱 결과를 재사용합니다.
+    """
+
+    def __init__(self, cache_dir):
+        self.cache_dir = cache_dir
+        os.makedirs(cache_dir, exist_ok=True)
+        # fetched: 새로 받았거나 내용이 바뀐 페이지, unchanged: 200 이지만 본문 해시가 같은 페이지, cached: 304 로 캐시를 사용한 페이지
+        self.stats = {"fetched": 0, "unchanged": 0, "cached": 0}
+
+    def _path(self, url, suffix):
+        return os.path.join(self.cache_dir, hashlib.sha256(url.encode('utf-8')).hexdigest() + suffix)
+
+    def _read_json(self, path):
+        try:
+            with open(path, encoding='utf-8') as f:
+                return json.load(f)
+        except (OSError, ValueError):
+            return None
+
+    def _write(self, path, text):
+        # 여러 크롤러 프로세스가 같은 캐시 디렉터리를 쓰므로 임시 파일에 쓴 뒤 교체합니다.
+        tmp_path = f"{path}.{os.getpid()}.tmp"
+        with open(tmp_path, 'w', encoding='utf-8') as f:
+            f.write(text)
+        os.replace(tmp_path, path)
+
+    def fetch(self, url):
+        """(본문, 본문 해시, 내용이 바뀌었는지 여부)를 반환합니다."""
+        meta_path, body_path = self._path(url, '.meta.json'), self._path(url, '.html')
+        meta = self._read_json(meta_path) if os.path.exists(body_path) else None
+        headers = {}
+        if meta:
+            if meta.get('etag'):
+                headers['If-None-Match'] = meta['etag']
+            if meta.get('last_modified'):
+                headers['If-Modified-Since'] = meta['last_modified']
+
+        throttle()
+        response = requests.get(url, headers=headers, timeout=15)
+        if response.status_code == 304 and meta:
+            self.stats['cached'] += 1
+            with open(body_path, encoding='utf-8') as f:
+                return f.read(), meta['sha256'], False
         response.raise_for_status()
-        return BeautifulSoup(response.text, 'html.parser')
+
+        text = response.text
+        digest = hashlib.sha256(text.encode('utf-8')).hexdigest()
+        changed = not meta or meta.get('sha256') != digest
+        if changed:
+            self.stats['fetched'] += 1
+            self._write(body_path, text)
+        else:
+            self.stats['unchanged'] += 1
+        self._write(meta_path, json.dumps({
+            'url': url,
+            'etag': response.headers.get('ETag'),
+            'last_modified': response.headers.get('Last-Modified'),
+            'sha256': digest,
+        }))
+        return text, digest, changed
+
+    def load_parsed(self, url, digest):
+        parsed = self._read_json(self._path(url, '.parsed.json'))
+        if parsed and parsed.get('sha256') == digest:
+            return parsed['data']
+        return None
+
+    def save_parsed(self, url, digest, data):
+        self._write(self._path(url, '.parsed.json'), json.dumps({'sha256': digest, 'data': data}, ensure_ascii=False))
+
+
+# 증분 모드에서 사용하는 응답 캐시 (--incremental 이 아니면 None)
+CACHE = None
+# 이번 실행에서 읽은 페이지들의 본문 해시 (카테고리 결과가 바뀌었는지 판단)
+PAGE_HASHES = []
+
+def fetch_and_extract(url, params, extract):
+    """
+    페이지를 받아 extract(soup) 결과를 반환합니다. 실패하면 None 을 반환합니다.
+    증분 모드에서는 본문이 바뀌지 않은 페이지를 다시 파싱하지 않고 저장된 결과를 사용합니다.
+    """
+    full_url = requests.Request('GET', url, params=params).prepare().url
+    try:
+        if CACHE is None:
+            throttle()
+            response = requests.get(full_url, timeout=15)
+            response.raise_for_status()
+            PAGE_HASHES.append(hashlib.sha256(response.text.encode('utf-8')).hexdigest())
+            return extract(BeautifulSoup(response.text, 'html.parser'))
+
+        text, digest, changed = CACHE.fetch(full_url)
+        PAGE_HASHES.append(digest)
+        if not changed:
+            data = CACHE.load_parsed(full_url, digest)
+            if data is not None:
+                return data
+        data = extract(BeautifulSoup(text, 'html.parser'))
+        CACHE.save_parsed(full_url, digest, data)
+        return data
     except requests.RequestException as e:
-        logger.error(f"URL 요청 중 오류 발생: {url}, {e}")
+        logger.error(f"URL 요청 중 오류 발생: {full_url}, {e}")
+        PAGE_HASHES.append("error")
         return None
 
 def scrape_kingdom_description(kingdom: str) -> str:
     """주어진 카테고리의 설명 텍스트를 스크래핑합니다."""
     logger.info(f"[{kingdom}] 카테고리 설명 스크래핑 중...")
+
+    def extract(soup):
+        desc_element = soup.select_one("div.panel p")
+        return desc_element.get_text(strip=True) if desc_element else "Category description not found."
+
     try:
-        soup = get_soup(f"{BASE_URL}/ko/weakness", params={"kingdom": kingdom})
-        if soup:
-            desc_element = soup.select_one("div.panel p")
-            if desc_element:
-                return desc_element.get_text(strip=True)
-        return "Category description not found."
+        description = fetch_and_extract(f"{BASE_URL}/ko/weakness", {"kingdom": kingdom}, extract)
+        return description if description is not None else "Category description not found."
     except Exception as e:
         logger.error(f"[{kingdom}] 카테고리 설명 스크래핑 실패: {e}")
         return "Error scraping category description."
@@ -50,10 +161,8 @@ def scrape_kingdom_description(kingdom: str) -> str:
 def scrape_list_page(kingdom: str, page_num: int) -> list[dict]:
     """취약점 목록 페이지에서 기본 정보를 스크래핑합니다."""
     logger.info(f"[{kingdom}] 목록 페이지 스크래핑 중... (페이지 {page_num})")
-    try:
-        soup = get_soup(f"{BASE_URL}/ko/weakness", params={"kingdom": kingdom, "po": page_num})
-        if not soup: return []
-            
+
+    def extract(soup):
         vulnerabilities = []
         for cell in soup.select(".weaknessCell"):
             title_el = cell.select_one("h1")
@@ -66,6 +175,9 @@ def scrape_list_page(kingdom: str, page_num: int) -> list[dict]:
                     "kingdom": kingdom
                 })
         return vulnerabilities
+
+    try:
+        return fetch_and_extract(f"{BASE_URL}/ko/weakness", {"kingdom": kingdom, "po": page_num}, extract) or []
     except Exception as e:
         logger.error(f"[{kingdom}] 목록 페이지 {page_num} 스크래핑 실패: {e}")
         return []
@@ -74,19 +186,20 @@ def scrape_vulnerability_details(detail_url: str) -> dict:
     """취약점 상세 페이지에서 상세 정보를 스크래핑합니다."""
     if not detail_url.startswith("http"): return None
     logger.info(f"상세 정보 스크래핑 중: {detail_url}")
-    try:
-        soup = get_soup(detail_url)
-        if not soup: return None
-             
+
+    def extract(soup):
         details = {}
         lang_tabs = soup.select("ul.nav-tabs a")
         details['languages'] = [tab.get_text(strip=True) for tab in lang_tabs] if lang_tabs else []
-        
+
         for section in ["Abstract", "Explanation"]:
             title_div = soup.find("div", class_="sub-title", string=section)
             content_div = title_div.find_next_sibling("div", class_="t") if title_div else None
             details[section.lower()] = content_div.get_text(strip=True) if content_div else "내용 없음"
         return details
+
+    try:
+        return fetch_and_extract(detail_url, None, extract)
     except Exception as e:
         logger.error(f"상세 페이지 요청 실패: {detail_url}: {e}")
         return None
@@ -162,10 +275,18 @@ def convert_xml_file_to_json(xml_path, json_path):
     except Exception as e:
         logger.error(f"JSON 변환 중 오류 발생 {xml_path}: {e}")
 
+def progress_line(pages_done, pages_to_crawl):
+    """Java 스케줄러가 카테고리별 진행 상태로 읽는 줄"""
+    line = f"PROGRESS {pages_done}/{pages_to_crawl}"
+    if CACHE is not None:
+        line += f" fetched={CACHE.stats['fetched']} unchanged={CACHE.stats['unchanged']} cached={CACHE.stats['cached']}"
+    return line
+
 def main(output_dir, kingdom, pages_to_crawl):
     """메인 실행 함수"""
     XML_DIR = os.path.join(output_dir, 'xml')
     JSON_DIR = os.path.join(output_dir, 'json')
+    FINGERPRINT_DIR = os.path.join(output_dir, 'http_cache', 'kingdoms')
     os.makedirs(XML_DIR, exist_ok=True)
     os.makedirs(JSON_DIR, exist_ok=True)
     
@@ -181,17 +302,35 @@ def main(output_dir, kingdom, pages_to_crawl):
             if details:
                 v.update(details)
             all_vulnerabilities_in_kingdom.append(v)
-        time.sleep(0.5)
+        print(progress_line(page_num + 1, pages_to_crawl), flush=True)
 
     if all_vulnerabilities_in_kingdom:
-        logger.info(f"\n[{kingdom}] Saving {len(all_vulnerabilities_in_kingdom)} vulnerabilities...")
         name = kingdom.replace(" ", "_").replace("&", "and")
         xml_path = os.path.join(XML_DIR, f"{name}.xml")
         json_path = os.path.join(JSON_DIR, f"{name}.json")
-        
-        save_as_xml(all_vulnerabilities_in_kingdom, xml_path, kingdom_name=kingdom, kingdom_desc=kingdom_desc)
-        convert_xml_file_to_json(xml_path, json_path)
-    
+
+        # 읽은 모든 페이지의 본문 해시가 지난 실행과 같으면 XML/JSON 을 다시 쓰지 않습니다.
+        fingerprint = hashlib.sha256("\n".join(PAGE_HASHES).encode('utf-8')).hexdigest()
+        fingerprint_path = os.path.join(FINGERPRINT_DIR, f"{name}.sha256")
+        previous = None
+        if CACHE is not None and os.path.exists(fingerprint_path):
+            with open(fingerprint_path, encoding='utf-8') as f:
+                previous = f.read().strip()
+
+        if "error" not in PAGE_HASHES and previous == fingerprint and os.path.exists(xml_path) and os.path.exists(json_path):
+            logger.info(f"[{kingdom}] 변경된 페이지가 없어 결과 파일을 다시 쓰지 않습니다.")
+        else:
+            logger.info(f"\n[{kingdom}] Saving {len(all_vulnerabilities_in_kingdom)} vulnerabilities...")
+            save_as_xml(all_vulnerabilities_in_kingdom, xml_path, kingdom_name=kingdom, kingdom_desc=kingdom_desc)
+            convert_xml_file_to_json(xml_path, json_path)
+            if CACHE is not None:
+                os.makedirs(FINGERPRINT_DIR, exist_ok=True)
+                with open(fingerprint_path, 'w', encoding='utf-8') as f:
+                    f.write(fingerprint)
+
+    if CACHE is not None:
+        logger.info(f"[{kingdom}] 페이지 요청 결과: 새로 받음 {CACHE.stats['fetched']}, "
+                    f"변경 없음 {CACHE.stats['unchanged']}, 캐시 사용 {CACHE.stats['cached']}")
     logger.info(f"Finished processing for category: {kingdom}")
 
 if __name__ == '__main__':
@@ -199,6 +338,12 @@ if __name__ == '__main__':
     parser.add_argument('--output-dir', type=str, required=True, help='결과 파일을 저장할 디렉터리 경로')
     parser.add_argument('--kingdom', type=str, required=True, help='스크래핑할 카테고리 이름')
     parser.add_argument('--pages', type=int, required=True, help='스크래핑할 총 페이지 수')
+    parser.add_argument('--request-interval', type=float, default=REQUEST_INTERVAL, help='요청 사이의 최소 간격(초)')
+    parser.add_argument('--incremental', action='store_true', help='응답 캐시와 조건부 요청으로 바뀐 페이지만 다시 처리')
+    parser.add_argument('--cache-dir', type=str, help='응답 캐시 디렉터리 (기본값: <output-dir>/http_cache/pages)')
     args = parser.parse_args()
+    REQUEST_INTERVAL = args.request_interval
+    if args.incremental:
+        CACHE = ResponseCache(args.cache_dir or os.path.join(args.output_dir, 'http_cache', 'pages'))
 
     main(args.output_dir, args.kingdom, args.pages)
\ No newline at end of file
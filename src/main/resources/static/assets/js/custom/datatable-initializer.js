@@ -20,11 +20,12 @@ $(function () {
     },
   });
 
-  // 시스템 로그 테이블 초기화
+  // 시스템 로그 테이블 초기화 (페이지 이동은 서버에서 키셋 방식으로 처리하므로 현재 페이지 안에서만 검색/정렬)
   $("#logs_table").DataTable({
     dom: "Bfrtip",
     buttons: ["copy", "csv", "excel", "pdf", "print"],
     order: [[0, "desc"]],
+    paging: false,
     language: {
       search: "검색:",
       lengthMenu: "_MENU_ 개씩 보기",
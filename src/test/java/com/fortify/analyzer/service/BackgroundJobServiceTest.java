@@ -0,0 +1,141 @@
+package com.fortify.analyzer.service;
+
+import com.fortify.analyzer.dto.JobStatusDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 실패한 작업이 DB 에 저장된 체크포인트부터 같은 작업으로 이어서 실행되고, 사용자가 중지한 작업 뒤에는 새 작업이 시작되는지 확인합니다.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // 작업은 별도 스레드에서 저장하므로 테스트 트랜잭션을 쓰지 않음
+@Import({BackgroundJobService.class, BackgroundJobServiceTest.Handlers.class})
+class BackgroundJobServiceTest {
+
+    @Autowired
+    private BackgroundJobService backgroundJobService;
+
+    @Autowired
+    private CheckpointingHandler checkpointingHandler;
+
+    @Autowired
+    private BlockingHandler blockingHandler;
+
+    @Test
+    void failedJobResumesFromCheckpoint() throws Exception {
+        JobStatusDto first = backgroundJobService.submit(CheckpointingHandler.TYPE);
+        awaitIdle(CheckpointingHandler.TYPE);
+
+        JobStatusDto failed = backgroundJobService.getStatus(CheckpointingHandler.TYPE).orElseThrow();
+        assertThat(failed.state()).isEqualTo("FAILED");
+        assertThat(failed.message()).isEqualTo("Error: boom");
+        assertThat(failed.stepsDone()).isEqualTo(1);
+        assertThat(failed.stepsTotal()).isEqualTo(3);
+
+        JobStatusDto resumed = backgroundJobService.submit(CheckpointingHandler.TYPE);
+        awaitIdle(CheckpointingHandler.TYPE);
+
+        JobStatusDto completed = backgroundJobService.getStatus(CheckpointingHandler.TYPE).orElseThrow();
+        assertThat(resumed.jobId()).isEqualTo(first.jobId());
+        assertThat(completed.state()).isEqualTo("COMPLETED");
+        assertThat(completed.attempts()).isEqualTo(2);
+        assertThat(completed.stepsDone()).isEqualTo(3);
+        assertThat(checkpointingHandler.seenCheckpoints).containsExactly("none", "step-1");
+
+        // 완료된 작업 뒤에는 새 작업을 시작합니다.
+        JobStatusDto next = backgroundJobService.submit(CheckpointingHandler.TYPE);
+        awaitIdle(CheckpointingHandler.TYPE);
+        assertThat(next.jobId()).isNotEqualTo(first.jobId());
+    }
+
+    @Test
+    void cancelledJobIsNotResumed() throws Exception {
+        JobStatusDto first = backgroundJobService.submit(BlockingHandler.TYPE);
+        blockingHandler.started.await();
+        backgroundJobService.cancel(BlockingHandler.TYPE, false);
+        awaitIdle(BlockingHandler.TYPE);
+
+        JobStatusDto cancelled = backgroundJobService.getStatus(BlockingHandler.TYPE).orElseThrow();
+        assertThat(cancelled.state()).isEqualTo("CANCELLED");
+
+        JobStatusDto restarted = backgroundJobService.submit(BlockingHandler.TYPE);
+        assertThat(restarted.jobId()).isNotEqualTo(first.jobId());
+        backgroundJobService.cancel(BlockingHandler.TYPE, true);
+        assertThat(backgroundJobService.getStatus(BlockingHandler.TYPE).orElseThrow().message()).isEqualTo("Forcefully stopped by user.");
+    }
+
+    private void awaitIdle(String jobType) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (backgroundJobService.isRunning(jobType)) {
+            assertThat(System.currentTimeMillis()).isLessThan(deadline);
+            Thread.sleep(20);
+        }
+    }
+
+    @TestConfiguration
+    static class Handlers {
+        @Bean
+        CheckpointingHandler checkpointingHandler() {
+            return new CheckpointingHandler();
+        }
+
+        @Bean
+        BlockingHandler blockingHandler() {
+            return new BlockingHandler();
+        }
+    }
+
+    /**
+     * 첫 실행은 체크포인트를 남기고 실패하며, 다음 실행은 체크포인트부터 마칩니다.
+     */
+    static class CheckpointingHandler implements JobHandler {
+        static final String TYPE = "TEST_CHECKPOINT";
+        final List<String> seenCheckpoints = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String jobType() {
+            return TYPE;
+        }
+
+        @Override
+        public String run(JobContext context) {
+            seenCheckpoints.add(context.checkpoint() == null ? "none" : context.checkpoint());
+            if (context.checkpoint() == null) {
+                context.progress(1, 3, "step 1");
+                context.saveCheckpoint("step-1");
+                throw new IllegalStateException("boom");
+            }
+            context.progress(3, 3, "step 3");
+            return "done";
+        }
+    }
+
+    static class BlockingHandler implements JobHandler {
+        static final String TYPE = "TEST_BLOCKING";
+        final CountDownLatch started = new CountDownLatch(1);
+
+        @Override
+        public String jobType() {
+            return TYPE;
+        }
+
+        @Override
+        public String run(JobContext context) throws InterruptedException {
+            started.countDown();
+            Thread.sleep(60_000);
+            return "done";
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.fortify.analyzer.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 크기 초과 시 LRU 제거, TTL 만료, 계산 중 무효화된 값을 저장하지 않는 동작과 통계를 확인합니다.
+ */
+class BoundedCacheTest {
+
+    private final List<String> loaded = new ArrayList<>();
+
+    private final Function<String, String> loader = key -> {
+        loaded.add(key);
+        return key.toUpperCase();
+    };
+
+    @Test
+    void evictsLeastRecentlyUsedEntryWhenFull() {
+        BoundedCache<String, String> cache = new BoundedCache<>(2, Duration.ZERO);
+        cache.get("a", loader);
+        cache.get("b", loader);
+        // a 를 다시 사용했으므로 c 를 넣을 때 b 가 제거됩니다.
+        assertThat(cache.get("a", loader)).isEqualTo("A");
+        cache.get("c", loader);
+
+        cache.get("a", loader);
+        cache.get("b", loader);
+
+        assertThat(loaded).containsExactly("a", "b", "c", "b");
+        assertThat(cache.stats()).isEqualTo(new BoundedCache.Stats(2, 4, 2, 2, 2));
+    }
+
+    @Test
+    void reloadsExpiredEntry() throws InterruptedException {
+        BoundedCache<String, String> cache = new BoundedCache<>(10, Duration.ofMillis(20));
+        cache.get("a", loader);
+        assertThat(cache.get("a", loader)).isEqualTo("A");
+
+        Thread.sleep(50);
+
+        assertThat(cache.get("a", loader)).isEqualTo("A");
+        assertThat(loaded).containsExactly("a", "a");
+        assertThat(cache.stats()).isEqualTo(new BoundedCache.Stats(1, 2, 1, 1, 10));
+    }
+
+    @Test
+    void doesNotStoreValueComputedBeforeInvalidation() {
+        BoundedCache<String, String> cache = new BoundedCache<>(10, Duration.ZERO);
+        cache.get("a", loader);
+
+        // 계산 도중 룰팩이 바뀌어 캐시가 무효화된 상황
+        String value = cache.get("b", key -> {
+            cache.invalidateAll();
+            return loader.apply(key);
+        });
+
+        assertThat(value).isEqualTo("B");
+        assertThat(cache.stats().size()).isZero();
+        cache.get("a", loader);
+        cache.get("b", loader);
+        assertThat(loaded).containsExactly("a", "b", "a", "b");
+        assertThat(cache.stats().hits()).isZero();
+    }
+}
@@ -0,0 +1,169 @@
+package com.fortify.analyzer.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fortify.analyzer.dto.ComparisonJobPageDto;
+import com.fortify.analyzer.dto.ComparisonJobStatusDto;
+import com.fortify.analyzer.dto.RuleDiffEntry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 비교 작업을 제출하고 상태를 조회한 뒤, 버킷 결과를 페이지 단위(줄 위치 색인 경계 포함)로 읽고,
+ * 비교 시간이 fortify.compare 타이머에 기록되고, 보관 기간이 지난 작업이 정리되는지(결과를 읽는 중인 작업은 제외) 확인합니다.
+ */
+class ComparisonJobServiceTest {
+
+    // 공통 규칙 수. 페이지 조회 시 줄 위치 색인(256줄 간격)을 여러 번 건너뛰도록 충분히 큽니다.
+    private static final int COMMON_RULES = 600;
+
+    @TempDir
+    Path workDirectory;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private ComparisonJobService service;
+
+    @AfterEach
+    void tearDown() {
+        if (service != null) {
+            service.shutdown();
+        }
+    }
+
+    @Test
+    void submittedJobCanBePagedAfterCompletion() throws Exception {
+        service = newService(Duration.ofHours(1));
+        String jobId = service.submit(file("a.xml", "CWE-79", "Rule Only A"), file("b.xml", "CWE-80", "Rule Only B"));
+
+        ComparisonJobStatusDto status = awaitFinished(jobId);
+        assertThat(status.state()).isEqualTo("COMPLETED");
+        assertThat(status.fileAName()).isEqualTo("a.xml");
+        assertThat(status.progressPercent()).isEqualTo(100);
+        assertThat(status.counts()).containsEntry("common", (long) COMMON_RULES - 1)
+                .containsEntry("modified", 1L).containsEntry("only-in-a", 1L).containsEntry("only-in-b", 1L);
+        assertThat(meterRegistry.get("fortify.compare").tag("source", "files").timer().count()).isEqualTo(1);
+
+        List<String> ruleIds = new ArrayList<>();
+        for (long offset = 0; offset < COMMON_RULES; offset += 100) {
+            ComparisonJobPageDto page = service.getPage(jobId, "common", offset, 100);
+            assertThat(page.total()).isEqualTo(COMMON_RULES - 1);
+            page.items().stream().map(RuleDiffEntry::ruleId).forEach(ruleIds::add);
+        }
+        assertThat(ruleIds).hasSize(COMMON_RULES - 1).doesNotHaveDuplicates().isSorted();
+        // 색인 경계 바로 뒤의 한 건
+        assertThat(service.getPage(jobId, "common", 257, 1).items()).extracting(RuleDiffEntry::ruleId)
+                .containsExactly(ruleIds.get(257));
+
+        RuleDiffEntry modified = service.getPage(jobId, "modified", 0, 10).items().get(0);
+        assertThat(modified.categories()).containsExactly("CWE-80");
+        assertThat(modified.previousCategories()).containsExactly("CWE-79");
+
+        ByteArrayOutputStream csv = new ByteArrayOutputStream();
+        service.export(jobId, "only-in-b", ComparisonJobService.ExportFormat.CSV, csv);
+        assertThat(csv.toString(StandardCharsets.UTF_8)).contains("only-in-b,Rule Only B,CWE-1,");
+
+        assertThatThrownBy(() -> service.getPage(jobId, "unknown", 0, 10)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void finishedJobsArePurgedAfterRetention() throws Exception {
+        service = newService(Duration.ZERO);
+        String firstJobId = service.submit(file("a.xml", "CWE-79", "Rule Only A"), file("b.xml", "CWE-79", "Rule Only B"));
+        awaitFinished(firstJobId);
+        assertThat(workDirectory.resolve(firstJobId)).exists();
+
+        // 새 작업 제출은 끝난 작업을 정리하지 않습니다.
+        String secondJobId = service.submit(file("a.xml", "CWE-79", "Rule Only A"), file("b.xml", "CWE-79", "Rule Only B"));
+        assertThat(awaitFinished(secondJobId).state()).isEqualTo("COMPLETED");
+        assertThat(service.getStatus(firstJobId)).isPresent();
+
+        service.purgeExpiredJobs();
+
+        assertThat(service.getStatus(firstJobId)).isEmpty();
+        assertThat(service.getStatus(secondJobId)).isEmpty();
+        assertThat(workDirectory.resolve(firstJobId)).doesNotExist();
+        assertThatThrownBy(() -> service.getPage(firstJobId, "common", 0, 10)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void jobBeingExportedIsPurgedOnlyAfterExportFinishes() throws Exception {
+        service = newService(Duration.ZERO);
+        String jobId = service.submit(file("a.xml", "CWE-79", "Rule Only A"), file("b.xml", "CWE-80", "Rule Only B"));
+        awaitFinished(jobId);
+
+        // 내보내기 응답을 쓰는 도중에 정리 작업이 실행된 경우
+        List<Boolean> directoryKeptDuringExport = new ArrayList<>();
+        ByteArrayOutputStream exported = new ByteArrayOutputStream() {
+            @Override
+            public synchronized void write(byte[] buffer, int offset, int length) {
+                if (directoryKeptDuringExport.isEmpty()) {
+                    service.purgeExpiredJobs();
+                    directoryKeptDuringExport.add(Files.exists(workDirectory.resolve(jobId)));
+                }
+                super.write(buffer, offset, length);
+            }
+        };
+        service.export(jobId, null, ComparisonJobService.ExportFormat.NDJSON, exported);
+
+        assertThat(directoryKeptDuringExport).containsExactly(true);
+        assertThat(exported.toString(StandardCharsets.UTF_8).lines()).hasSize(COMMON_RULES + 2);
+
+        service.purgeExpiredJobs();
+
+        assertThat(service.getStatus(jobId)).isEmpty();
+        assertThat(workDirectory.resolve(jobId)).doesNotExist();
+    }
+
+    private ComparisonJobService newService(Duration retention) throws Exception {
+        // 정렬 버퍼를 작게 두어 디스크 run 병합 경로도 함께 사용합니다.
+        Path spillDirectory = Files.createDirectories(workDirectory.resolve("spill"));
+        return new ComparisonJobService(new MetadataDiffEngine(100, spillDirectory.toString()), new ObjectMapper(),
+                new AnalyzerMetrics(meterRegistry),
+                workDirectory.toString(), retention, 1);
+    }
+
+    private ComparisonJobStatusDto awaitFinished(String jobId) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(30).toNanos();
+        while (System.nanoTime() < deadline) {
+            ComparisonJobStatusDto status = service.getStatus(jobId).orElseThrow();
+            if (status.state().equals("COMPLETED") || status.state().equals("FAILED")) {
+                return status;
+            }
+            Thread.sleep(20);
+        }
+        throw new AssertionError("Comparison job did not finish: " + jobId);
+    }
+
+    /**
+     * 공통 규칙 COMMON_RULES - 1 건, 외부 표준이 modifiedStandard 인 규칙 1건, 한쪽에만 있는 규칙 1건으로 된 문서
+     */
+    private static MockMultipartFile file(String name, String modifiedStandard, String onlyRule) {
+        StringBuilder document = new StringBuilder(
+                "<ExternalMetadataPack><PackInfo><Name>Test</Name><PackID>test</PackID><Version>1.0</Version></PackInfo><ExternalList>");
+        for (int i = 1; i < COMMON_RULES; i++) {
+            document.append(mapping(String.format("Rule %04d", i), "CWE-" + (1000 + i)));
+        }
+        document.append(mapping("Rule Modified", modifiedStandard));
+        document.append(mapping(onlyRule, "CWE-1"));
+        document.append("</ExternalList></ExternalMetadataPack>");
+        return new MockMultipartFile("file", name, "application/xml", document.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String mapping(String internalCategory, String externalCategory) {
+        return "<Mapping><InternalCategory>" + internalCategory + "</InternalCategory>"
+                + "<ExternalCategory>" + externalCategory + "</ExternalCategory></Mapping>";
+    }
+}
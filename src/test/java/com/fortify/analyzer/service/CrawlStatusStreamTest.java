@@ -0,0 +1,98 @@
+package com.fortify.analyzer.service;
+
+import com.fortify.analyzer.dto.TaskStatusEventDto;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 짧은 시간에 몰린 상태 변경이 작업별로 한 번만 만들어지고, 새 구독자에게는 마지막 상태가 재생되는지 확인합니다.
+ * 전송 중에 들어온 구독자는 전송이 끝난 뒤에 등록되어, 재생한 상태가 더 새 상태를 덮어쓰지 않아야 합니다.
+ */
+class CrawlStatusStreamTest {
+
+    private final CrawlService crawlService = mock(CrawlService.class);
+    private final AtomicInteger version = new AtomicInteger();
+    // 전송 주기를 길게 두고 tick() 을 직접 호출합니다.
+    private final CrawlStatusStream stream = new CrawlStatusStream(crawlService, Duration.ofHours(1), Duration.ofMinutes(1));
+
+    @AfterEach
+    void tearDown() {
+        stream.shutdown();
+    }
+
+    @Test
+    void burstOfChangesIsCoalescedPerTask() {
+        when(crawlService.getTaskStatusSnapshot(anyString())).thenAnswer(invocation ->
+                new TaskStatusEventDto(invocation.getArgument(0), "RUNNING: v" + version.incrementAndGet(), null, List.of()));
+
+        for (int i = 0; i < 1000; i++) {
+            stream.onJobStatusChanged(new JobStatusChangedEvent(CrawlJobHandler.JOB_TYPE));
+        }
+        stream.tick();
+        verify(crawlService, times(1)).getTaskStatusSnapshot(CrawlJobHandler.JOB_TYPE);
+        verify(crawlService, never()).getTaskStatusSnapshot(AnalysisJobHandler.JOB_TYPE);
+
+        // 변경이 없으면 다시 만들지 않습니다.
+        stream.tick();
+        verify(crawlService, times(1)).getTaskStatusSnapshot(CrawlJobHandler.JOB_TYPE);
+    }
+
+    @Test
+    void newSubscriberReplaysLatestStateWithoutRebuilding() {
+        when(crawlService.getTaskStatusSnapshot(anyString())).thenAnswer(invocation ->
+                new TaskStatusEventDto(invocation.getArgument(0), "IDLE - v" + version.incrementAndGet(), null, List.of()));
+
+        stream.subscribe();
+        stream.subscribe();
+        stream.subscribe();
+
+        // 첫 구독자에게 보낼 상태만 만들고 이후 구독자는 같은 상태를 재생합니다.
+        verify(crawlService, times(CrawlService.TASKS.size())).getTaskStatusSnapshot(anyString());
+        assertThat(stream.subscriberCount()).isEqualTo(3);
+    }
+
+    @Test
+    void subscribeWaitsForPublishInProgress() throws Exception {
+        CountDownLatch building = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(crawlService.getTaskStatusSnapshot(anyString())).thenAnswer(invocation -> {
+            if (version.incrementAndGet() == 1) {
+                building.countDown();
+                release.await();
+            }
+            return new TaskStatusEventDto(invocation.getArgument(0), "RUNNING: v" + version.get(), null, List.of());
+        });
+
+        stream.onJobStatusChanged(new JobStatusChangedEvent(CrawlJobHandler.JOB_TYPE));
+        CompletableFuture<Void> tick = CompletableFuture.runAsync(stream::tick);
+        assertThat(building.await(10, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<Void> subscribe = CompletableFuture.runAsync(stream::subscribe);
+
+        // 전송 중인 상태를 만드는 동안에는 구독자를 등록하거나 재생하지 않습니다.
+        Thread.sleep(200);
+        assertThat(subscribe).isNotDone();
+        assertThat(stream.subscriberCount()).isZero();
+
+        release.countDown();
+        tick.get(10, TimeUnit.SECONDS);
+        subscribe.get(10, TimeUnit.SECONDS);
+        assertThat(stream.subscriberCount()).isEqualTo(1);
+        // 구독자는 전송이 반영된 마지막 상태를 재생하므로 방금 만든 상태를 다시 만들지 않습니다.
+        verify(crawlService, times(1)).getTaskStatusSnapshot(CrawlJobHandler.JOB_TYPE);
+    }
+}
@@ -0,0 +1,114 @@
+package com.fortify.analyzer.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 언어별 분석 결과가 languge.py 와 같은 형식으로 쓰이고, 바뀐 kingdom 파일만 다시 읽는지 확인합니다.
+ */
+class LanguageAnalysisEngineTest {
+
+    @TempDir
+    Path baseDir;
+
+    @Test
+    void writesPythonCompatibleOutputsAndRereadsOnlyChangedFiles() throws Exception {
+        Path jsonDir = Files.createDirectories(baseDir.resolve("json"));
+        Path kingdom = jsonDir.resolve("Input Validation.json");
+        Files.writeString(kingdom, """
+                {"fortify_report": {"vulnerabilities": {"vulnerability": [
+                  {"title": "XSS \\"반사\\"", "score": 1e-05, "languages": {"language": ["Java/JSP", "C#"]}},
+                  {"title": "SQL", "score": 2.50, "languages": {"language": "Java/JSP"}}
+                ]}}}""", StandardCharsets.UTF_8);
+
+        LanguageAnalysisEngine engine = new LanguageAnalysisEngine(1);
+        LanguageAnalysisEngine.AnalysisRun first = engine.analyze(baseDir);
+
+        assertThat(first.written()).isTrue();
+        assertThat(read("analysis/summary_by_language.json")).isEqualTo("""
+                {
+                  "by_language": {
+                    "Java_JSP": {
+                      "Input_Validation": 2
+                    },
+                    "C#": {
+                      "Input_Validation": 1
+                    }
+                  }
+                }""");
+        assertThat(read("analysis/summary_by_language.xml")).isEqualTo("""
+                <?xml version="1.0" ?>
+                <analysis>
+                  <by_language>
+                    <language name="Java_JSP">
+                      <kingdom name="Input_Validation">2</kingdom>
+                    </language>
+                    <language name="C#">
+                      <kingdom name="Input_Validation">1</kingdom>
+                    </language>
+                  </by_language>
+                </analysis>
+                """);
+        assertThat(read("analysis/detail_by_language/detail_by_language.json")).isEqualTo("""
+                {
+                  "by_language": {
+                    "Java_JSP": [
+                      {
+                        "title": "XSS \\"반사\\"",
+                        "score": 1e-05,
+                        "languages": {
+                          "language": [
+                            "Java/JSP",
+                            "C#"
+                          ]
+                        }
+                      },
+                      {
+                        "title": "SQL",
+                        "score": 2.5,
+                        "languages": {
+                          "language": "Java/JSP"
+                        }
+                      }
+                    ],
+                    "C#": [
+                      {
+                        "title": "XSS \\"반사\\"",
+                        "score": 1e-05,
+                        "languages": {
+                          "language": [
+                            "Java/JSP",
+                            "C#"
+                          ]
+                        }
+                      }
+                    ]
+                  }
+                }""");
+
+        // 아무 파일도 바뀌지 않았으면 결과 파일을 다시 쓰지 않습니다.
+        LanguageAnalysisEngine.AnalysisRun unchanged = engine.analyze(baseDir);
+        assertThat(unchanged.written()).isFalse();
+
+        Files.writeString(jsonDir.resolve("Security Features.json"), """
+                {"fortify_report": {"vulnerabilities": {"vulnerability": {"languages": {"language": "C#"}}}}}""");
+        LanguageAnalysisEngine.AnalysisRun added = engine.analyze(baseDir);
+        assertThat(added.kingdomFiles()).isEqualTo(2);
+        assertThat(added.reparsedFiles()).isEqualTo(1);
+        assertThat(read("analysis/summary_by_language.json")).contains("\"Security_Features\": 1");
+
+        Files.setLastModifiedTime(kingdom, FileTime.fromMillis(Files.getLastModifiedTime(kingdom).toMillis() + 1000));
+        assertThat(engine.analyze(baseDir).reparsedFiles()).isEqualTo(1);
+    }
+
+    private String read(String relativePath) throws Exception {
+        return Files.readString(baseDir.resolve(relativePath), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,127 @@
+package com.fortify.analyzer.service;
+
+import com.fortify.analyzer.repository.LogRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 보관 기간이 지난 로그가 배치로 삭제(일별 건수 보존)되고, 이전 방식의 스택 트레이스가 중복 없이 옮겨지며,
+ * 참조되지 않는 스택 트레이스가 정리되는지(그 사이에 다시 사용된 스택 트레이스는 남는지) 확인합니다.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // 보관 작업이 배치마다 트랜잭션을 나누므로 테스트 트랜잭션을 쓰지 않음
+class LogRetentionServiceTest {
+
+    private static final String INSERT_LOG_SQL = "INSERT INTO logs (status, message, timestamp, traceback) VALUES (?, ?, ?, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private LogRepository logRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private LogService logService;
+    private LogRetentionService retentionService;
+
+    @BeforeEach
+    void setUp() {
+        logRepository.deleteAll();
+        jdbcTemplate.update("DELETE FROM log_tracebacks");
+        jdbcTemplate.update("DELETE FROM log_daily_counts");
+        LogTracebackStore tracebackStore = new LogTracebackStore(jdbcTemplate, "gzip");
+        logService = new LogService(jdbcTemplate, logRepository, tracebackStore, false, 1, 1, Duration.ofMillis(20), "block",
+                Duration.ofMillis(100), Duration.ofSeconds(10));
+        retentionService = new LogRetentionService(jdbcTemplate, new TransactionTemplate(transactionManager), tracebackStore,
+                logService, Duration.ofDays(30), "rollup", 7, Duration.ZERO);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        logService.shutdown();
+    }
+
+    @Test
+    void expiredLogsAreRolledUpAndDeletedInBatches() throws InterruptedException {
+        LocalDateTime old = LocalDateTime.now().minusDays(40).withHour(10);
+        for (int i = 0; i < 20; i++) {
+            jdbcTemplate.update(INSERT_LOG_SQL, i % 4 == 0 ? "Upload" : "Upload-Zip", "old " + i,
+                    Timestamp.valueOf(old.plusMinutes(i)), null);
+        }
+        for (int i = 0; i < 5; i++) {
+            jdbcTemplate.update(INSERT_LOG_SQL, "Upload", "recent " + i, Timestamp.valueOf(LocalDateTime.now().minusDays(1)), null);
+        }
+
+        LogRetentionService.RetentionResult result = retentionService.run();
+
+        assertThat(result.deletedLogs()).isEqualTo(20);
+        // 최근 로그 5건 + 보관 작업 결과 로그 1건
+        assertThat(logRepository.count()).isEqualTo(6);
+        List<Map<String, Object>> counts = jdbcTemplate.queryForList(
+                "SELECT status, entry_count FROM log_daily_counts ORDER BY status");
+        assertThat(counts).hasSize(2);
+        assertThat(((Number) counts.get(0).get("ENTRY_COUNT")).longValue()).isEqualTo(5);
+        assertThat(((Number) counts.get(1).get("ENTRY_COUNT")).longValue()).isEqualTo(15);
+    }
+
+    @Test
+    void inlineTracebacksAreMovedOnceAndOrphansRemoved() throws InterruptedException {
+        String trace = "java.lang.IllegalStateException: boom\n\tat com.example.Foo.bar(Foo.java:1)\n".repeat(50);
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < 10; i++) {
+            jdbcTemplate.update(INSERT_LOG_SQL, "Upload-Zip", "failure " + i, Timestamp.valueOf(now.minusMinutes(i)), trace);
+        }
+        // 오래된 로그의 스택 트레이스는 로그와 함께 삭제되면 더 이상 참조되지 않습니다.
+        jdbcTemplate.update(INSERT_LOG_SQL, "Upload", "old failure", Timestamp.valueOf(now.minusDays(60)), "old trace");
+
+        LogRetentionService.RetentionResult result = retentionService.run();
+
+        assertThat(result.compactedLogs()).isEqualTo(11);
+        assertThat(result.deletedLogs()).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM logs WHERE traceback IS NOT NULL", Integer.class)).isZero();
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(DISTINCT traceback_hash) FROM logs", Integer.class)).isEqualTo(1);
+        // 새로 옮긴 스택 트레이스는 보관 기간 이후에 만들어졌으므로 이번 실행에서는 지우지 않고, 다음 실행 때 정리됩니다.
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM log_tracebacks", Integer.class)).isEqualTo(2);
+        jdbcTemplate.update("UPDATE log_tracebacks SET created_at = ?", Timestamp.valueOf(now.minusDays(60)));
+        assertThat(retentionService.run().deletedTracebacks()).isEqualTo(1);
+
+        Long id = jdbcTemplate.queryForObject("SELECT MIN(id) FROM logs WHERE traceback_hash IS NOT NULL", Long.class);
+        assertThat(logService.getTraceback(id)).contains(trace);
+    }
+
+    @Test
+    void reusedTracebackIsNotDeletedAndDeletedOneIsStoredAgain() {
+        LogTracebackStore tracebackStore = new LogTracebackStore(jdbcTemplate, "gzip");
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(30);
+        String hash = tracebackStore.store(List.of("trace")).get("trace");
+        jdbcTemplate.update("UPDATE log_tracebacks SET created_at = ?", Timestamp.valueOf(LocalDateTime.now().minusDays(60)));
+
+        // 로그 기록이 보관 작업보다 먼저 다시 사용하면 사용 시각이 갱신되어 삭제 대상에서 빠집니다.
+        tracebackStore.store(List.of("trace"));
+        assertThat(tracebackStore.deleteOrphans(cutoff, 10)).isZero();
+
+        // 보관 작업이 먼저 삭제했다면 다음 기록 때 다시 저장합니다.
+        jdbcTemplate.update("UPDATE log_tracebacks SET created_at = ?", Timestamp.valueOf(LocalDateTime.now().minusDays(60)));
+        assertThat(tracebackStore.deleteOrphans(cutoff, 10)).isEqualTo(1);
+        assertThat(tracebackStore.store(List.of("trace"))).containsEntry("trace", hash);
+        assertThat(tracebackStore.load(hash)).contains("trace");
+    }
+}
@@ -0,0 +1,198 @@
+package com.fortify.analyzer.service;
+
+import com.fortify.analyzer.dto.LogPageDto;
+import com.fortify.analyzer.dto.LogSummaryDto;
+import com.fortify.analyzer.entity.Log;
+import com.fortify.analyzer.repository.LogRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 감사 로그가 여러 행씩 모아 저장되고 같은 스택 트레이스는 한 번만 저장되며, 버퍼가 가득 찼을 때 정책대로 버려지며, 종료 시 남은 로그가 저장되는지 확인합니다.
+ * 로그 목록의 키셋 페이지가 같은 시각의 로그도 빠짐없이 한 번씩 돌려주는지 확인합니다.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // 로그는 기록 스레드에서 저장하므로 테스트 트랜잭션을 쓰지 않음
+class LogServiceTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private LogRepository logRepository;
+
+    private final List<LogService> services = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        logRepository.deleteAll();
+        jdbcTemplate.update("DELETE FROM log_tracebacks");
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        for (LogService service : services) {
+            service.shutdown();
+        }
+    }
+
+    @Test
+    void entriesAreWrittenInMultiRowBatches() throws InterruptedException {
+        RecordingJdbcTemplate recording = new RecordingJdbcTemplate(jdbcTemplate);
+        LogService logService = start(recording, 4096, 100, "block");
+
+        for (int i = 0; i < 1000; i++) {
+            logService.log("Upload-Zip", "entry " + i);
+        }
+        IllegalStateException failure = new IllegalStateException("boom");
+        logService.logError("Upload", "x".repeat(2000), failure);
+        logService.logError("Upload", "again", failure);
+        assertThat(logService.flush(Duration.ofSeconds(10))).isTrue();
+
+        List<Log> logs = logRepository.findAll();
+        assertThat(logs).hasSize(1002);
+        List<Log> errors = logs.stream().filter(log -> log.getTracebackHash() != null).toList();
+        assertThat(errors).hasSize(2);
+        assertThat(errors.get(0).getMessage()).hasSize(1024);
+        // 같은 스택 트레이스는 한 번만 (압축해서) 저장하고 두 로그가 같은 지문을 참조합니다.
+        assertThat(errors.get(0).getTracebackHash()).isEqualTo(errors.get(1).getTracebackHash());
+        assertThat(errors.get(0).getTraceback()).isNull();
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM log_tracebacks", Integer.class)).isEqualTo(1);
+        assertThat(logService.getTraceback(errors.get(1).getId())).hasValueSatisfying(trace ->
+                assertThat(trace).contains("IllegalStateException: boom"));
+        // 1001 건을 한 건씩이 아니라 최대 100 행씩 저장합니다.
+        assertThat(recording.rowsPerStatement).allMatch(rows -> rows <= 100);
+        assertThat(recording.rowsPerStatement.size()).isLessThan(1002 / 2);
+    }
+
+    @Test
+    void dropOldestKeepsNewestEntriesWhenBufferIsFull() throws InterruptedException {
+        BlockingJdbcTemplate blocking = new BlockingJdbcTemplate(jdbcTemplate);
+        LogService logService = start(blocking, 4, 100, "drop-oldest");
+
+        logService.log("Test", "first");
+        blocking.entered.await(); // 기록 스레드가 첫 로그를 저장하는 중에 멈춰 있음
+        for (int i = 0; i < 10; i++) {
+            logService.log("Test", "burst " + i);
+        }
+        assertThat(logService.getDroppedCount()).isEqualTo(6);
+
+        blocking.release.countDown();
+        assertThat(logService.flush(Duration.ofSeconds(10))).isTrue();
+        assertThat(logRepository.findAll()).extracting(Log::getMessage)
+                .containsExactlyInAnyOrder("first", "burst 6", "burst 7", "burst 8", "burst 9");
+    }
+
+    @Test
+    void shutdownFlushesBufferedEntries() throws InterruptedException {
+        LogService logService = start(jdbcTemplate, 4096, 50, "block");
+        for (int i = 0; i < 500; i++) {
+            logService.log("System", "entry " + i);
+        }
+        logService.shutdown();
+
+        assertThat(logRepository.count()).isEqualTo(500);
+        // 종료 후의 로그는 호출한 스레드에서 바로 저장합니다.
+        logService.log("System", "after shutdown");
+        assertThat(logRepository.count()).isEqualTo(501);
+    }
+
+    @Test
+    void keysetPagesCoverAllMatchingLogsOnce() {
+        LocalDateTime base = LocalDateTime.of(2026, 1, 1, 12, 0);
+        // 같은 시각의 로그가 페이지 경계에 걸치도록 3건씩 같은 시각으로 저장합니다.
+        for (int i = 0; i < 30; i++) {
+            jdbcTemplate.update("INSERT INTO logs (status, message, timestamp, traceback) VALUES (?, ?, ?, ?)",
+                    i % 2 == 0 ? "Upload" : "System", "entry " + i, Timestamp.valueOf(base.plusMinutes(i / 3)),
+                    i == 4 ? "trace" : null);
+        }
+        LogService logService = new LogService(jdbcTemplate, logRepository, new LogTracebackStore(jdbcTemplate, "gzip"), false, 1, 1, Duration.ofMillis(20), "block",
+                Duration.ofMillis(100), Duration.ofSeconds(10));
+
+        List<LogSummaryDto> all = new ArrayList<>();
+        String cursor = null;
+        do {
+            LogPageDto page = logService.getLogPage(null, null, null, cursor, 4);
+            assertThat(page.items()).hasSizeLessThanOrEqualTo(4);
+            all.addAll(page.items());
+            cursor = page.nextCursor();
+        } while (cursor != null);
+        assertThat(all).hasSize(30);
+        assertThat(all).extracting(LogSummaryDto::id).doesNotHaveDuplicates();
+        assertThat(all.get(0).timestamp()).isEqualTo(base.plusMinutes(9));
+        assertThat(all).filteredOn(LogSummaryDto::hasTraceback).extracting(LogSummaryDto::message).containsExactly("entry 4");
+
+        // 상태와 시간 범위 필터 (12:03 ~ 12:06 의 Upload)
+        LogPageDto filtered = logService.getLogPage("Upload", base.plusMinutes(3), base.plusMinutes(6), null, 100);
+        assertThat(filtered.nextCursor()).isNull();
+        assertThat(filtered.items()).extracting(LogSummaryDto::message)
+                .containsExactly("entry 16", "entry 14", "entry 12", "entry 10");
+        assertThat(logService.getTraceback(all.stream().filter(LogSummaryDto::hasTraceback).findFirst().orElseThrow().id()))
+                .contains("trace");
+        assertThat(logService.getStatuses()).containsExactly("System", "Upload");
+    }
+
+    private LogService start(JdbcTemplate template, int capacity, int batchSize, String overflow) {
+        LogService logService = new LogService(template, logRepository, new LogTracebackStore(jdbcTemplate, "gzip"), true, capacity, batchSize, Duration.ofMillis(20), overflow,
+                Duration.ofMillis(100), Duration.ofSeconds(10));
+        logService.start();
+        services.add(logService);
+        return logService;
+    }
+
+    /**
+     * 실행한 INSERT 문마다 저장한 행 수를 기록합니다.
+     */
+    static class RecordingJdbcTemplate extends JdbcTemplate {
+        final List<Integer> rowsPerStatement = new CopyOnWriteArrayList<>();
+
+        RecordingJdbcTemplate(JdbcTemplate delegate) {
+            super(delegate.getDataSource());
+        }
+
+        @Override
+        public int update(String sql, Object... args) {
+            rowsPerStatement.add(args.length / 4);
+            return super.update(sql, args);
+        }
+    }
+
+    /**
+     * 첫 INSERT 를 release 될 때까지 멈춥니다.
+     */
+    static class BlockingJdbcTemplate extends JdbcTemplate {
+        final CountDownLatch entered = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+
+        BlockingJdbcTemplate(JdbcTemplate delegate) {
+            super(delegate.getDataSource());
+        }
+
+        @Override
+        public int update(String sql, Object... args) {
+            entered.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return super.update(sql, args);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.fortify.analyzer.service;
+
+import com.fortify.analyzer.dto.RuleDiffEntry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 정렬 버퍼보다 많은 매핑을 비교할 때도 디스크 run 병합으로 올바르게 분류하는지 확인합니다.
+ */
+class MetadataDiffEngineTest {
+
+    @TempDir
+    Path spillDirectory;
+
+    @Test
+    void classifiesRulesAcrossSpilledRuns() throws Exception {
+        // 버퍼를 3건으로 제한하여 양쪽 모두 여러 run 으로 내려쓰도록 합니다.
+        MetadataDiffEngine engine = new MetadataDiffEngine(3, spillDirectory.toString());
+        InputStream fileA = xml(
+                mapping("Rule C", "CWE-79"),
+                mapping("Rule A", "CWE-89"),
+                mapping("Rule B", "CWE-20"),
+                mapping("Rule A", "OWASP A1"),
+                mapping("Rule D", "CWE-1"),
+                mapping("Rule A", "CWE-89"));
+        InputStream fileB = xml(
+                mapping("Rule A", "OWASP A1"),
+                mapping("Rule E", "CWE-2"),
+                mapping("Rule C", "CWE-80"),
+                mapping("Rule A", "CWE-89"),
+                mapping("Rule B", "CWE-20"));
+
+        List<String> events = new ArrayList<>();
+        MetadataDiffEngine.DiffCounts counts = engine.compare(fileA, fileB, (bucket, entry) -> events.add(describe(bucket, entry)));
+
+        assertThat(events).containsExactly(
+                "COMMON Rule A [CWE-89, OWASP A1] null",
+                "COMMON Rule B [CWE-20] null",
+                "MODIFIED Rule C [CWE-80] [CWE-79]",
+                "ONLY_IN_A Rule D [CWE-1] null",
+                "ONLY_IN_B Rule E [CWE-2] null");
+        assertThat(counts.spilledRuns()).isGreaterThan(1);
+        try (Stream<Path> leftovers = Files.list(spillDirectory)) {
+            assertThat(leftovers).isEmpty();
+        }
+    }
+
+    private static String describe(MetadataDiffEngine.DiffBucket bucket, RuleDiffEntry entry) {
+        return bucket + " " + entry.ruleId() + " " + entry.categories() + " " + entry.previousCategories();
+    }
+
+    private static String mapping(String internalCategory, String externalCategory) {
+        return "<Mapping><InternalCategory>" + internalCategory + "</InternalCategory>"
+                + "<ExternalCategory>" + externalCategory + "</ExternalCategory></Mapping>";
+    }
+
+    private static InputStream xml(String... mappings) {
+        String document = "<ExternalMetadataPack><PackInfo><Name>Test</Name><PackID>test</PackID><Version>1.0</Version></PackInfo>"
+                + "<ExternalList>" + String.join("", mappings) + "</ExternalList></ExternalMetadataPack>";
+        return new ByteArrayInputStream(document.getBytes(StandardCharsets.UTF_8));
+    }
+}
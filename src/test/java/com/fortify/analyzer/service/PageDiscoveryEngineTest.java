@@ -0,0 +1,141 @@
+package com.fortify.analyzer.service;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 로컬 스텁 서버를 대상으로 마지막 페이지 탐색 결과, 요청 수, 동시 요청 상한, 본문 조기 종료를 확인합니다.
+ */
+class PageDiscoveryEngineTest {
+
+    private static final int MAX_CONCURRENCY = 3;
+    // 표식 뒤에 이어지는 본문 크기. 클라이언트가 끝까지 읽었다면 모두 전송됩니다.
+    private static final long TRAILING_BYTES = 64L * 1024 * 1024;
+
+    private final Map<String, Integer> lastPages = new ConcurrentHashMap<>();
+    private final Map<String, AtomicInteger> requests = new ConcurrentHashMap<>();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+    private final AtomicLong trailingBytesSent = new AtomicLong();
+
+    private HttpServer server;
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private PageDiscoveryEngine engine;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/weakness", this::handle);
+        server.setExecutor(Executors.newFixedThreadPool(16));
+        server.start();
+        String pageUrl = "http://127.0.0.1:" + server.getAddress().getPort() + "/weakness?kingdom={kingdom}&po={page}";
+        engine = new PageDiscoveryEngine(new RestTemplate(), new AnalyzerMetrics(meterRegistry), pageUrl, MAX_CONCURRENCY);
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    void findsLastPagesWithLogarithmicProbesUnderConcurrencyCap() throws Exception {
+        lastPages.put("Input Validation and Representation", 300);
+        lastPages.put("API Abuse", 5);
+        lastPages.put("Errors", 2);
+        Map<String, Integer> known = new LinkedHashMap<>();
+        known.put("Input Validation and Representation", 10);
+        known.put("API Abuse", 5);
+        known.put("Errors", 0);
+
+        Map<String, PageDiscoveryEngine.DiscoveryResult> results = engine.discoverLastPages(known);
+
+        assertThat(results.get("Input Validation and Representation").lastPage()).isEqualTo(300);
+        assertThat(results.get("API Abuse").lastPage()).isEqualTo(5);
+        assertThat(results.get("Errors").lastPage()).isEqualTo(2);
+        // 새 페이지 290개: 지수 탐색 9회 + 이진 탐색 8회 (하나씩 확인하면 291회)
+        assertThat(results.get("Input Validation and Representation").probes()).isLessThanOrEqualTo(2 * 9);
+        assertThat(results.get("API Abuse").probes()).isEqualTo(1);
+        assertThat(requests.get("Input Validation and Representation").get())
+                .isEqualTo(results.get("Input Validation and Representation").probes());
+        assertThat(maxInFlight.get()).isLessThanOrEqualTo(MAX_CONCURRENCY);
+        // 요청마다 결과(found/missing)별 타이머에 한 번씩 기록합니다.
+        int totalProbes = results.values().stream().mapToInt(PageDiscoveryEngine.DiscoveryResult::probes).sum();
+        long timed = meterRegistry.find("fortify.crawler.page.probe").timers().stream().mapToLong(Timer::count).sum();
+        assertThat(timed).isEqualTo(totalProbes);
+    }
+
+    @Test
+    void stopsReadingBodyOnceMarkerIsFound() throws Exception {
+        lastPages.put("Code Quality", 1);
+
+        Map<String, PageDiscoveryEngine.DiscoveryResult> results = engine.discoverLastPages(Map.of("Code Quality", 0));
+
+        assertThat(results.get("Code Quality").lastPage()).isEqualTo(1);
+        assertThat(trailingBytesSent.get()).isLessThan(TRAILING_BYTES);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        int current = inFlight.incrementAndGet();
+        maxInFlight.accumulateAndGet(current, Math::max);
+        try {
+            Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+            String kingdom = query.get("kingdom");
+            int page = Integer.parseInt(query.get("po"));
+            requests.computeIfAbsent(kingdom, key -> new AtomicInteger()).incrementAndGet();
+            Thread.sleep(20);
+
+            boolean exists = page <= lastPages.getOrDefault(kingdom, -1);
+            exchange.sendResponseHeaders(200, 0);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(("<html><body><div class=\"" + (exists ? "weaknessCell" : "empty") + "\">")
+                        .getBytes(StandardCharsets.UTF_8));
+                if (exists && kingdom.equals("Code Quality")) {
+                    byte[] filler = new byte[64 * 1024];
+                    for (long sent = 0; sent < TRAILING_BYTES; sent += filler.length) {
+                        out.write(filler);
+                        out.flush();
+                        trailingBytesSent.addAndGet(filler.length);
+                    }
+                }
+                out.write("</div></body></html>".getBytes(StandardCharsets.UTF_8));
+            }
+        } catch (IOException e) {
+            // 클라이언트가 본문을 다 읽지 않고 연결을 닫은 경우
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            inFlight.decrementAndGet();
+            exchange.close();
+        }
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> query = new HashMap<>();
+        for (String pair : rawQuery.split("&")) {
+            String[] parts = pair.split("=", 2);
+            query.put(URLDecoder.decode(parts[0], StandardCharsets.UTF_8), URLDecoder.decode(parts[1], StandardCharsets.UTF_8));
+        }
+        return query;
+    }
+}
@@ -0,0 +1,84 @@
+package com.fortify.analyzer.service;
+
+import com.fortify.analyzer.repository.RuleRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 트라이그램 색인이 대소문자를 무시한 부분 문자열 검색(3글자 미만 포함)과 규칙 추가를 올바르게 처리하고,
+ * 색인을 다시 만드는 동안 커밋된 변경이 빠지거나 두 번 반영되지 않는지 확인합니다.
+ */
+class RuleNameIndexTest {
+
+    private final RuleRepository ruleRepository = mock(RuleRepository.class);
+    private final RuleNameIndex index = new RuleNameIndex(ruleRepository);
+
+    @Test
+    void findsCaseInsensitiveSubstringsIncludingShortKeywords() {
+        when(ruleRepository.findAllRuleNames()).thenReturn(List.of(
+                rule(1L, "SQL Injection"), rule(2L, "Cross-Site Scripting: Reflected"), rule(3L, "Log Forging"),
+                rule(4L, "sql injection: hibernate")));
+        index.rebuild();
+
+        assertThat(index.isReady()).isTrue();
+        assertThat(index.search("sql injection")).containsExactly(1L, 4L);
+        assertThat(index.search("SQL INJ")).containsExactly(1L, 4L);
+        assertThat(index.search("site scr")).containsExactly(2L);
+        // 트라이그램이 없는 짧은 검색어
+        assertThat(index.search("Lo")).containsExactly(3L);
+        assertThat(index.search("q")).containsExactly(1L, 4L);
+        assertThat(index.search("")).containsExactly(1L, 2L, 3L, 4L);
+        // 모든 트라이그램이 있어도 이어져 있지 않으면 일치하지 않습니다.
+        assertThat(index.search("injection sql")).isEmpty();
+        assertThat(index.search("xyz")).isEmpty();
+    }
+
+    @Test
+    void appliesAddedRules() {
+        when(ruleRepository.findAllRuleNames()).thenReturn(List.of(rule(1L, "SQL Injection")));
+        index.rebuild();
+
+        index.onRulePackChanged(new RulePackChangedEvent(10L, Map.of(5L, "Blind SQL Injection", 6L, "Path Manipulation")));
+        assertThat(index.search("sql inj")).containsExactly(1L, 5L);
+        assertThat(index.search("PATH")).containsExactly(6L);
+        assertThat(index.search("pa")).containsExactly(6L);
+
+        // 같은 규칙 ID 가 다시 추가되어도 한 번만 색인합니다.
+        index.onRulePackChanged(new RulePackChangedEvent(11L, Map.of(1L, "SQL Injection")));
+        assertThat(index.search("sql")).containsExactly(1L, 5L);
+    }
+
+    @Test
+    void changesCommittedDuringRebuildAreAppliedExactlyOnce() {
+        when(ruleRepository.findAllRuleNames()).thenAnswer(invocation -> {
+            // 전체 규칙을 읽는 사이에 커밋된 변경: 규칙 3 은 읽은 목록에 이미 있고, 규칙 4 는 없습니다.
+            index.onRulePackChanged(new RulePackChangedEvent(2L, Map.of(3L, "Weak Cryptographic Hash", 4L, "Weak Encryption")));
+            return List.of(rule(1L, "Weak XML Schema"), rule(3L, "Weak Cryptographic Hash"));
+        });
+
+        index.rebuild();
+
+        assertThat(index.search("weak")).containsExactly(1L, 3L, 4L);
+        assertThat(index.search("hash")).containsExactly(3L);
+    }
+
+    private static RuleRepository.RuleNameView rule(Long id, String ruleName) {
+        return new RuleRepository.RuleNameView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getRuleName() {
+                return ruleName;
+            }
+        };
+    }
+}
@@ -0,0 +1,80 @@
+package com.fortify.analyzer.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mockingDetails;
+import static org.mockito.Mockito.spy;
+
+/**
+ * 매핑을 여러 묶음으로 나눠 저장해도, 규칙은 한 번만 저장되고 같은 규칙의 같은 외부 표준이 묶음을 넘어 중복 저장되지 않으며,
+ * 다른 룰팩의 규칙이 사이에 저장되어도 규칙 ID 가 올바르게 연결되는지 확인합니다. 중복 확인을 위해 저장한 매핑을 다시 읽지 않아야 합니다.
+ */
+@DataJpaTest
+class RulePackBatchWriterTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long rulePackId;
+    private Long otherRulePackId;
+
+    @BeforeEach
+    void setUp() {
+        rulePackId = insertRulePack("pack-a/externalmetadata.xml");
+        otherRulePackId = insertRulePack("pack-b/externalmetadata.xml");
+    }
+
+    @Test
+    void writesRulesOnceAndSkipsDuplicateMappingsAcrossBatches() {
+        JdbcTemplate writerJdbcTemplate = spy(jdbcTemplate);
+        RulePackBatchWriter.Session session = new RulePackBatchWriter(writerJdbcTemplate, 3).open(rulePackId);
+        // CWE 목록
+        session.add("Rule A", "CWE 1");
+        session.add("Rule B", "CWE 2");
+        session.add("Rule A", "CWE 1");
+        session.add("Rule C", "CWE 3");
+        // 다른 룰팩의 규칙이 중간에 저장됨
+        jdbcTemplate.update("INSERT INTO rules (rule_name, rule_pack_id) VALUES (?, ?)", "Rule D", otherRulePackId);
+        // OWASP 목록: 앞선 묶음에서 나온 규칙과 새 규칙이 섞여 있음
+        session.add("Rule D", "OWASP 1");
+        session.add("Rule A", "OWASP 1");
+        session.add("Rule B", "CWE 2");
+        session.add("Rule C", "OWASP 2");
+        session.add("Rule C", "OWASP 2");
+
+        RulePackBatchWriter.WriteResult result = session.finish();
+
+        assertThat(mockingDetails(writerJdbcTemplate).getInvocations())
+                .filteredOn(invocation -> invocation.getMethod().getName().equals("query")
+                        && invocation.getArgument(0) instanceof String)
+                .allSatisfy(invocation -> assertThat((String) invocation.getArgument(0)).doesNotContain("external_mappings"));
+
+        assertThat(result.ruleCount()).isEqualTo(4);
+        assertThat(result.mappingCount()).isEqualTo(6);
+        assertThat(result.ruleIds()).containsOnlyKeys("Rule A", "Rule B", "Rule C", "Rule D");
+        List<Map<String, Object>> mappings = jdbcTemplate.queryForList(
+                "SELECT r.id, r.rule_name, m.standard_info FROM external_mappings m JOIN rules r ON r.id = m.rule_id "
+                        + "WHERE r.rule_pack_id = ? ORDER BY r.rule_name, m.standard_info", rulePackId);
+        assertThat(mappings).extracting(row -> row.get("RULE_NAME") + "=" + row.get("STANDARD_INFO"))
+                .containsExactly("Rule A=CWE 1", "Rule A=OWASP 1", "Rule B=CWE 2", "Rule C=CWE 3", "Rule C=OWASP 2",
+                        "Rule D=OWASP 1");
+        assertThat(mappings).allSatisfy(row ->
+                assertThat(result.ruleIds().get((String) row.get("RULE_NAME"))).isEqualTo(row.get("ID")));
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM rules WHERE rule_pack_id = ?", Long.class, rulePackId))
+                .isEqualTo(4);
+    }
+
+    private Long insertRulePack(String location) {
+        jdbcTemplate.update("INSERT INTO rule_pack (pack_name, pack_id, pack_version, location) VALUES (?, ?, ?, ?)",
+                "Test Pack", "test", "1.0", location);
+        return jdbcTemplate.queryForObject("SELECT id FROM rule_pack WHERE location = ?", Long.class, location);
+    }
+}
@@ -0,0 +1,147 @@
+package com.fortify.analyzer.service;
+
+import com.fortify.analyzer.dto.SearchResultDto;
+import com.fortify.analyzer.entity.ExternalMapping;
+import com.fortify.analyzer.entity.Language;
+import com.fortify.analyzer.entity.Rule;
+import com.fortify.analyzer.entity.RulePack;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 검색/상세 조회가 결과 개수와 관계없이 일정한 수의 SQL 만 실행하는지(N+1 이 없는지) Hibernate 통계로 확인합니다.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import({SearchService.class, RuleNameIndex.class, StandardCountIndex.class, AnalyzerMetrics.class, SimpleMeterRegistry.class})
+class SearchServiceQueryCountTest {
+
+    private static final int PACK_COUNT = 3;
+    private static final int RULES_PER_PACK = 20;
+    private static final int MAPPINGS_PER_RULE = 4;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private SearchService searchService;
+
+    @Autowired
+    private RuleNameIndex ruleNameIndex;
+
+    @Autowired
+    private StandardCountIndex standardCountIndex;
+
+    private Statistics statistics;
+
+    private Long detailRuleId;
+
+    private Long firstRulePackId;
+
+    @BeforeEach
+    void setUp() {
+        Language java = new Language();
+        java.setName("Java");
+        Language kotlin = new Language();
+        kotlin.setName("Kotlin");
+        entityManager.persist(java);
+        entityManager.persist(kotlin);
+
+        for (int p = 0; p < PACK_COUNT; p++) {
+            RulePack rulePack = new RulePack();
+            rulePack.setPackName("Pack " + p);
+            rulePack.setPackId("pack-" + p);
+            rulePack.setPackVersion("1." + p);
+            rulePack.setLocation("pack" + p + "/externalmetadata.xml");
+            entityManager.persist(rulePack);
+            if (firstRulePackId == null) {
+                firstRulePackId = rulePack.getId();
+            }
+
+            for (int r = 0; r < RULES_PER_PACK; r++) {
+                Rule rule = new Rule();
+                rule.setRuleName("SQL Injection " + p + "-" + r);
+                rule.setRulePack(rulePack);
+                rule.getLanguages().add(java);
+                rule.getLanguages().add(kotlin);
+                for (int m = 0; m < MAPPINGS_PER_RULE; m++) {
+                    ExternalMapping mapping = new ExternalMapping();
+                    mapping.setStandardInfo("Standard " + m);
+                    mapping.setRule(rule);
+                    rule.getMappings().add(mapping);
+                }
+                entityManager.persist(rule);
+                detailRuleId = rule.getId();
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        ruleNameIndex.rebuild();
+        standardCountIndex.rebuild();
+        // 테스트마다 데이터가 롤백되므로 이전 테스트의 검색 결과 캐시를 비웁니다.
+        searchService.onRulePackChanged(new RulePackChangedEvent(firstRulePackId, Map.of()));
+        statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void searchLoadsRulesAndPacksWithSingleStatement() {
+        SearchResultDto result = searchService.searchRulesAndAnalyze("sql injection");
+
+        // 화면/직렬화에서 사용하는 연관 엔티티에 접근해도 추가 쿼리가 없어야 합니다.
+        result.getFoundRules().forEach(rule -> assertThat(rule.getRulePack().getPackName()).startsWith("Pack"));
+
+        assertThat(result.getUniqueRuleCount()).isEqualTo(PACK_COUNT * RULES_PER_PACK);
+        assertThat(result.getExternalStandardCounts()).containsEntry("Standard 0", (long) PACK_COUNT * RULES_PER_PACK);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void cachedSearchReloadsRulesInCurrentPersistenceContext() {
+        searchService.searchRulesAndAnalyze("sql injection");
+        long hits = searchService.getSearchCacheStats().hits();
+        // 이전 요청의 영속성 컨텍스트가 닫힌 상황
+        entityManager.clear();
+
+        SearchResultDto result = searchService.searchRulesAndAnalyze("SQL Injection ");
+
+        // 캐시 적중이어도 지연 로딩 연관(매핑)에 접근할 수 있어야 합니다.
+        assertThat(result.getFoundRules()).hasSize(PACK_COUNT * RULES_PER_PACK)
+                .allSatisfy(rule -> assertThat(rule.getMappings()).hasSize(MAPPINGS_PER_RULE));
+        assertThat(result.getFoundRules()).extracting(Rule::getId).isSorted();
+        assertThat(result.getSearchKeyword()).isEqualTo("SQL Injection ");
+        assertThat(result.getExternalStandardCounts()).containsEntry("Standard 0", (long) PACK_COUNT * RULES_PER_PACK);
+        assertThat(searchService.getSearchCacheStats().hits()).isEqualTo(hits + 1);
+    }
+
+    @Test
+    void rulePackStandardCountsNeedNoStatements() {
+        assertThat(searchService.getRulePackStandardCounts(firstRulePackId, 10))
+                .hasSize(MAPPINGS_PER_RULE)
+                .allSatisfy(count -> assertThat(count.count()).isEqualTo(RULES_PER_PACK));
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+
+    @Test
+    void ruleDetailsLoadWithFixedStatementCount() {
+        Rule rule = searchService.getRuleDetails(detailRuleId).orElseThrow();
+
+        assertThat(rule.getRulePack().getPackName()).startsWith("Pack");
+        assertThat(rule.getMappings()).hasSize(MAPPINGS_PER_RULE);
+        assertThat(rule.getLanguages()).hasSize(2);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+}
@@ -0,0 +1,128 @@
+package com.fortify.analyzer.service;
+
+import com.fortify.analyzer.dto.SearchResultDto;
+import com.fortify.analyzer.entity.Rule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 룰팩 저장이 커밋된 뒤 색인/집계가 먼저 갱신되고 검색 결과 캐시는 그 다음에 비워지는지 확인합니다.
+ * 캐시를 비운 직후 다른 스레드에서 실행된 검색이 새 규칙을 포함한 결과를 캐시에 남겨야,
+ * 다음 검색(캐시 적중)에서도 새 룰팩의 규칙이 보입니다.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({SearchService.class, RuleNameIndex.class, StandardCountIndex.class, AnalyzerMetrics.class, SimpleMeterRegistry.class,
+        SearchServiceRulePackChangeTest.SearchAfterCacheInvalidation.class})
+class SearchServiceRulePackChangeTest {
+
+    @Autowired
+    private SearchService searchService;
+
+    @Autowired
+    private RuleNameIndex ruleNameIndex;
+
+    @Autowired
+    private StandardCountIndex standardCountIndex;
+
+    @Autowired
+    private SearchAfterCacheInvalidation searchAfterCacheInvalidation;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() {
+        Long rulePackId = insertRulePack("java/externalmetadata.xml");
+        insertRule(rulePackId, "SQL Injection", "CWE 89");
+        ruleNameIndex.rebuild();
+        standardCountIndex.rebuild();
+        searchService.onRulePackChanged(new RulePackChangedEvent(rulePackId, Map.of()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM external_mappings");
+        jdbcTemplate.update("DELETE FROM rules");
+        jdbcTemplate.update("DELETE FROM rule_pack");
+    }
+
+    @Test
+    void searchAfterCommitIncludesRulesOfNewPack() {
+        assertThat(searchService.searchRulesAndAnalyze("sql").getUniqueRuleCount()).isEqualTo(1);
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            Long rulePackId = insertRulePack("kotlin/externalmetadata.xml");
+            Long ruleId = insertRule(rulePackId, "Blind SQL Injection", "CWE 564");
+            eventPublisher.publishEvent(new RulePackChangedEvent(rulePackId, Map.of(ruleId, "Blind SQL Injection")));
+        });
+
+        // 캐시를 비운 직후의 검색도 새 규칙을 봐야 합니다.
+        assertThat(searchAfterCacheInvalidation.uniqueRuleCounts).containsExactly(2);
+        long hits = searchService.getSearchCacheStats().hits();
+        SearchResultDto result = searchService.searchRulesAndAnalyze("sql");
+
+        assertThat(searchService.getSearchCacheStats().hits()).isEqualTo(hits + 1);
+        assertThat(result.getFoundRules()).extracting(Rule::getRuleName)
+                .containsExactly("SQL Injection", "Blind SQL Injection");
+        assertThat(result.getExternalStandardCounts()).containsExactlyInAnyOrderEntriesOf(Map.of("CWE 89", 1L, "CWE 564", 1L));
+    }
+
+    private Long insertRulePack(String location) {
+        jdbcTemplate.update("INSERT INTO rule_pack (pack_name, pack_id, pack_version, location) VALUES (?, ?, ?, ?)",
+                "Test Pack", "test", "1.0", location);
+        return jdbcTemplate.queryForObject("SELECT id FROM rule_pack WHERE location = ?", Long.class, location);
+    }
+
+    private Long insertRule(Long rulePackId, String ruleName, String standardInfo) {
+        jdbcTemplate.update("INSERT INTO rules (rule_name, rule_pack_id) VALUES (?, ?)", ruleName, rulePackId);
+        Long ruleId = jdbcTemplate.queryForObject("SELECT id FROM rules WHERE rule_pack_id = ? AND rule_name = ?",
+                Long.class, rulePackId, ruleName);
+        jdbcTemplate.update("INSERT INTO external_mappings (standard_info, rule_id) VALUES (?, ?)", standardInfo, ruleId);
+        return ruleId;
+    }
+
+    /**
+     * 검색 결과 캐시가 비워진 직후에 다른 스레드에서 같은 키워드로 검색합니다. (동시에 들어온 검색 요청)
+     */
+    static class SearchAfterCacheInvalidation {
+
+        private final List<Integer> uniqueRuleCounts = new ArrayList<>();
+
+        @Autowired
+        private SearchService searchService;
+
+        @TransactionalEventListener
+        @Order(RulePackChangedEvent.CACHE_LISTENER_ORDER + 1)
+        public void onRulePackChanged(RulePackChangedEvent event) {
+            uniqueRuleCounts.add(CompletableFuture.supplyAsync(
+                    () -> searchService.searchRulesAndAnalyze("sql").getUniqueRuleCount()).join());
+        }
+    }
+}
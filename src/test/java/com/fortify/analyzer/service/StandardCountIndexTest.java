@@ -0,0 +1,91 @@
+package com.fortify.analyzer.service;
+
+import com.fortify.analyzer.repository.ExternalMappingRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 미리 집계한 규칙별/룰팩별 표준 개수가 같은 매핑 행을 직접 그룹핑한 결과와 같은지,
+ * 집계를 다시 만드는 동안 커밋된 변경이 빠지거나 두 번 집계되지 않는지 확인합니다.
+ */
+class StandardCountIndexTest {
+
+    private final ExternalMappingRepository externalMappingRepository = mock(ExternalMappingRepository.class);
+    private final StandardCountIndex index = new StandardCountIndex(externalMappingRepository);
+
+    @Test
+    void aggregatesMatchGroupByOverSameRows() {
+        Random random = new Random(7);
+        List<ExternalMappingRepository.RuleStandardView> rows = new ArrayList<>();
+        for (long ruleId = 1; ruleId <= 300; ruleId++) {
+            long rulePackId = ruleId % 3 + 1;
+            for (int mapping = 0; mapping < 1 + random.nextInt(4); mapping++) {
+                rows.add(row(ruleId, rulePackId, "CWE-" + random.nextInt(40)));
+            }
+        }
+        when(externalMappingRepository.findAllRuleStandards()).thenReturn(rows);
+        index.rebuild();
+
+        List<Long> matched = List.of(1L, 2L, 5L, 17L, 99L, 150L, 299L, 1000L);
+        assertThat(index.aggregate(matched)).isEqualTo(rows.stream()
+                .filter(row -> matched.contains(row.getRuleId()))
+                .collect(Collectors.groupingBy(ExternalMappingRepository.RuleStandardView::getStandardInfo, Collectors.counting())));
+        for (long rulePackId = 1; rulePackId <= 3; rulePackId++) {
+            long packId = rulePackId;
+            assertThat(index.getPackCounts(packId)).isEqualTo(rows.stream()
+                    .filter(row -> row.getRulePackId() == packId)
+                    .collect(Collectors.groupingBy(ExternalMappingRepository.RuleStandardView::getStandardInfo, Collectors.counting())));
+        }
+        assertThat(index.getPackCounts(4L)).isEmpty();
+    }
+
+    @Test
+    void changesCommittedDuringRebuildAreCountedOnce() {
+        // 룰팩 2 의 커밋된 매핑: 규칙 3 은 전체 매핑을 읽을 때 이미 포함되고, 규칙 4 는 포함되지 않습니다.
+        when(externalMappingRepository.findRuleStandardsByRulePackId(2L)).thenReturn(List.of(
+                row(3L, 2L, "CWE-79"), row(4L, 2L, "CWE-79"), row(4L, 2L, "CWE-89")));
+        when(externalMappingRepository.findAllRuleStandards()).thenAnswer(invocation -> {
+            // 전체 매핑을 읽는 사이에 룰팩 2 가 저장되어 커밋됨
+            index.onRulePackChanged(new RulePackChangedEvent(2L, Map.of(3L, "Rule 3", 4L, "Rule 4")));
+            return List.of(row(1L, 1L, "CWE-79"), row(3L, 2L, "CWE-79"));
+        });
+
+        index.rebuild();
+
+        assertThat(index.getPackCounts(1L)).containsExactlyInAnyOrderEntriesOf(Map.of("CWE-79", 1L));
+        assertThat(index.getPackCounts(2L)).containsExactlyInAnyOrderEntriesOf(Map.of("CWE-79", 2L, "CWE-89", 1L));
+        assertThat(index.aggregate(List.of(1L, 3L, 4L))).containsExactlyInAnyOrderEntriesOf(Map.of("CWE-79", 3L, "CWE-89", 1L));
+
+        // 이미 집계된 규칙이 다시 전달되어도 한 번만 셉니다.
+        index.onRulePackChanged(new RulePackChangedEvent(2L, Map.of(4L, "Rule 4")));
+        assertThat(index.getPackCounts(2L)).containsExactlyInAnyOrderEntriesOf(Map.of("CWE-79", 2L, "CWE-89", 1L));
+    }
+
+    private static ExternalMappingRepository.RuleStandardView row(Long ruleId, Long rulePackId, String standardInfo) {
+        return new ExternalMappingRepository.RuleStandardView() {
+            @Override
+            public Long getRuleId() {
+                return ruleId;
+            }
+
+            @Override
+            public Long getRulePackId() {
+                return rulePackId;
+            }
+
+            @Override
+            public String getStandardInfo() {
+                return standardInfo;
+            }
+        };
+    }
+}
@@ -0,0 +1,197 @@
+package com.fortify.analyzer.service;
+
+import com.fortify.analyzer.entity.RulePack;
+import com.fortify.analyzer.repository.RulePackRepository;
+import com.fortify.analyzer.repository.RuleRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+/**
+ * 내용(SHA-256) 기반 재업로드 건너뛰기가 위치별로 동작하는지 확인합니다.
+ * 같은 위치의 같은 파일은 한 번만 저장되고, 바뀐 파일이나 다른 위치의 같은 파일은 저장되며,
+ * 같은 ZIP 안에 같은 위치/내용의 엔트리가 여러 개 있어도 처음 것만 저장되는지 검사합니다.
+ */
+@DataJpaTest
+class UploadServiceDuplicateTest {
+
+    private static final String LOCATION = "java/externalmetadata.xml";
+
+    @TempDir
+    Path tempDirectory;
+
+    @Autowired
+    private RulePackRepository rulePackRepository;
+
+    @Autowired
+    private RuleRepository ruleRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private UploadService uploadService;
+
+    @BeforeEach
+    void setUp() {
+        uploadService = new UploadService(mock(LogService.class), rulePackRepository, ruleRepository,
+                new RulePackParser("stax"), new RulePackBatchWriter(jdbcTemplate, 100),
+                new TransactionTemplate(transactionManager), mock(ApplicationEventPublisher.class),
+                new AnalyzerMetrics(new SimpleMeterRegistry()));
+    }
+
+    @Test
+    void reUploadOfSameFileIsSkipped() throws Exception {
+        assertThat(uploadService.processAndSaveFile(xmlFile(LOCATION, "1.0"))).startsWith("✅");
+
+        String message = uploadService.processAndSaveFile(xmlFile(LOCATION, "1.0"));
+
+        assertThat(message).startsWith("경고").contains("내용이 동일한");
+        assertThat(storedPacks()).containsExactly(LOCATION + "@1.0");
+        assertThat(storedRuleCount()).isEqualTo(2);
+    }
+
+    @Test
+    void changedFileAtSameLocationIsStored() throws Exception {
+        uploadService.processAndSaveFile(xmlFile(LOCATION, "1.0"));
+
+        String message = uploadService.processAndSaveFile(xmlFile(LOCATION, "2.0"));
+
+        assertThat(message).startsWith("✅");
+        assertThat(storedPacks()).containsExactly(LOCATION + "@1.0", LOCATION + "@2.0");
+    }
+
+    @Test
+    void sameContentAtAnotherLocationIsStored() throws Exception {
+        uploadService.processAndSaveFile(xmlFile(LOCATION, "1.0"));
+
+        String message = uploadService.processAndSaveFile(xmlFile("kotlin/externalmetadata.xml", "1.0"));
+
+        assertThat(message).startsWith("✅");
+        assertThat(storedPacks()).containsExactly(LOCATION + "@1.0", "kotlin/externalmetadata.xml@1.0");
+    }
+
+    @Test
+    void duplicateEntriesInZipAreStoredOnce() throws Exception {
+        // 같은 위치/내용의 엔트리 두 개와, 내용은 같지만 위치가 다른 엔트리 하나
+        Path zip = zipWithEntries(LOCATION, LOCATION, "kotlin/externalmetadata.xml");
+
+        List<String> messages = uploadService.processAndSaveZipFile(zipFile(zip));
+
+        assertThat(messages).hasSize(4);
+        assertThat(messages.get(0)).startsWith("✅");
+        assertThat(messages.get(1)).startsWith("경고").contains("내용이 동일한");
+        assertThat(messages.get(2)).startsWith("✅");
+        assertThat(messages.get(3)).contains("내용이 동일한 1개");
+        assertThat(storedPacks()).containsExactly(LOCATION + "@1.0", "kotlin/externalmetadata.xml@1.0");
+
+        // 같은 ZIP 을 다시 올리면 모두 건너뜁니다.
+        List<String> reUploadMessages = uploadService.processAndSaveZipFile(zipFile(zip));
+
+        assertThat(reUploadMessages.subList(0, 3)).allSatisfy(message -> assertThat(message).startsWith("경고"));
+        assertThat(reUploadMessages.get(3)).contains("내용이 동일한 3개");
+        assertThat(storedRuleCount()).isEqualTo(4);
+    }
+
+    @Test
+    void uniqueKeyRejectsSameContentAtSameLocation() {
+        rulePackRepository.saveAndFlush(rulePack("1.0", "abc"));
+
+        assertThatThrownBy(() -> rulePackRepository.saveAndFlush(rulePack("1.1", "abc")))
+                .isInstanceOf(DataIntegrityViolationException.class);
+    }
+
+    private List<String> storedPacks() {
+        return jdbcTemplate.queryForList(
+                "SELECT location || '@' || pack_version FROM rule_pack ORDER BY id", String.class);
+    }
+
+    private long storedRuleCount() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM rules", Long.class);
+    }
+
+    private static RulePack rulePack(String version, String contentSha256) {
+        RulePack rulePack = new RulePack();
+        rulePack.setPackName("Test Pack");
+        rulePack.setPackId("test");
+        rulePack.setPackVersion(version);
+        rulePack.setLocation(LOCATION);
+        rulePack.setContentSha256(contentSha256);
+        return rulePack;
+    }
+
+    private static MockMultipartFile xmlFile(String location, String version) {
+        return new MockMultipartFile("file", location, "application/xml", externalMetadata(version));
+    }
+
+    private static MockMultipartFile zipFile(Path zip) throws IOException {
+        return new MockMultipartFile("file", "rulepacks.zip", "application/zip", Files.readAllBytes(zip));
+    }
+
+    private static byte[] externalMetadata(String version) {
+        return ("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+                + "<ExternalMetadataPack><PackInfo><Name>Test Pack</Name><PackID>test</PackID>"
+                + "<Version>" + version + "</Version></PackInfo><ExternalList><Name>CWE</Name>"
+                + "<Mapping><InternalCategory>SQL Injection</InternalCategory><ExternalCategory>CWE 89</ExternalCategory></Mapping>"
+                + "<Mapping><InternalCategory>Log Forging</InternalCategory><ExternalCategory>CWE 117</ExternalCategory></Mapping>"
+                + "</ExternalList></ExternalMetadataPack>\n").getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 모든 엔트리에 같은 내용을 담은 ZIP 을 만듭니다.
+     * ZipOutputStream 은 같은 이름의 엔트리를 허용하지 않으므로, 같은 길이의 임시 이름으로 쓴 뒤 바이트를 바꿔 이름을 겹치게 합니다.
+     */
+    private Path zipWithEntries(String... names) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ZipOutputStream out = new ZipOutputStream(bytes)) {
+            for (int i = 0; i < names.length; i++) {
+                out.putNextEntry(new ZipEntry(placeholderName(names[i], i)));
+                out.write(externalMetadata("1.0"));
+                out.closeEntry();
+            }
+        }
+        byte[] zip = bytes.toByteArray();
+        for (int i = 0; i < names.length; i++) {
+            replaceAll(zip, placeholderName(names[i], i).getBytes(StandardCharsets.UTF_8),
+                    names[i].getBytes(StandardCharsets.UTF_8));
+        }
+        return Files.write(tempDirectory.resolve("rulepacks.zip"), zip);
+    }
+
+    private static String placeholderName(String name, int index) {
+        return index + name.substring(1);
+    }
+
+    private static void replaceAll(byte[] data, byte[] target, byte[] replacement) {
+        for (int i = 0; i <= data.length - target.length; i++) {
+            if (Arrays.equals(data, i, i + target.length, target, 0, target.length)) {
+                System.arraycopy(replacement, 0, data, i, replacement.length);
+            }
+        }
+    }
+}
@@ -0,0 +1,301 @@
+package com.fortify.analyzer.service;
+
+import com.fortify.analyzer.repository.RulePackRepository;
+import com.fortify.analyzer.repository.RuleRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * 업로드 경로가 업로드 파일 전체나 파싱한 룰팩 전체를 힙에 올리지 않는지 확인하는 메모리 회귀 테스트입니다.
+ * 규칙 이름이 10만 개로 모두 다른, 최대 힙보다 큰 XML 을 스트림으로 흘려보내 매핑이 모두 저장 세션으로 넘어가는지,
+ * Old 영역의 최대 사용량이 제한되는지 검사합니다. ZIP 은 이런 엔트리 여러 개를 병렬로 파싱하는 경우를 확인합니다.
+ * 힙 크기를 고정한 memoryTest 태스크에서만 실행됩니다. (./gradlew memoryTest)
+ */
+@Tag("memory")
+class UploadServiceMemoryTest {
+
+    private static final long OLD_GEN_GROWTH_LIMIT = 64L * 1024 * 1024;
+
+    @TempDir
+    Path tempDirectory;
+
+    private final AtomicLong storedMappings = new AtomicLong();
+    private final AtomicInteger finishedSessions = new AtomicInteger();
+    private UploadService uploadService;
+
+    @BeforeEach
+    void setUp() {
+        RulePackBatchWriter rulePackBatchWriter = mock(RulePackBatchWriter.class);
+        TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+        // 호출 기록을 남기면 매핑 수만큼 메모리를 쓰므로 stubOnly 로 만듭니다.
+        RulePackBatchWriter.Session session = mock(RulePackBatchWriter.Session.class, withSettings().stubOnly());
+
+        doAnswer(invocation -> storedMappings.incrementAndGet()).when(session).add(any(), any());
+        when(session.finish()).thenAnswer(invocation -> {
+            finishedSessions.incrementAndGet();
+            return new RulePackBatchWriter.WriteResult(0, 0, 1, Map.of());
+        });
+        when(rulePackBatchWriter.open(any())).thenReturn(session);
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+
+        uploadService = new UploadService(mock(LogService.class), mock(RulePackRepository.class),
+                mock(RuleRepository.class), new RulePackParser("stax"), rulePackBatchWriter, transactionTemplate,
+                mock(ApplicationEventPublisher.class), new AnalyzerMetrics(new SimpleMeterRegistry()));
+    }
+
+    @Test
+    void singleFileUploadStreamsWithoutBufferingWholeFile() throws Exception {
+        long inputSize = Runtime.getRuntime().maxMemory() + 64L * 1024 * 1024;
+        StreamingMultipartFile file = new StreamingMultipartFile("externalmetadata.xml", inputSize, new AtomicLong());
+
+        OldGenPeak oldGenPeak = OldGenPeak.start();
+        String message = uploadService.processAndSaveFile(file);
+
+        assertThat(message).startsWith("✅");
+        assertThat(storedMappings.get()).isEqualTo(file.mappingCount().get())
+                .isGreaterThan(SyntheticExternalMetadataStream.RULE_COUNT * 2L);
+        assertThat(oldGenPeak.growth()).isLessThan(OLD_GEN_GROWTH_LIMIT);
+    }
+
+    @Test
+    void zipUploadBoundsBufferedMappingsAcrossEntries() throws Exception {
+        // 엔트리 하나의 규칙별 매핑만으로도 Old 영역 제한에 가까워지는 크기
+        int entryCount = 3;
+        long entrySize = Runtime.getRuntime().maxMemory() / 4;
+        AtomicLong mappingCount = new AtomicLong();
+        Path zip = tempDirectory.resolve("rulepacks.zip");
+        try (ZipOutputStream out = new ZipOutputStream(Files.newOutputStream(zip))) {
+            for (int i = 0; i < entryCount; i++) {
+                out.putNextEntry(new ZipEntry("pack" + i + "/externalmetadata.xml"));
+                new SyntheticExternalMetadataStream(entrySize, mappingCount).transferTo(out);
+                out.closeEntry();
+            }
+        }
+
+        OldGenPeak oldGenPeak = OldGenPeak.start();
+        List<String> messages = uploadService.processAndSaveZipFile(new ZipMultipartFile(zip));
+
+        assertThat(messages).hasSize(entryCount + 1);
+        assertThat(messages.subList(0, entryCount)).allSatisfy(message -> assertThat(message).startsWith("✅"));
+        assertThat(finishedSessions.get()).isEqualTo(entryCount);
+        assertThat(storedMappings.get()).isEqualTo(mappingCount.get());
+        assertThat(oldGenPeak.growth()).isLessThan(OLD_GEN_GROWTH_LIMIT);
+    }
+
+    /**
+     * GC 후 Old 영역 사용량을 기준으로 최대 사용량 증가분을 잽니다.
+     */
+    private record OldGenPeak(List<MemoryPoolMXBean> pools, long before) {
+
+        static OldGenPeak start() {
+            List<MemoryPoolMXBean> oldGenPools = ManagementFactory.getMemoryPoolMXBeans().stream()
+                    .filter(pool -> pool.getType() == MemoryType.HEAP)
+                    .filter(pool -> pool.getName().contains("Old") || pool.getName().contains("Tenured"))
+                    .toList();
+            System.gc();
+            long before = oldGenPools.stream().mapToLong(pool -> pool.getUsage().getUsed()).sum();
+            oldGenPools.forEach(MemoryPoolMXBean::resetPeakUsage);
+            return new OldGenPeak(oldGenPools, before);
+        }
+
+        long growth() {
+            return pools.stream().mapToLong(pool -> pool.getPeakUsage().getUsed()).sum() - before;
+        }
+    }
+
+    /**
+     * getBytes() 를 호출하면 실패하는 MultipartFile 입니다. 내용은 요청할 때마다 생성되는 스트림으로만 제공합니다.
+     */
+    private record StreamingMultipartFile(String originalFilename, long size, AtomicLong mappingCount) implements MultipartFile {
+
+        @Override
+        public String getName() {
+            return "file";
+        }
+
+        @Override
+        public String getOriginalFilename() {
+            return originalFilename;
+        }
+
+        @Override
+        public String getContentType() {
+            return "application/xml";
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return size == 0;
+        }
+
+        @Override
+        public long getSize() {
+            return size;
+        }
+
+        @Override
+        public byte[] getBytes() {
+            throw new AssertionError("업로드 파일 전체를 byte[] 로 읽으면 안 됩니다.");
+        }
+
+        @Override
+        public InputStream getInputStream() {
+            // 지문 계산과 파싱에서 한 번씩 읽으므로, 마지막으로 읽은 스트림의 매핑 수만 남깁니다.
+            mappingCount.set(0);
+            return new SyntheticExternalMetadataStream(size, mappingCount);
+        }
+
+        @Override
+        public void transferTo(File dest) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    /**
+     * 디스크의 ZIP 파일을 그대로 전달하는 MultipartFile 입니다.
+     */
+    private record ZipMultipartFile(Path path) implements MultipartFile {
+
+        @Override
+        public String getName() {
+            return "file";
+        }
+
+        @Override
+        public String getOriginalFilename() {
+            return path.getFileName().toString();
+        }
+
+        @Override
+        public String getContentType() {
+            return "application/zip";
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return false;
+        }
+
+        @Override
+        public long getSize() {
+            return path.toFile().length();
+        }
+
+        @Override
+        public byte[] getBytes() {
+            throw new AssertionError("업로드 파일 전체를 byte[] 로 읽으면 안 됩니다.");
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException {
+            return Files.newInputStream(path);
+        }
+
+        @Override
+        public void transferTo(File dest) throws IOException {
+            Files.copy(path, dest.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * 지정한 크기 이상이 될 때까지 <Mapping> 을 반복 생성하는 externalmetadata.xml 스트림입니다.
+     * 규칙 이름이 RULE_COUNT 개로 모두 다르므로, 규칙별로 매핑을 모으면 룰팩 크기에 비례하는 메모리가 필요합니다.
+     */
+    private static class SyntheticExternalMetadataStream extends InputStream {
+
+        static final int RULE_COUNT = 100_000;
+        private static final int STANDARD_COUNT = 10;
+
+        private static final byte[] HEADER = ("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+                + "<ExternalMetadataPack><PackInfo><Name>Synthetic Pack</Name><PackID>synthetic</PackID>"
+                + "<Version>1.0</Version></PackInfo><ExternalList><Name>Synthetic List</Name>\n")
+                .getBytes(StandardCharsets.UTF_8);
+        private static final byte[] FOOTER = "</ExternalList></ExternalMetadataPack>\n".getBytes(StandardCharsets.UTF_8);
+
+        private final long targetSize;
+        private final AtomicLong mappingCount;
+        private long produced;
+        private long mappingIndex;
+        private byte[] chunk = HEADER;
+        private int position;
+        private boolean finished;
+
+        SyntheticExternalMetadataStream(long targetSize, AtomicLong mappingCount) {
+            this.targetSize = targetSize;
+            this.mappingCount = mappingCount;
+        }
+
+        @Override
+        public int read() {
+            byte[] single = new byte[1];
+            return read(single, 0, 1) == -1 ? -1 : single[0] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) {
+            if (length == 0) {
+                return 0;
+            }
+            if (position == chunk.length && !nextChunk()) {
+                return -1;
+            }
+            int count = Math.min(length, chunk.length - position);
+            System.arraycopy(chunk, position, buffer, offset, count);
+            position += count;
+            produced += count;
+            return count;
+        }
+
+        private boolean nextChunk() {
+            if (finished) {
+                return false;
+            }
+            if (produced >= targetSize) {
+                chunk = FOOTER;
+                finished = true;
+            } else {
+                long rule = mappingIndex % RULE_COUNT;
+                long standard = (mappingIndex / RULE_COUNT) % STANDARD_COUNT;
+                chunk = ("<Mapping><InternalCategory>Synthetic Rule " + rule + "</InternalCategory>"
+                        + "<ExternalCategory>Synthetic Standard " + standard + "</ExternalCategory></Mapping>\n")
+                        .getBytes(StandardCharsets.UTF_8);
+                mappingIndex++;
+                mappingCount.incrementAndGet();
+            }
+            position = 0;
+            return true;
+        }
+    }
+}